@@ -0,0 +1,27 @@
+#!/bin/bash
+# Reports the shared helpers whose copies differ beyond the application name
+# and the copyright year.
+# See README for the list of helpers.
+
+cd "$(dirname "$0")"
+
+HELPERS="HostLocationCache PathCache VlanPool FlowRuleBatcher HostEventQueue
+HostIntentIndex HostInventory FlowRuleShadow PendingFlowTable PathSelector
+LinkLoadWeigher"
+
+normalize() {
+    sed -E 's/org\.[a-z0-9]+\.app/org.APP.app/g; s#onos/[a-z0-9]+#onos/APP#g; s/Copyright [0-9]+-present/Copyright YEAR-present/' "$1"
+}
+
+status=0
+for helper in $HELPERS; do
+    copies=$(ls */src/main/java/org/*/app/$helper.java 2>/dev/null)
+    first=$(echo "$copies" | head -1)
+    for copy in $copies; do
+        if ! diff -q <(normalize "$first") <(normalize "$copy") > /dev/null; then
+            echo "$copy differs from $first"
+            status=1
+        fi
+    done
+done
+exit $status
@@ -25,7 +25,9 @@ import org.onosproject.net.host.HostEvent;
 import org.onosproject.net.host.HostListener;
 import org.onosproject.net.host.HostService;
 import org.onosproject.net.intent.HostToHostIntent;
+import org.onosproject.net.intent.Intent;
 import org.onosproject.net.intent.IntentService;
+import org.onosproject.net.intent.Key;
 import org.onosproject.net.packet.*;
 import org.onosproject.net.topology.TopologyService;
 import org.osgi.service.component.annotations.*;
@@ -63,6 +65,18 @@ public class AppComponent {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected FlowRuleService flowRuleService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected HostLocationCache hostCache;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected HostEventQueue hostEvents;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected HostIntentIndex hostIntents;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected IntentRegistry intentRegistry;
+
     private InternalHostListener hostListener = new InternalHostListener();
 
     private ApplicationId appId;
@@ -74,6 +88,7 @@ public class AppComponent {
         appId = coreService.registerApplication(("org.hybrid.app"));
 
         packetService.addProcessor(processor, PacketProcessor.director(2));
+        hostEvents.start(this::handleHostEvent);
         hostService.addListener(hostListener);
 
         installIpv4FlowRules();
@@ -89,50 +104,79 @@ public class AppComponent {
         hostService.removeListener(hostListener);
         hostListener = null;
 
+        hostEvents.stop();
+
         log.info("[WNET 2024] app has stopped");
     }
 
+    //Host events are handled on the queue thread, not on the dispatch one
     private class InternalHostListener implements HostListener {
         @Override
         public void event(HostEvent event) {
+            hostEvents.offer(event);
+        }
+    }
 
-            if (event.type() == HostEvent.Type.HOST_ADDED) {
-                log.info("A new host has been HOST_ADDED {}", event.subject().id());
+    private void handleHostEvent(HostEvent event) {
+        if (event.type() == HostEvent.Type.HOST_ADDED) {
+            log.info("A new host has been HOST_ADDED {}", event.subject().id());
 
-                //Search for other hosts and establish host2host intents
-                establishIntents(event.subject().id());
-            }
+            //Search for other hosts and establish host2host intents
+            establishIntents(event.subject().id());
+        }
 
-            if (event.type() == HostEvent.Type.HOST_REMOVED) {
-                log.info("An host has been REMOVED {}", event.subject().id());
-            }
+        if (event.type() == HostEvent.Type.HOST_REMOVED) {
+            log.info("An host has been REMOVED {}", event.subject().id());
+
+            //Withdraw the intents of the host, they are purged once withdrawn
+            hostIntents.keys(event.subject().id()).forEach(intentRegistry::release);
+            hostIntents.withdraw(event.subject().id());
+        }
+
+        if (event.type() == HostEvent.Type.HOST_MOVED) {
+            log.info("An host has been MOVED {}", event.subject().id());
+
+            hostIntents.resubmit(event.subject().id());
         }
     }
 
     protected void establishIntents(HostId hostId) {
         List<Host> hosts = newArrayList(hostService.getHosts());
 
-        for (int i=0; i < hostService.getHostCount(); i++) {
+        for (int i=0; i < hosts.size(); i++) {
 
             if (!hosts.get(i).id().equals(hostId)) {
-                //Submit an intent
-                HostToHostIntent intent;
-                intent = HostToHostIntent.builder()
-                        .one(hostId)
-                        .two(hosts.get(i).id())
-                        .priority(500)
-                        .appId(appId)
-                        .build();
-
-                log.info("Intent established between {} and {}",
-                        hostId,
-                        hosts.get(i).id());
-
-                intentService.submit(intent);
+                //Submit an intent, unless the pair has one already
+                if (submitIntent(hostId, hosts.get(i).id(), 500)) {
+                    log.info("Intent established between {} and {}",
+                            hostId,
+                            hosts.get(i).id());
+                }
             }
         }
     }
 
+    // Submits the intent of a host pair if no intent of the pair is in flight or installed.
+    private boolean submitIntent(HostId one, HostId two, int priority) {
+        Key key = IntentRegistry.key(one, two, appId);
+        if (!intentRegistry.claim(key)) {
+            return false;
+        }
+
+        boolean ordered = IntentRegistry.ordered(one, two);
+        HostToHostIntent intent = HostToHostIntent.builder()
+                .key(key)
+                .appId(appId)
+                .one(ordered ? one : two)
+                .two(ordered ? two : one)
+                .priority(priority)
+                .build();
+
+        intentService.submit(intent);
+        hostIntents.add(one, two, key);
+        return true;
+    }
+
     private class ReactivePacketProcessor implements PacketProcessor {
 
         @Override
@@ -157,14 +201,10 @@ public class AppComponent {
                 DeviceId currentDeviceId = pck.receivedFrom().deviceId();
 
                 //Finding out the SRC host
-                HostId srcHostId = HostId.hostId(ethPck.getSourceMAC());
-                Host srcHost = hostService.getHost(srcHostId);
-                DeviceId srcHostLocation = srcHost.location().deviceId();
+                Host srcHost = hostCache.getHost(ethPck.getSourceMAC());
 
                 //Finding out the DST host --- this may be unkown
-                HostId dstHostId = HostId.hostId(ethPck.getDestinationMAC());
-                Host dstHost = hostService.getHost(dstHostId);
-                DeviceId dstHostLocation = dstHost.location().deviceId();
+                Host dstHost = hostCache.getHost(ethPck.getDestinationMAC());
 
                 //
                 if ((srcHost == null) || ((dstHost == null))) {
@@ -172,6 +212,11 @@ public class AppComponent {
                     return;
                 }
 
+                HostId srcHostId = srcHost.id();
+                HostId dstHostId = dstHost.id();
+                DeviceId srcHostLocation = srcHost.location().deviceId();
+                DeviceId dstHostLocation = dstHost.location().deviceId();
+
                 log.info("[WNET 2024] packet received IPV4 from {}", context.inPacket().receivedFrom());
                 log.info("--- [WNET 2024] SRC host {} switch {}", srcHostId, srcHostLocation);
                 log.info("--- [WNET 2024] DST host {} switch {}", dstHostId, dstHostLocation);
@@ -179,13 +224,8 @@ public class AppComponent {
                 if (currentDeviceId.equals(srcHostLocation)) {
                     log.info("[WNET 2024] packet received IPV4 from {} FISRT HOP !!!", context.inPacket().receivedFrom());
 
-                    HostToHostIntent intent = HostToHostIntent.builder()
-                            .appId(appId)
-                            .one(srcHost.id())
-                            .two(dstHost.id())
-                            .build();
-
-                    intentService.submit(intent);
+                    //Repeated packet-ins of a pair with an intent are only a lookup
+                    submitIntent(srcHost.id(), dstHost.id(), Intent.DEFAULT_INTENT_PRIORITY);
 
                     return;
 
@@ -15,23 +15,43 @@
  */
 package org.hybrid.app;
 
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import org.onosproject.net.host.HostService;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.CoreService;
+import org.onosproject.net.HostId;
 import org.onosproject.net.intent.HostToHostIntent;
 import org.onosproject.net.intent.Intent;
 import org.onosproject.net.intent.IntentService;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.Key;
 import org.onosproject.rest.AbstractWebResource;
 
+import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
-import java.util.Iterator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
 
 import static org.onlab.util.Tools.nullIsNotFound;
+import static org.onlab.util.Tools.readTreeFromStream;
 
 /**
  * Sample web resource.
@@ -39,63 +59,214 @@ import static org.onlab.util.Tools.nullIsNotFound;
 @Path("sample")
 public class AppWebResource extends AbstractWebResource {
 
+    private static final String APP_NAME = "org.hybrid.app";
+    private static final int MAX_LIMIT = 10000;
+    private static final int MAX_WITHDRAW_KEYS = 100000;
+
+    // decimal, hexadecimal or octal numbers, as read by Long.decode
+    private static final Pattern NUMERIC_KEY = Pattern.compile("[-+]?(0[xX]|#)?[0-9a-fA-F]+");
+
+    // intents ordered by id, read as an unsigned number
+    private static final Comparator<Intent> BY_ID =
+            (a, b) -> Long.compareUnsigned(a.id().fingerprint(), b.id().fingerprint());
+
     /**
-     * Get hello world greeting.
+     * Get a page of the intents, streamed as they are written. Intents are
+     * listed by increasing id; pass the returned next cursor to get the
+     * following page.
      *
+     * @param appId  optional name of the application owning the intents
+     * @param host   optional host the host-to-host intents have to connect
+     * @param state  optional state of the intents
+     * @param cursor optional id of the last intent of the previous page
+     * @param limit  maximum number of intents of the page
      * @return 200 OK
      */
     @GET
     @Path("")
-    public Response getGreeting() {
-        HostService hostService = get(HostService.class);
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getIntents(@QueryParam("appId") String appId,
+                               @QueryParam("host") String host,
+                               @QueryParam("state") String state,
+                               @QueryParam("cursor") String cursor,
+                               @QueryParam("limit") @DefaultValue("1000") int limit) {
         IntentService intentService = get(IntentService.class);
 
-        Iterator iterIntents = intentService.getIntents().iterator();
+        ApplicationId app = appId == null ? null
+                : nullIsNotFound(get(CoreService.class).getAppId(appId), "Application not found");
+        HostId hostId = host == null ? null : HostId.hostId(host);
+        IntentState intentState = state == null ? null : IntentState.valueOf(state.toUpperCase());
+        long after = cursor == null ? -1 : Long.parseUnsignedLong(cursor.replaceFirst("^0x", ""), 16);
+        boolean first = cursor == null;
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
 
-        ArrayNode arrayNode = mapper().createArrayNode();
-
-        while (iterIntents.hasNext()) {
-            Intent intent = (Intent) iterIntents.next();
+        // one pass over the store keeping only the page, so memory is bound by the limit
+        PriorityQueue<Intent> page = new PriorityQueue<>(size + 1, BY_ID.reversed());
+        boolean more = false;
+        for (Intent intent : intentService.getIntents()) {
+            long id = intent.id().fingerprint();
+            if (!first && Long.compareUnsigned(id, after) <= 0) {
+                continue;
+            }
+            if (!matches(intent, app, hostId, intentState, intentService)) {
+                continue;
+            }
+            if (page.size() == size && BY_ID.compare(intent, page.peek()) > 0) {
+                more = true;
+                continue;
+            }
+            page.add(intent);
+            if (page.size() > size) {
+                page.poll();
+                more = true;
+            }
+        }
 
-            ObjectNode node = mapper().createObjectNode();
-            if (intent instanceof HostToHostIntent) {
+        List<Intent> intents = new ArrayList<>(page);
+        intents.sort(BY_ID);
+        String next = more ? intents.get(intents.size() - 1).id().toString() : null;
 
-                        node.put("id:", intent.id().toString());
-                        node.put("src", ((HostToHostIntent) intent).one().toString());
-                        node.put("dst", ((HostToHostIntent) intent).two().toString());
+        StreamingOutput output = stream -> {
+            try (JsonGenerator json = mapper().getFactory().createGenerator(stream)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("intents");
+                for (Intent intent : intents) {
+                    writeIntent(json, intent, intentService.getIntentState(intent.key()));
+                }
+                json.writeEndArray();
+                if (next != null) {
+                    json.writeStringField("next", next);
+                } else {
+                    json.writeNullField("next");
+                }
+                json.writeEndObject();
             }
+        };
 
-            arrayNode.add(node);
-        }
+        return Response.ok(output, MediaType.APPLICATION_JSON_TYPE).build();
+    }
 
-        ObjectNode root = mapper().createObjectNode().putPOJO("Intents", arrayNode);
+    private static boolean matches(Intent intent, ApplicationId app, HostId hostId,
+                                   IntentState state, IntentService intentService) {
+        if (app != null && !app.equals(intent.appId())) {
+            return false;
+        }
+        if (hostId != null) {
+            if (!(intent instanceof HostToHostIntent)) {
+                return false;
+            }
+            HostToHostIntent h2h = (HostToHostIntent) intent;
+            if (!hostId.equals(h2h.one()) && !hostId.equals(h2h.two())) {
+                return false;
+            }
+        }
+        return state == null || state == intentService.getIntentState(intent.key());
+    }
 
-        return ok(root).build();
+    private static void writeIntent(JsonGenerator json, Intent intent, IntentState state)
+            throws IOException {
+        json.writeStartObject();
+        json.writeStringField("id", intent.id().toString());
+        json.writeStringField("key", intent.key().toString());
+        json.writeStringField("appId", intent.appId().name());
+        json.writeStringField("type", intent.getClass().getSimpleName());
+        json.writeStringField("state", state == null ? null : state.toString());
+        if (intent instanceof HostToHostIntent) {
+            json.writeStringField("src", ((HostToHostIntent) intent).one().toString());
+            json.writeStringField("dst", ((HostToHostIntent) intent).two().toString());
+        }
+        json.writeEndObject();
     }
 
     /**
-     * Get hello world greeting.
+     * Withdraw the intent of a key.
      *
-     * @return 200 OK
+     * @param key   intent key, a number is also tried as a numeric key; may
+     *              hold slashes, as host-to-host intent keys do
+     * @param appId optional name of the application owning the intent
+     * @return 202 ACCEPTED, 404 NOT FOUND if there is no such intent
      */
     @DELETE
-    @Path("intents")
-    public Response deleteIntent(@PathParam("intentId") String id) {
+    @Path("intents/{key: .+}")
+    public Response deleteIntent(@PathParam("key") String key,
+                                 @QueryParam("appId") @DefaultValue(APP_NAME) String appId) {
         IntentService intentService = get(IntentService.class);
+        ApplicationId app = nullIsNotFound(get(CoreService.class).getAppId(appId), "Application not found");
 
-        Iterator iterIntents = intentService.getIntents().iterator();
+        Intent intent = intentService.getIntent(Key.of(key, app));
+        if (intent == null && NUMERIC_KEY.matcher(key).matches()) {
+            try {
+                intent = intentService.getIntent(Key.of(Long.decode(key), app));
+            } catch (NumberFormatException e) {
+                intent = null;
+            }
+        }
+        intentService.withdraw(nullIsNotFound(intent, "Intent not found"));
 
-        while (iterIntents.hasNext()) {
-            Intent intent = (Intent) iterIntents.next();
+        return Response.accepted().build();
+    }
 
-            if (intent.id().equals(id)) {
+    /**
+     * Withdraw a list of intents in the background. The body holds the
+     * optional application name and the keys, strings for string keys and
+     * numbers for numeric keys: {"appId": "...", "keys": ["...", 12]}. At
+     * most 100000 keys are accepted at once.
+     *
+     * @param body list of the intents to withdraw
+     * @return 202 ACCEPTED with the withdraw job
+     * @throws IOException if the body cannot be parsed
+     */
+    @POST
+    @Path("intents/withdraw")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response withdrawIntents(InputStream body) throws IOException {
+        JsonNode root = readTreeFromStream(mapper(), body);
+        String appId = root.path("appId").asText(APP_NAME);
+        ApplicationId app = nullIsNotFound(get(CoreService.class).getAppId(appId), "Application not found");
 
-                intentService.withdraw(intent);
-            }
+        JsonNode keysNode = root.path("keys");
+        if (!keysNode.isArray()) {
+            throw new IllegalArgumentException("keys must be an array");
+        }
+        if (keysNode.size() > MAX_WITHDRAW_KEYS) {
+            throw new IllegalArgumentException("at most " + MAX_WITHDRAW_KEYS + " keys can be withdrawn at once");
+        }
+        List<Key> keys = new ArrayList<>(keysNode.size());
+        for (JsonNode node : keysNode) {
+            keys.add(node.isIntegralNumber() ? Key.of(node.asLong(), app) : Key.of(node.asText(), app));
         }
 
+        IntentWithdrawJobs.Job job = get(IntentWithdrawJobs.class).submit(keys);
 
-        return Response.accepted().build();
+        return Response.accepted(jobJson(job))
+                .location(URI.create("sample/intents/withdraw/" + job.id()))
+                .build();
+    }
+
+    /**
+     * Get the progress of a withdraw job.
+     *
+     * @param id job id
+     * @return 200 OK, 404 NOT FOUND if the job is unknown
+     */
+    @GET
+    @Path("intents/withdraw/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getWithdrawJob(@PathParam("id") long id) {
+        IntentWithdrawJobs.Job job = nullIsNotFound(get(IntentWithdrawJobs.class).job(id), "Job not found");
+
+        return ok(jobJson(job)).build();
+    }
+
+    private ObjectNode jobJson(IntentWithdrawJobs.Job job) {
+        return mapper().createObjectNode()
+                .put("job", job.id())
+                .put("total", job.total())
+                .put("withdrawn", job.withdrawn())
+                .put("missing", job.missing())
+                .put("failed", job.failed())
+                .put("done", job.isDone());
     }
 
 }
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hybrid.app;
+
+import org.onosproject.net.HostId;
+import org.onosproject.net.host.HostEvent;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Moves the handling of host events off the host event dispatch thread.
+ *
+ * Events are queued per host: while an event of a host is waiting, a newer
+ * event of the same host replaces it in place, so a flapping host costs a
+ * single handling. A host added and then updated before being handled is
+ * still handed over as added, with its latest state; likewise a host moved
+ * and then updated is handed over as moved from its first location, so
+ * that the move is not lost. The queue therefore
+ * holds at most one event per known host and needs no bound of its own, so
+ * the dispatch thread never waits on it and no event is dropped. A dedicated
+ * thread hands the events to the handler in arrival order.
+ */
+@Component(immediate = true, service = HostEventQueue.class)
+public class HostEventQueue {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<HostId, Pending> pending = new LinkedHashMap<>();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    private Consumer<HostEvent> handler;
+    private Thread worker;
+    private boolean running;
+    private int peakDepth;
+
+    @Deactivate
+    protected void deactivate() {
+        stop();
+    }
+
+    /**
+     * Starts handing the queued events to the given handler.
+     *
+     * @param handler host event handler
+     */
+    public void start(Consumer<HostEvent> handler) {
+        lock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            this.handler = handler;
+            running = true;
+            worker = groupedThreads("onos/hybrid", "host-events-%d", log).newThread(this::drainLoop);
+            worker.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the worker once the events already queued are handled.
+     */
+    public void stop() {
+        Thread w;
+        lock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            w = worker;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            w.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a host event. Never blocks.
+     *
+     * @param event host event
+     */
+    public void offer(HostEvent event) {
+        HostId hostId = event.subject().id();
+        received.increment();
+        lock.lock();
+        try {
+            Pending p = pending.get(hostId);
+            if (p != null) {
+                event = merge(p.event, event);
+                p.event = event;
+                coalesced.increment();
+                return;
+            }
+
+            pending.put(hostId, new Pending(event, System.nanoTime()));
+            peakDepth = Math.max(peakDepth, pending.size());
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Event handing over both a waiting event and a newer one of the same host.
+    private static HostEvent merge(HostEvent waiting, HostEvent event) {
+        if (event.type() == HostEvent.Type.HOST_REMOVED) {
+            return event;
+        }
+        switch (waiting.type()) {
+            case HOST_ADDED:
+                return new HostEvent(HostEvent.Type.HOST_ADDED, event.subject());
+            case HOST_MOVED:
+                return new HostEvent(HostEvent.Type.HOST_MOVED, event.subject(), waiting.prevSubject());
+            default:
+                return event;
+        }
+    }
+
+    /**
+     * Returns the number of hosts with an event waiting.
+     *
+     * @return queue depth
+     */
+    public int depth() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the largest number of hosts that had an event waiting at once.
+     *
+     * @return peak queue depth
+     */
+    public int peakDepth() {
+        lock.lock();
+        try {
+            return peakDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the age of the oldest event waiting.
+     *
+     * @return age in nanoseconds, 0 if the queue is empty
+     */
+    public long oldestNanos() {
+        lock.lock();
+        try {
+            Iterator<Pending> it = pending.values().iterator();
+            return it.hasNext() ? System.nanoTime() - it.next().queuedAt : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of events received.
+     *
+     * @return received event count
+     */
+    public long received() {
+        return received.sum();
+    }
+
+    /**
+     * Returns the number of events merged into an event already waiting.
+     *
+     * @return coalesced event count
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Returns the number of events handled.
+     *
+     * @return processed event count
+     */
+    public long processed() {
+        return processed.sum();
+    }
+
+    /**
+     * Returns the mean time from queueing to the end of the handling.
+     *
+     * @return mean latency in nanoseconds
+     */
+    public long meanLatencyNanos() {
+        long count = processed.sum();
+        return count == 0 ? 0 : latencyNanos.sum() / count;
+    }
+
+    /**
+     * Returns the longest time from queueing to the end of the handling.
+     *
+     * @return maximum latency in nanoseconds
+     */
+    public long maxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    private void drainLoop() {
+        while (true) {
+            Pending next;
+            lock.lock();
+            try {
+                while (running && pending.isEmpty()) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                Iterator<Pending> it = pending.values().iterator();
+                if (!it.hasNext()) {
+                    return;
+                }
+                next = it.next();
+                it.remove();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                handler.accept(next.event);
+            } catch (RuntimeException e) {
+                log.warn("Unable to handle host event {}", next.event, e);
+            }
+
+            long latency = System.nanoTime() - next.queuedAt;
+            latencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            processed.increment();
+        }
+    }
+
+    private static final class Pending {
+        private HostEvent event;
+        private final long queuedAt;
+
+        private Pending(HostEvent event, long queuedAt) {
+            this.event = event;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hybrid.app;
+
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.HostId;
+import org.onosproject.net.intent.IntentEvent;
+import org.onosproject.net.intent.IntentListener;
+import org.onosproject.net.intent.IntentService;
+import org.onosproject.net.intent.Key;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of the host-to-host intents in flight or installed.
+ *
+ * Intents are keyed by the unordered host pair, so both directions of a
+ * conversation and the proactive and reactive paths share one intent. A
+ * pair is claimed before its intent is submitted; until the intent service
+ * reports it withdrawn or purged, further packet-ins of the pair are an
+ * O(1) lookup instead of a new intent compilation. An intent that fails or
+ * is corrupted gives up its claim, so the next packet-in of the pair
+ * submits it again.
+ */
+@Component(immediate = true, service = IntentRegistry.class)
+public class IntentRegistry {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected IntentService intentService;
+
+    private final InternalIntentListener intentListener = new InternalIntentListener();
+
+    private final Map<Key, State> intents = new ConcurrentHashMap<>();
+
+    private final LongAdder claims = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    @Activate
+    protected void activate() {
+        intentService.addListener(intentListener);
+        log.info("Intent registry started");
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        intentService.removeListener(intentListener);
+        intents.clear();
+        log.info("Intent registry stopped, {} intents claimed, {} duplicates avoided", claims(), hits());
+    }
+
+    /**
+     * Claims the intent of a key for submission.
+     *
+     * @param key intent key
+     * @return true if the caller has to submit the intent, false if it is
+     *         already in flight or installed
+     */
+    public boolean claim(Key key) {
+        if (intents.putIfAbsent(key, State.IN_FLIGHT) == null) {
+            claims.increment();
+            return true;
+        }
+        hits.increment();
+        return false;
+    }
+
+    /**
+     * Forgets the intent of a key that is being withdrawn, so that the pair
+     * can be claimed again without waiting for the withdrawal to complete.
+     *
+     * @param key intent key
+     */
+    public void release(Key key) {
+        intents.remove(key);
+    }
+
+    /**
+     * Returns the number of intents in flight.
+     *
+     * @return in-flight intent count
+     */
+    public int inFlight() {
+        return count(State.IN_FLIGHT);
+    }
+
+    /**
+     * Returns the number of intents installed.
+     *
+     * @return installed intent count
+     */
+    public int installed() {
+        return count(State.INSTALLED);
+    }
+
+    /**
+     * Returns the number of intents claimed for submission.
+     *
+     * @return claim count
+     */
+    public long claims() {
+        return claims.sum();
+    }
+
+    /**
+     * Returns the number of claims answered by an intent already registered.
+     *
+     * @return duplicate submissions avoided
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the key of the intent between two hosts, the same whichever
+     * host comes first.
+     *
+     * @param one   one host
+     * @param two   the other host
+     * @param appId application owning the intent
+     * @return intent key
+     */
+    public static Key key(HostId one, HostId two, ApplicationId appId) {
+        return ordered(one, two)
+                ? Key.of(one + "-" + two, appId)
+                : Key.of(two + "-" + one, appId);
+    }
+
+    /**
+     * Returns whether two hosts are in the order used by {@link #key}.
+     *
+     * @param one one host
+     * @param two the other host
+     * @return true if one comes first
+     */
+    public static boolean ordered(HostId one, HostId two) {
+        return one.toString().compareTo(two.toString()) < 0;
+    }
+
+    private int count(State state) {
+        int count = 0;
+        for (State s : intents.values()) {
+            if (s == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Only keys claimed here are tracked, events of other intents find no entry.
+    private class InternalIntentListener implements IntentListener {
+        @Override
+        public void event(IntentEvent event) {
+            Key key = event.subject().key();
+            switch (event.type()) {
+                case INSTALL_REQ:
+                    intents.replace(key, State.INSTALLED, State.IN_FLIGHT);
+                    break;
+                case INSTALLED:
+                    intents.replace(key, State.IN_FLIGHT, State.INSTALLED);
+                    break;
+                case WITHDRAWN:
+                case PURGED:
+                case FAILED:
+                case CORRUPT:
+                    intents.remove(key);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private enum State {
+        IN_FLIGHT,
+        INSTALLED
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hybrid.app;
+
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentService;
+import org.onosproject.net.intent.Key;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Withdraws lists of intents in the background.
+ *
+ * Each request becomes a job that looks its intents up by key, so a
+ * withdrawal never scans the intent store. Keys are handled in batches on a
+ * dedicated thread and the caller gets the job id back at once, to follow
+ * its progress. A key whose withdrawal fails is counted as failed and the
+ * job goes on with the next one, so that every job completes. Only the
+ * most recent jobs are remembered.
+ */
+@Component(immediate = true, service = IntentWithdrawJobs.class)
+public class IntentWithdrawJobs {
+
+    private static final int BATCH_SIZE = 128;
+    private static final int MAX_JOBS = 64;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected IntentService intentService;
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Long, Job> jobs = new LinkedHashMap<Long, Job>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Job> eldest) {
+            return size() > MAX_JOBS;
+        }
+    };
+
+    private ExecutorService executor;
+
+    @Activate
+    protected void activate() {
+        executor = Executors.newSingleThreadExecutor(groupedThreads("onos/hybrid", "intent-withdraw-%d", log));
+        log.info("Intent withdraw jobs started");
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Intent withdraw jobs stopped");
+    }
+
+    /**
+     * Starts withdrawing the intents of the given keys.
+     *
+     * @param keys keys of the intents to withdraw
+     * @return the job withdrawing them
+     */
+    public Job submit(List<Key> keys) {
+        Job job = new Job(nextId.incrementAndGet(), new ArrayList<>(keys));
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+        for (int from = 0; from < job.keys.size(); from += BATCH_SIZE) {
+            List<Key> batch = job.keys.subList(from, Math.min(from + BATCH_SIZE, job.keys.size()));
+            executor.execute(() -> withdraw(job, batch));
+        }
+        return job;
+    }
+
+    /**
+     * Returns a recent job.
+     *
+     * @param id job id
+     * @return the job, null if unknown or forgotten
+     */
+    public Job job(long id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    private void withdraw(Job job, List<Key> batch) {
+        for (Key key : batch) {
+            try {
+                Intent intent = intentService.getIntent(key);
+                if (intent == null) {
+                    job.missing.incrementAndGet();
+                } else {
+                    intentService.withdraw(intent);
+                    job.withdrawn.incrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                job.failed.incrementAndGet();
+                log.warn("Withdraw job {} unable to withdraw intent {}", job.id, key, e);
+            }
+        }
+        if (job.isDone()) {
+            log.info("Withdraw job {} done, {} intents withdrawn, {} not found, {} failed",
+                     job.id, job.withdrawn.get(), job.missing.get(), job.failed.get());
+        }
+    }
+
+    /**
+     * Progress of a withdrawal.
+     */
+    public static final class Job {
+        private final long id;
+        private final List<Key> keys;
+        private final AtomicLong withdrawn = new AtomicLong();
+        private final AtomicLong missing = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        private Job(long id, List<Key> keys) {
+            this.id = id;
+            this.keys = keys;
+        }
+
+        /**
+         * Returns the job id.
+         *
+         * @return job id
+         */
+        public long id() {
+            return id;
+        }
+
+        /**
+         * Returns the number of keys of the job.
+         *
+         * @return key count
+         */
+        public int total() {
+            return keys.size();
+        }
+
+        /**
+         * Returns the number of intents withdrawn so far.
+         *
+         * @return withdrawn intent count
+         */
+        public long withdrawn() {
+            return withdrawn.get();
+        }
+
+        /**
+         * Returns the number of keys with no intent.
+         *
+         * @return missing intent count
+         */
+        public long missing() {
+            return missing.get();
+        }
+
+        /**
+         * Returns the number of keys whose withdrawal failed.
+         *
+         * @return failed key count
+         */
+        public long failed() {
+            return failed.get();
+        }
+
+        /**
+         * Returns whether every key has been handled.
+         *
+         * @return true if done
+         */
+        public boolean isDone() {
+            return withdrawn.get() + missing.get() + failed.get() == keys.size();
+        }
+    }
+}
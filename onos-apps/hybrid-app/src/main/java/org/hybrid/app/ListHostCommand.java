@@ -15,21 +15,19 @@
  */
 package org.hybrid.app;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.apache.karaf.shell.api.action.Argument;
 import org.apache.karaf.shell.api.action.Command;
 import org.apache.karaf.shell.api.action.Completion;
+import org.apache.karaf.shell.api.action.Option;
 import org.apache.karaf.shell.api.action.lifecycle.Service;
 import org.onosproject.cli.AbstractShellCommand;
 import org.onosproject.cli.net.DeviceIdCompleter;
-import org.onosproject.cli.net.HostIdCompleter;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.Host;
-import org.onosproject.net.host.HostService;
 
 import java.util.List;
 
-import static com.google.common.collect.Lists.newArrayList;
-
 /**
  * Sample Apache Karaf CLI command
  */
@@ -42,24 +40,46 @@ public class ListHostCommand extends AbstractShellCommand {
     @Completion(DeviceIdCompleter.class)
     String switchString = null;
 
+    @Option(name = "-s", aliases = "--sort", description = "Sort hosts by id, mac, ip or location",
+            required = false, multiValued = false)
+    String sort = null;
+
+    @Option(name = "-n", aliases = "--limit", description = "List at most this number of hosts",
+            required = false, multiValued = false)
+    int limit = 0;
+
     @Override
     protected void doExecute() {
-        HostService hostService = get(HostService.class);
+        HostInventory.Sort order = null;
+        if (sort != null) {
+            order = HostInventory.Sort.of(sort);
+            if (order == null) {
+                error("Unknown sort order %s, use one of id, mac, ip or location", sort);
+                return;
+            }
+        }
 
-        //Traslates the Set of hosts in a List of hosts
-        List<Host> hosts = newArrayList(hostService.getHosts());
+        HostInventory hostInventory = get(HostInventory.class);
+
+        //The hosts of the device come from the device index, not from a walk over all the hosts
+        DeviceId deviceId = DeviceId.deviceId(switchString);
+        List<Host> hosts = HostInventory.list(hostInventory.hosts(deviceId), order, limit);
+
+        if (outputJson()) {
+            ArrayNode json = mapper().createArrayNode();
+            hosts.forEach(host -> json.add(jsonForEntity(host, Host.class)));
+            print("%s", json);
+            return;
+        }
 
         print("-------------------------------");
         print("--- LIST OF HOSTS CONNECTED TO DEVICE %s ---", switchString);
         print("-------------------------------");
 
-        for(int i=0; i < hosts.size(); i++) {
-
-            if (hosts.get(i).location().deviceId().equals(DeviceId.deviceId(switchString))) {
-                print("Host ID: %s - IP addresses: %s",
-                        hosts.get(i).id(),
-                        hosts.get(i).ipAddresses());
-            }
+        for (Host host : hosts) {
+            print("Host ID: %s - IP addresses: %s",
+                    host.id(),
+                    host.ipAddresses());
         }
     }
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hybrid.app;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.glassfish.jersey.uri.UriTemplate;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.CoreService;
+import org.onosproject.core.CoreServiceAdapter;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.HostId;
+import org.onosproject.net.intent.HostToHostIntent;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentService;
+import org.onosproject.net.intent.IntentServiceAdapter;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.Key;
+import org.onosproject.net.intent.MockIdGenerator;
+
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the intent listing and withdrawal of the web resource.
+ */
+public class AppWebResourceTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.hybrid.app");
+    private static final HostId ONE = HostId.hostId("00:00:00:00:00:01/None");
+    private static final HostId TWO = HostId.hostId("00:00:00:00:00:02/None");
+    private static final HostId THREE = HostId.hostId("00:00:00:00:00:03/None");
+    private static final ApplicationId OTHER_APP = new DefaultApplicationId(2, "org.other.app");
+
+    private final Map<Key, Intent> intents = new HashMap<>();
+    private final Map<Key, IntentState> states = new HashMap<>();
+    private final List<Intent> withdrawn = new ArrayList<>();
+
+    private AppWebResource resource;
+
+    @Before
+    public void setUp() {
+        MockIdGenerator.cleanBind();
+        Map<Class<?>, Object> services = new HashMap<>();
+        services.put(CoreService.class, new TestCoreService());
+        services.put(IntentService.class, new TestIntentService());
+        resource = new AppWebResource() {
+            @Override
+            public <T> T get(Class<T> serviceClass) {
+                return serviceClass.cast(services.get(serviceClass));
+            }
+        };
+    }
+
+    @Test
+    public void pagesFollowTheCursorInIdOrder() throws IOException {
+        List<String> all = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            all.add(intent(Key.of(i, APP_ID)).id().toString());
+        }
+
+        JsonNode first = list(null, null, null, null, 10);
+        JsonNode second = list(null, null, null, first.get("next").asText(), 10);
+        JsonNode third = list(null, null, null, second.get("next").asText(), 10);
+
+        List<String> listed = new ArrayList<>();
+        listed.addAll(ids(first));
+        listed.addAll(ids(second));
+        listed.addAll(ids(third));
+        assertEquals(all, listed);
+        assertEquals(10, ids(first).size());
+        assertEquals(5, ids(third).size());
+        assertTrue(third.get("next").isNull());
+    }
+
+    @Test
+    public void fullLastPageHasNoNextCursor() throws IOException {
+        for (int i = 0; i < 20; i++) {
+            intent(Key.of(i, APP_ID));
+        }
+
+        JsonNode first = list(null, null, null, null, 10);
+        JsonNode second = list(null, null, null, first.get("next").asText(), 10);
+
+        assertEquals(10, ids(second).size());
+        assertTrue(second.get("next").isNull());
+    }
+
+    @Test
+    public void filtersCombine() throws IOException {
+        Intent oneTwo = intent(Key.of(1, APP_ID), ONE, TWO, APP_ID);
+        Intent oneThree = intent(Key.of(2, APP_ID), ONE, THREE, APP_ID);
+        intent(Key.of(3, APP_ID), TWO, THREE, APP_ID);
+        Intent other = intent(Key.of(4, OTHER_APP), ONE, TWO, OTHER_APP);
+        states.put(oneThree.key(), IntentState.FAILED);
+
+        assertEquals(ids(oneTwo, oneThree, other), set(list(null, ONE.toString(), null, null, 10)));
+        assertEquals(ids(oneTwo, oneThree), set(list(APP_ID.name(), ONE.toString(), null, null, 10)));
+        assertEquals(ids(oneThree), set(list(null, ONE.toString(), "failed", null, 10)));
+        assertEquals(ids(other), set(list(OTHER_APP.name(), null, null, null, 10)));
+    }
+
+    @Test
+    public void slashKeyReachesDelete() throws NoSuchMethodException {
+        String template = AppWebResource.class
+                .getMethod("deleteIntent", String.class, String.class)
+                .getAnnotation(Path.class).value();
+        Map<String, String> params = new HashMap<>();
+
+        assertTrue(new UriTemplate(template).match("intents/MAC/None-MAC/None", params));
+        assertEquals("MAC/None-MAC/None", params.get("key"));
+    }
+
+    @Test
+    public void deleteSlashKey() {
+        Key key = IntentRegistry.key(ONE, TWO, APP_ID);
+        Intent intent = intent(key);
+
+        Response response = resource.deleteIntent(key.toString(), APP_ID.name());
+
+        assertEquals(Response.Status.ACCEPTED.getStatusCode(), response.getStatus());
+        assertEquals(1, withdrawn.size());
+        assertEquals(intent, withdrawn.get(0));
+    }
+
+    @Test
+    public void deleteNumericKey() {
+        Intent intent = intent(Key.of(42L, APP_ID));
+
+        resource.deleteIntent("0x2a", APP_ID.name());
+
+        assertEquals(1, withdrawn.size());
+        assertEquals(intent, withdrawn.get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyKeysAreRefused() throws IOException {
+        StringBuilder body = new StringBuilder("{\"keys\": [0");
+        for (int i = 1; i <= 100000; i++) {
+            body.append(',').append(i);
+        }
+        body.append("]}");
+
+        resource.withdrawIntents(new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Intent intent(Key key) {
+        return intent(key, ONE, TWO, APP_ID);
+    }
+
+    private Intent intent(Key key, HostId one, HostId two, ApplicationId appId) {
+        Intent intent = HostToHostIntent.builder()
+                .appId(appId)
+                .key(key)
+                .one(one)
+                .two(two)
+                .build();
+        intents.put(key, intent);
+        states.put(key, IntentState.INSTALLED);
+        return intent;
+    }
+
+    private JsonNode list(String appId, String host, String state, String cursor, int limit)
+            throws IOException {
+        Response response = resource.getIntents(appId, host, state, cursor, limit);
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(out);
+        return new ObjectMapper().readTree(out.toByteArray());
+    }
+
+    private static List<String> ids(JsonNode page) {
+        List<String> ids = new ArrayList<>();
+        page.get("intents").forEach(intent -> ids.add(intent.get("id").asText()));
+        return ids;
+    }
+
+    private static Set<String> set(JsonNode page) {
+        return new HashSet<>(ids(page));
+    }
+
+    private static Set<String> ids(Intent... intents) {
+        Set<String> ids = new HashSet<>();
+        for (Intent intent : intents) {
+            ids.add(intent.id().toString());
+        }
+        return ids;
+    }
+
+    private static class TestCoreService extends CoreServiceAdapter {
+        @Override
+        public ApplicationId getAppId(String name) {
+            return APP_ID.name().equals(name) ? APP_ID : OTHER_APP.name().equals(name) ? OTHER_APP : null;
+        }
+    }
+
+    private class TestIntentService extends IntentServiceAdapter {
+        @Override
+        public Intent getIntent(Key key) {
+            return intents.get(key);
+        }
+
+        @Override
+        public Iterable<Intent> getIntents() {
+            return intents.values();
+        }
+
+        @Override
+        public IntentState getIntentState(Key key) {
+            return states.get(key);
+        }
+
+        @Override
+        public void withdraw(Intent intent) {
+            withdrawn.add(intent);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hybrid.app;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.DefaultHost;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.HostId;
+import org.onosproject.net.HostLocation;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.host.HostEvent;
+import org.onosproject.net.provider.ProviderId;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the host event queue.
+ */
+public class HostEventQueueTest {
+
+    private static final ProviderId PID = new ProviderId("of", "test");
+    private static final DeviceId S1 = DeviceId.deviceId("of:0000000000000001");
+
+    private final List<HostEvent> handled = new CopyOnWriteArrayList<>();
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    private HostEventQueue queue;
+    private Host blocker;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        blocker = host(0, 1);
+        queue = new HostEventQueue();
+        queue.start(event -> {
+            if (event.subject() == blocker) {
+                blocked.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            handled.add(event);
+        });
+
+        // hold the worker so that the following events wait in the queue
+        queue.offer(new HostEvent(HostEvent.Type.HOST_ADDED, blocker));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void tearDown() {
+        unblock.countDown();
+        queue.stop();
+    }
+
+    @Test
+    public void updatesOfAnAddedHostStayAnAddition() {
+        Host added = host(1, 1);
+        Host moved = host(1, 2);
+        queue.offer(new HostEvent(HostEvent.Type.HOST_ADDED, added));
+        queue.offer(new HostEvent(HostEvent.Type.HOST_MOVED, moved, added));
+
+        assertEquals(1, queue.depth());
+        assertEquals(1, queue.coalesced());
+
+        drain();
+        assertEquals(2, handled.size());
+        assertEquals(HostEvent.Type.HOST_ADDED, handled.get(1).type());
+        assertSame(moved, handled.get(1).subject());
+    }
+
+    @Test
+    public void updatesOfAMovedHostStayAMove() {
+        Host before = host(1, 1);
+        Host moved = host(1, 2);
+        Host updated = host(1, 2);
+        queue.offer(new HostEvent(HostEvent.Type.HOST_MOVED, moved, before));
+        queue.offer(new HostEvent(HostEvent.Type.HOST_UPDATED, updated, moved));
+
+        assertEquals(1, queue.depth());
+
+        drain();
+        assertEquals(2, handled.size());
+        assertEquals(HostEvent.Type.HOST_MOVED, handled.get(1).type());
+        assertSame(updated, handled.get(1).subject());
+        assertSame(before, handled.get(1).prevSubject());
+    }
+
+    @Test
+    public void removalWins() {
+        Host added = host(1, 1);
+        queue.offer(new HostEvent(HostEvent.Type.HOST_ADDED, added));
+        queue.offer(new HostEvent(HostEvent.Type.HOST_REMOVED, added));
+
+        drain();
+        assertEquals(2, handled.size());
+        assertEquals(HostEvent.Type.HOST_REMOVED, handled.get(1).type());
+    }
+
+    @Test
+    public void hostsKeepTheirArrivalOrder() {
+        Host one = host(1, 1);
+        Host two = host(2, 1);
+        queue.offer(new HostEvent(HostEvent.Type.HOST_ADDED, one));
+        queue.offer(new HostEvent(HostEvent.Type.HOST_ADDED, two));
+        queue.offer(new HostEvent(HostEvent.Type.HOST_UPDATED, one));
+
+        drain();
+        assertEquals(3, handled.size());
+        assertSame(one, handled.get(1).subject());
+        assertSame(two, handled.get(2).subject());
+    }
+
+    @Test
+    public void offerNeverBlocks() {
+        int hosts = 10_000;
+        for (int i = 1; i <= hosts; i++) {
+            queue.offer(new HostEvent(HostEvent.Type.HOST_ADDED, host(i, 1)));
+        }
+
+        assertEquals(hosts, queue.depth());
+        assertEquals(hosts, queue.peakDepth());
+
+        drain();
+        assertEquals(hosts + 1, handled.size());
+        assertEquals(hosts + 1, queue.processed());
+    }
+
+    // Releases the worker and waits for it to hand over every queued event.
+    private void drain() {
+        unblock.countDown();
+        queue.stop();
+    }
+
+    private static Host host(int id, int port) {
+        MacAddress mac = MacAddress.valueOf((long) id + 1);
+        return new DefaultHost(PID, HostId.hostId(mac), mac, VlanId.NONE,
+                               new HostLocation(S1, PortNumber.portNumber(port), 0L),
+                               Collections.emptySet());
+    }
+}
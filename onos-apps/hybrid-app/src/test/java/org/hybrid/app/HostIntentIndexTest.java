@@ -0,0 +1,189 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hybrid.app;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.HostId;
+import org.onosproject.net.intent.HostToHostIntent;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentEvent;
+import org.onosproject.net.intent.IntentListener;
+import org.onosproject.net.intent.IntentServiceAdapter;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.Key;
+import org.onosproject.net.intent.MockIdGenerator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the host intent index.
+ */
+public class HostIntentIndexTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.hybrid.app");
+    private static final HostId H1 = HostId.hostId("00:00:00:00:00:01/None");
+    private static final HostId H2 = HostId.hostId("00:00:00:00:00:02/None");
+    private static final HostId H3 = HostId.hostId("00:00:00:00:00:03/None");
+
+    private final TestIntentService intentService = new TestIntentService();
+
+    private HostIntentIndex index;
+
+    @Before
+    public void setUp() {
+        MockIdGenerator.cleanBind();
+        index = new HostIntentIndex();
+        index.intentService = intentService;
+        index.activate();
+    }
+
+    @After
+    public void tearDown() {
+        index.deactivate();
+    }
+
+    @Test
+    public void pairIsIndexedUnderBothHosts() {
+        Key key = submit(H1, H2, IntentState.INSTALLED);
+
+        assertEquals(ImmutableSet.of(key), index.keys(H1));
+        assertEquals(ImmutableSet.of(key), index.keys(H2));
+        assertEquals(2, index.hosts());
+        assertEquals(1, index.intents());
+    }
+
+    @Test
+    public void withdrawnIntentsArePurged() {
+        Key k12 = submit(H1, H2, IntentState.INSTALLED);
+        Key k23 = submit(H2, H3, IntentState.INSTALLED);
+
+        assertEquals(2, index.withdraw(H2));
+        assertTrue(index.keys(H1).isEmpty());
+        assertTrue(index.keys(H3).isEmpty());
+        assertEquals(0, index.hosts());
+        assertEquals(2, intentService.withdrawn.size());
+        assertTrue(intentService.purged.isEmpty());
+
+        intentService.post(IntentEvent.Type.WITHDRAWN, k12);
+        intentService.post(IntentEvent.Type.FAILED, k23);
+        assertEquals(2, intentService.purged.size());
+        assertEquals(2, index.purged());
+    }
+
+    @Test
+    public void alreadyWithdrawnIntentIsPurgedAtOnce() {
+        submit(H1, H2, IntentState.WITHDRAWN);
+
+        assertEquals(0, index.withdraw(H1));
+        assertTrue(intentService.withdrawn.isEmpty());
+        assertEquals(1, intentService.purged.size());
+    }
+
+    @Test
+    public void keySubmittedAgainSurvivesThePurge() {
+        Key key = submit(H1, H2, IntentState.INSTALLED);
+        index.withdraw(H1);
+
+        index.add(H1, H2, key);
+        intentService.post(IntentEvent.Type.WITHDRAWN, key);
+
+        assertTrue(intentService.purged.isEmpty());
+        assertEquals(ImmutableSet.of(key), index.keys(H1));
+    }
+
+    @Test
+    public void resubmitSendsTheIntentsOfTheHost() {
+        submit(H1, H2, IntentState.INSTALLED);
+        submit(H1, H3, IntentState.INSTALLED);
+        submit(H2, H3, IntentState.INSTALLED);
+
+        assertEquals(2, index.resubmit(H1));
+        assertEquals(2, intentService.submitted.size());
+    }
+
+    private Key submit(HostId one, HostId two, IntentState state) {
+        Key key = IntentRegistry.key(one, two, APP_ID);
+        Intent intent = HostToHostIntent.builder()
+                .appId(APP_ID)
+                .key(key)
+                .one(one)
+                .two(two)
+                .build();
+        intentService.intents.put(key, intent);
+        intentService.states.put(key, state);
+        index.add(one, two, key);
+        return key;
+    }
+
+    private static class TestIntentService extends IntentServiceAdapter {
+        private final Map<Key, Intent> intents = new HashMap<>();
+        private final Map<Key, IntentState> states = new HashMap<>();
+        private final List<Intent> submitted = new ArrayList<>();
+        private final List<Intent> withdrawn = new ArrayList<>();
+        private final List<Intent> purged = new ArrayList<>();
+        private IntentListener listener;
+
+        @Override
+        public void addListener(IntentListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void removeListener(IntentListener listener) {
+            this.listener = null;
+        }
+
+        @Override
+        public Intent getIntent(Key key) {
+            return intents.get(key);
+        }
+
+        @Override
+        public IntentState getIntentState(Key key) {
+            return states.get(key);
+        }
+
+        @Override
+        public void submit(Intent intent) {
+            submitted.add(intent);
+        }
+
+        @Override
+        public void withdraw(Intent intent) {
+            withdrawn.add(intent);
+        }
+
+        @Override
+        public void purge(Intent intent) {
+            purged.add(intent);
+        }
+
+        private void post(IntentEvent.Type type, Key key) {
+            listener.event(new IntentEvent(type, intents.get(key)));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hybrid.app;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.HostId;
+import org.onosproject.net.intent.HostToHostIntent;
+import org.onosproject.net.intent.IntentEvent;
+import org.onosproject.net.intent.IntentListener;
+import org.onosproject.net.intent.IntentServiceAdapter;
+import org.onosproject.net.intent.Key;
+import org.onosproject.net.intent.MockIdGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the intent registry.
+ */
+public class IntentRegistryTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.hybrid.app");
+    private static final HostId H1 = HostId.hostId("00:00:00:00:00:01/None");
+    private static final HostId H2 = HostId.hostId("00:00:00:00:00:02/None");
+
+    private final TestIntentService intentService = new TestIntentService();
+
+    private IntentRegistry registry;
+    private Key key;
+
+    @Before
+    public void setUp() {
+        MockIdGenerator.cleanBind();
+        registry = new IntentRegistry();
+        registry.intentService = intentService;
+        registry.activate();
+        key = IntentRegistry.key(H1, H2, APP_ID);
+    }
+
+    @After
+    public void tearDown() {
+        registry.deactivate();
+    }
+
+    @Test
+    public void keyIgnoresTheHostOrder() {
+        assertEquals(key, IntentRegistry.key(H2, H1, APP_ID));
+        assertTrue(IntentRegistry.ordered(H1, H2));
+        assertFalse(IntentRegistry.ordered(H2, H1));
+    }
+
+    @Test
+    public void pairIsClaimedOnce() {
+        assertTrue(registry.claim(key));
+        assertFalse(registry.claim(key));
+
+        assertEquals(1, registry.claims());
+        assertEquals(1, registry.hits());
+        assertEquals(1, registry.inFlight());
+    }
+
+    @Test
+    public void installedAndReinstalled() {
+        registry.claim(key);
+
+        post(IntentEvent.Type.INSTALLED);
+        assertEquals(0, registry.inFlight());
+        assertEquals(1, registry.installed());
+        assertFalse(registry.claim(key));
+
+        post(IntentEvent.Type.INSTALL_REQ);
+        assertEquals(1, registry.inFlight());
+        assertEquals(0, registry.installed());
+    }
+
+    @Test
+    public void withdrawnAndPurgedReleaseTheClaim() {
+        registry.claim(key);
+        post(IntentEvent.Type.WITHDRAWN);
+        assertTrue(registry.claim(key));
+
+        post(IntentEvent.Type.PURGED);
+        assertTrue(registry.claim(key));
+    }
+
+    @Test
+    public void failedAndCorruptReleaseTheClaim() {
+        registry.claim(key);
+        post(IntentEvent.Type.FAILED);
+        assertTrue(registry.claim(key));
+
+        post(IntentEvent.Type.CORRUPT);
+        assertTrue(registry.claim(key));
+    }
+
+    @Test
+    public void releaseAllowsAnImmediateClaim() {
+        registry.claim(key);
+        registry.release(key);
+
+        assertTrue(registry.claim(key));
+    }
+
+    @Test
+    public void unclaimedKeysAreNotTracked() {
+        post(IntentEvent.Type.INSTALL_REQ);
+        post(IntentEvent.Type.INSTALLED);
+
+        assertEquals(0, registry.inFlight());
+        assertEquals(0, registry.installed());
+    }
+
+    private void post(IntentEvent.Type type) {
+        HostToHostIntent intent = HostToHostIntent.builder()
+                .appId(APP_ID)
+                .key(key)
+                .one(H1)
+                .two(H2)
+                .build();
+        intentService.listener.event(new IntentEvent(type, intent));
+    }
+
+    private static class TestIntentService extends IntentServiceAdapter {
+        private IntentListener listener;
+
+        @Override
+        public void addListener(IntentListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void removeListener(IntentListener listener) {
+            this.listener = null;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hybrid.app;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.HostId;
+import org.onosproject.net.intent.HostToHostIntent;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentServiceAdapter;
+import org.onosproject.net.intent.Key;
+import org.onosproject.net.intent.MockIdGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the background intent withdrawal.
+ */
+public class IntentWithdrawJobsTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.hybrid.app");
+    private static final HostId ONE = HostId.hostId("00:00:00:00:00:01/None");
+    private static final HostId TWO = HostId.hostId("00:00:00:00:00:02/None");
+
+    private final Map<Key, Intent> intents = new ConcurrentHashMap<>();
+    private final Map<Key, RuntimeException> failures = new ConcurrentHashMap<>();
+    private final List<Intent> withdrawn = Collections.synchronizedList(new ArrayList<>());
+
+    private IntentWithdrawJobs jobs;
+
+    @Before
+    public void setUp() {
+        MockIdGenerator.cleanBind();
+        jobs = new IntentWithdrawJobs();
+        jobs.intentService = new TestIntentService();
+        jobs.activate();
+    }
+
+    @After
+    public void tearDown() {
+        jobs.deactivate();
+    }
+
+    @Test
+    public void keysAreWithdrawnOrCountedMissing() throws InterruptedException {
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            keys.add(Key.of(i, APP_ID));
+            if (i % 3 != 0) {
+                intent(Key.of(i, APP_ID));
+            }
+        }
+
+        IntentWithdrawJobs.Job job = awaitDone(jobs.submit(keys));
+
+        assertEquals(300, job.total());
+        assertEquals(200, job.withdrawn());
+        assertEquals(100, job.missing());
+        assertEquals(0, job.failed());
+        assertEquals(200, withdrawn.size());
+    }
+
+    @Test
+    public void failedKeyDoesNotStopTheJob() throws InterruptedException {
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            keys.add(intent(Key.of(i, APP_ID)).key());
+        }
+        failures.put(Key.of(3, APP_ID), new IllegalStateException("store unavailable"));
+
+        IntentWithdrawJobs.Job job = awaitDone(jobs.submit(keys));
+
+        assertEquals(9, job.withdrawn());
+        assertEquals(1, job.failed());
+        assertEquals(jobs.job(job.id()), job);
+    }
+
+    @Test
+    public void emptyJobIsDoneAtOnce() {
+        assertTrue(jobs.submit(Collections.emptyList()).isDone());
+    }
+
+    private static IntentWithdrawJobs.Job awaitDone(IntentWithdrawJobs.Job job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.isDone() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isDone());
+        return job;
+    }
+
+    private Intent intent(Key key) {
+        Intent intent = HostToHostIntent.builder()
+                .appId(APP_ID)
+                .key(key)
+                .one(ONE)
+                .two(TWO)
+                .build();
+        intents.put(key, intent);
+        return intent;
+    }
+
+    private class TestIntentService extends IntentServiceAdapter {
+        @Override
+        public Intent getIntent(Key key) {
+            RuntimeException failure = failures.get(key);
+            if (failure != null) {
+                throw failure;
+            }
+            return intents.get(key);
+        }
+
+        @Override
+        public void withdraw(Intent intent) {
+            withdrawn.add(intent);
+        }
+    }
+}
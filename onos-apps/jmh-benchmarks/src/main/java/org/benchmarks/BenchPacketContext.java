@@ -0,0 +1,42 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.benchmarks;
+
+import org.onosproject.net.packet.DefaultOutboundPacket;
+import org.onosproject.net.packet.DefaultPacketContext;
+import org.onosproject.net.packet.InboundPacket;
+
+/**
+ * Packet context of a synthetic packet-in; sending a packet-out does nothing.
+ */
+public final class BenchPacketContext extends DefaultPacketContext {
+
+    /**
+     * Creates a context for a packet-in.
+     *
+     * @param packet inbound packet
+     */
+    public BenchPacketContext(InboundPacket packet) {
+        super(System.currentTimeMillis(), packet,
+              new DefaultOutboundPacket(packet.receivedFrom().deviceId(), null, packet.unparsed()),
+              false);
+    }
+
+    @Override
+    public void send() {
+        // nothing to send to
+    }
+}
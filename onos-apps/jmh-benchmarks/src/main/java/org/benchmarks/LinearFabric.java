@@ -0,0 +1,183 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.benchmarks;
+
+import com.google.common.collect.ImmutableSet;
+import org.onlab.graph.ScalarWeight;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultHost;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.DefaultPath;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.HostId;
+import org.onosproject.net.HostLocation;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.host.HostServiceAdapter;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.net.topology.LinkWeigher;
+import org.onosproject.net.topology.Topology;
+import org.onosproject.net.topology.TopologyServiceAdapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Synthetic fabric of switches connected in a line, with hosts spread over
+ * the switches.
+ *
+ * Switch i is of:i, port 1 leads to switch i-1 and port 2 to switch i+1.
+ * Hosts sit on ports 3 and up. The fabric serves its hosts and its shortest
+ * paths through stub host and topology services.
+ */
+public final class LinearFabric {
+
+    private static final ProviderId PID = new ProviderId("bench", "org.benchmarks");
+    private static final PortNumber WEST = PortNumber.portNumber(1);
+    private static final PortNumber EAST = PortNumber.portNumber(2);
+    private static final int FIRST_HOST_PORT = 3;
+
+    private final List<DeviceId> devices = new ArrayList<>();
+    private final List<Host> hosts = new ArrayList<>();
+    private final Map<HostId, Host> hostsById = new HashMap<>();
+
+    private final HostServiceAdapter hostService = new HostServiceAdapter() {
+        @Override
+        public int getHostCount() {
+            return hosts.size();
+        }
+
+        @Override
+        public Iterable<Host> getHosts() {
+            return Collections.unmodifiableList(hosts);
+        }
+
+        @Override
+        public Host getHost(HostId hostId) {
+            return hostsById.get(hostId);
+        }
+
+        @Override
+        public Set<Host> getHostsByMac(MacAddress mac) {
+            Host host = hostsById.get(HostId.hostId(mac));
+            return host == null ? Collections.emptySet() : Collections.singleton(host);
+        }
+
+        @Override
+        public Set<Host> getConnectedHosts(ConnectPoint connectPoint) {
+            Set<Host> connected = new HashSet<>();
+            for (Host host : hosts) {
+                if (host.location().deviceId().equals(connectPoint.deviceId())
+                        && host.location().port().equals(connectPoint.port())) {
+                    connected.add(host);
+                }
+            }
+            return connected;
+        }
+    };
+
+    private final TopologyServiceAdapter topologyService = new TopologyServiceAdapter() {
+        @Override
+        public Set<Path> getPaths(Topology topology, DeviceId src, DeviceId dst, LinkWeigher weigher) {
+            return path(src, dst);
+        }
+    };
+
+    /**
+     * Creates a fabric.
+     *
+     * @param switches number of switches
+     * @param hostsPerSwitch number of hosts on each switch
+     */
+    public LinearFabric(int switches, int hostsPerSwitch) {
+        for (int i = 1; i <= switches; i++) {
+            devices.add(DeviceId.deviceId(String.format("of:%016x", i)));
+        }
+        int n = 0;
+        for (int i = 0; i < switches; i++) {
+            for (int j = 0; j < hostsPerSwitch; j++) {
+                n++;
+                MacAddress mac = MacAddress.valueOf(0x020000000000L + n);
+                HostLocation location = new HostLocation(devices.get(i),
+                                                         PortNumber.portNumber(FIRST_HOST_PORT + j), 0);
+                IpAddress ip = IpAddress.valueOf(0x0a000000 + n);
+                Host host = new DefaultHost(PID, HostId.hostId(mac), mac, VlanId.NONE,
+                                            location, ImmutableSet.of(ip));
+                hosts.add(host);
+                hostsById.put(host.id(), host);
+            }
+        }
+    }
+
+    /**
+     * Returns the hosts of the fabric, switch by switch.
+     *
+     * @return hosts
+     */
+    public List<Host> hosts() {
+        return Collections.unmodifiableList(hosts);
+    }
+
+    /**
+     * Returns a host service serving the hosts of the fabric.
+     *
+     * @return host service
+     */
+    public HostServiceAdapter hostService() {
+        return hostService;
+    }
+
+    /**
+     * Returns a topology service serving the paths of the fabric.
+     *
+     * @return topology service
+     */
+    public TopologyServiceAdapter topologyService() {
+        return topologyService;
+    }
+
+    // The only path between two switches of a line.
+    private Set<Path> path(DeviceId src, DeviceId dst) {
+        int from = devices.indexOf(src);
+        int to = devices.indexOf(dst);
+        if (from < 0 || to < 0 || from == to) {
+            return Collections.emptySet();
+        }
+        int step = from < to ? 1 : -1;
+        List<Link> links = new ArrayList<>();
+        for (int i = from; i != to; i += step) {
+            ConnectPoint out = new ConnectPoint(devices.get(i), step > 0 ? EAST : WEST);
+            ConnectPoint in = new ConnectPoint(devices.get(i + step), step > 0 ? WEST : EAST);
+            links.add(DefaultLink.builder()
+                              .providerId(PID)
+                              .src(out)
+                              .dst(in)
+                              .type(Link.Type.DIRECT)
+                              .build());
+        }
+        return ImmutableSet.of(new DefaultPath(PID, links, ScalarWeight.toWeight(links.size())));
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.benchmarks;
+
+import org.onlab.packet.ARP;
+import org.onlab.packet.Data;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.LLDP;
+import org.onlab.packet.LLDPTLV;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.UDP;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.packet.DefaultInboundPacket;
+import org.onosproject.net.packet.InboundPacket;
+import org.onosproject.net.packet.PacketContext;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Ring of synthetic packet-ins replayed by the benchmarks.
+ *
+ * The packets are built and parsed once; each call to {@link #next()} wraps
+ * the following one in a fresh packet context, the only allocation left in
+ * the measured loop besides the work of the app itself. IPv4 packets travel
+ * between hosts on different switches and enter at the switch of their
+ * source, so they hit the first-hop path of the apps.
+ */
+public final class PacketMix {
+
+    /**
+     * Traffic mixes.
+     */
+    public enum Kind {
+        /** LLDP only. */
+        LLDP(100, 0, 0),
+        /** ARP only. */
+        ARP(0, 100, 0),
+        /** IPv4 only. */
+        IPV4(0, 0, 100),
+        /** 10% LLDP, 20% ARP, 70% IPv4. */
+        MIX(10, 20, 70);
+
+        private final int lldp;
+        private final int arp;
+
+        Kind(int lldp, int arp, int ipv4) {
+            this.lldp = lldp;
+            this.arp = arp;
+        }
+    }
+
+    private static final int SIZE = 1024;
+    private static final long SEED = 2025;
+
+    private final InboundPacket[] packets = new InboundPacket[SIZE];
+    private int next;
+
+    /**
+     * Creates a ring of packets of the given mix between the hosts of a
+     * fabric.
+     *
+     * @param kind   traffic mix
+     * @param fabric fabric the packets travel
+     */
+    public PacketMix(Kind kind, LinearFabric fabric) {
+        Random random = new Random(SEED);
+        List<Host> hosts = fabric.hosts();
+        for (int i = 0; i < SIZE; i++) {
+            Host src = hosts.get(random.nextInt(hosts.size()));
+            Host dst = hosts.get(random.nextInt(hosts.size()));
+            while (dst.location().deviceId().equals(src.location().deviceId())) {
+                dst = hosts.get(random.nextInt(hosts.size()));
+            }
+
+            int dice = random.nextInt(100);
+            Ethernet eth;
+            ConnectPoint from;
+            if (dice < kind.lldp) {
+                DeviceId device = src.location().deviceId();
+                eth = lldp(device);
+                from = new ConnectPoint(device, PortNumber.portNumber(1));
+            } else if (dice < kind.lldp + kind.arp) {
+                eth = arp(src);
+                from = src.location();
+            } else {
+                eth = ipv4(src, dst, random.nextInt(64000) + 1024);
+                from = src.location();
+            }
+
+            byte[] frame = eth.serialize();
+            packets[i] = new DefaultInboundPacket(from, eth, ByteBuffer.wrap(frame));
+        }
+    }
+
+    /**
+     * Returns a new packet context holding the next packet of the ring.
+     *
+     * @return packet context
+     */
+    public PacketContext next() {
+        InboundPacket packet = packets[next];
+        next = (next + 1) & (SIZE - 1);
+        return new BenchPacketContext(packet);
+    }
+
+    private static Ethernet ipv4(Host src, Host dst, int port) {
+        UDP udp = new UDP();
+        udp.setSourcePort(port);
+        udp.setDestinationPort(5001);
+        udp.setPayload(new Data(new byte[64]));
+
+        IPv4 ip = new IPv4();
+        ip.setSourceAddress(src.ipAddresses().iterator().next().getIp4Address().toInt());
+        ip.setDestinationAddress(dst.ipAddresses().iterator().next().getIp4Address().toInt());
+        ip.setProtocol(IPv4.PROTOCOL_UDP);
+        ip.setTtl((byte) 64);
+        ip.setPayload(udp);
+
+        Ethernet eth = new Ethernet();
+        eth.setSourceMACAddress(src.mac());
+        eth.setDestinationMACAddress(dst.mac());
+        eth.setEtherType(Ethernet.TYPE_IPV4);
+        eth.setPayload(ip);
+        return eth;
+    }
+
+    private static Ethernet arp(Host src) {
+        ARP arp = new ARP();
+        arp.setHardwareType(ARP.HW_TYPE_ETHERNET);
+        arp.setProtocolType(ARP.PROTO_TYPE_IP);
+        arp.setHardwareAddressLength((byte) Ethernet.DATALAYER_ADDRESS_LENGTH);
+        arp.setProtocolAddressLength((byte) 4);
+        arp.setOpCode(ARP.OP_REQUEST);
+        arp.setSenderHardwareAddress(src.mac().toBytes());
+        arp.setSenderProtocolAddress(src.ipAddresses().iterator().next().toOctets());
+        arp.setTargetHardwareAddress(MacAddress.ZERO.toBytes());
+        arp.setTargetProtocolAddress(new byte[]{10, 0, 0, 1});
+
+        Ethernet eth = new Ethernet();
+        eth.setSourceMACAddress(src.mac());
+        eth.setDestinationMACAddress(MacAddress.BROADCAST);
+        eth.setEtherType(Ethernet.TYPE_ARP);
+        eth.setPayload(arp);
+        return eth;
+    }
+
+    private static Ethernet lldp(DeviceId device) {
+        LLDP lldp = new LLDP();
+        lldp.setChassisId(new LLDPTLV().setType(LLDP.CHASSIS_TLV_TYPE)
+                                  .setLength((short) 7)
+                                  .setValue(new byte[]{4, 0, 0, 0, 0, 0, 1}));
+        lldp.setPortId(new LLDPTLV().setType(LLDP.PORT_TLV_TYPE)
+                               .setLength((short) 5)
+                               .setValue(new byte[]{2, 0, 0, 0, 1}));
+        lldp.setTtl(new LLDPTLV().setType(LLDP.TTL_TLV_TYPE)
+                            .setLength((short) 2)
+                            .setValue(new byte[]{0, 120}));
+
+        Ethernet eth = new Ethernet();
+        eth.setSourceMACAddress(MacAddress.valueOf(0x020000000000L));
+        eth.setDestinationMACAddress(MacAddress.valueOf("01:80:c2:00:00:0e"));
+        eth.setEtherType(Ethernet.TYPE_LLDP);
+        eth.setPayload(lldp);
+        return eth;
+    }
+}
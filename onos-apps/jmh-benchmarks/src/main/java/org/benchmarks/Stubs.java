@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.benchmarks;
+
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.CoreServiceAdapter;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.flow.FlowRuleOperations;
+import org.onosproject.net.flow.FlowRuleServiceAdapter;
+import org.onosproject.net.packet.PacketProcessor;
+import org.onosproject.net.packet.PacketServiceAdapter;
+
+/**
+ * Service stubs shared by the benchmarks, on top of the ONOS adapters.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Core service handing out application ids.
+     */
+    public static class CoreService extends CoreServiceAdapter {
+        private short nextId = 1;
+
+        @Override
+        public ApplicationId registerApplication(String name) {
+            return new DefaultApplicationId(nextId++, name);
+        }
+    }
+
+    /**
+     * Packet service keeping the processor the app registers.
+     */
+    public static class PacketService extends PacketServiceAdapter {
+        private PacketProcessor processor;
+
+        @Override
+        public void addProcessor(PacketProcessor processor, int priority) {
+            this.processor = processor;
+        }
+
+        /**
+         * Returns the processor registered by the app.
+         *
+         * @return packet processor
+         */
+        public PacketProcessor processor() {
+            return processor;
+        }
+    }
+
+    /**
+     * Flow rule service that reports every batch as installed at once.
+     */
+    public static class FlowRuleService extends FlowRuleServiceAdapter {
+        @Override
+        public void apply(FlowRuleOperations ops) {
+            ops.callback().onSuccess(ops);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hybrid.app;
+
+import org.benchmarks.LinearFabric;
+import org.benchmarks.PacketMix;
+import org.benchmarks.Stubs;
+import org.onosproject.net.intent.IntentServiceAdapter;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a packet-in in the hybrid-app processor with the default
+ * configuration, where the first packet of a host pair submits an intent
+ * and the following ones find it in the intent registry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HybridPacketInBenchmark {
+
+    private static final int SWITCHES = 8;
+    private static final int HOSTS_PER_SWITCH = 16;
+
+    @Param({"LLDP", "ARP", "IPV4", "MIX"})
+    public PacketMix.Kind mix;
+
+    private HostLocationCache hostCache;
+    private HostIntentIndex hostIntents;
+    private IntentRegistry intentRegistry;
+    private AppComponent app;
+
+    private PacketProcessor processor;
+    private PacketMix packets;
+
+    @Setup
+    public void setUp() {
+        LinearFabric fabric = new LinearFabric(SWITCHES, HOSTS_PER_SWITCH);
+        Stubs.PacketService packetService = new Stubs.PacketService();
+        Stubs.FlowRuleService flowRuleService = new Stubs.FlowRuleService();
+        IntentServiceAdapter intentService = new IntentServiceAdapter();
+
+        hostCache = new HostLocationCache();
+        hostCache.hostService = fabric.hostService();
+        hostCache.activate();
+
+        hostIntents = new HostIntentIndex();
+        hostIntents.intentService = intentService;
+        hostIntents.activate();
+
+        intentRegistry = new IntentRegistry();
+        intentRegistry.intentService = intentService;
+        intentRegistry.activate();
+
+        app = new AppComponent();
+        app.packetService = packetService;
+        app.coreService = new Stubs.CoreService();
+        app.hostService = fabric.hostService();
+        app.topologyService = fabric.topologyService();
+        app.intentService = intentService;
+        app.flowRuleService = flowRuleService;
+        app.hostCache = hostCache;
+        app.hostEvents = new HostEventQueue();
+        app.hostIntents = hostIntents;
+        app.intentRegistry = intentRegistry;
+        app.activate();
+
+        processor = packetService.processor();
+        packets = new PacketMix(mix, fabric);
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.deactivate();
+        intentRegistry.deactivate();
+        hostIntents.deactivate();
+        hostCache.deactivate();
+    }
+
+    @Benchmark
+    public PacketContext processPacketIn() {
+        PacketContext context = packets.next();
+        processor.process(context);
+        return context;
+    }
+}
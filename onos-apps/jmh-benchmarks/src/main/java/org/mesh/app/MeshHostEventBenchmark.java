@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mesh.app;
+
+import org.benchmarks.LinearFabric;
+import org.benchmarks.Stubs;
+import org.onosproject.net.Host;
+import org.onosproject.net.host.HostEvent;
+import org.onosproject.net.intent.IntentServiceAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a host event on the host event dispatch thread of mesh-app.
+ *
+ * mesh-app has no packet processor: its hot path is the host listener, which
+ * queues the event for the mesh. Updates of hosts already meshed are offered
+ * in a loop, so the measure covers the queueing and the coalescing of events
+ * while the worker drains them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MeshHostEventBenchmark {
+
+    private static final int SWITCHES = 8;
+    private static final int HOSTS_PER_SWITCH = 16;
+
+    private HostIntentIndex hostIntents;
+    private IntentMesh intentMesh;
+    private HostEventQueue hostEvents;
+    private AppComponent app;
+
+    private HostEvent[] events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        LinearFabric fabric = new LinearFabric(SWITCHES, HOSTS_PER_SWITCH);
+        Stubs.CoreService coreService = new Stubs.CoreService();
+        IntentServiceAdapter intentService = new IntentServiceAdapter();
+
+        hostIntents = new HostIntentIndex();
+        hostIntents.intentService = intentService;
+        hostIntents.activate();
+
+        intentMesh = new IntentMesh();
+        intentMesh.coreService = coreService;
+        intentMesh.intentService = intentService;
+        intentMesh.hostIntents = hostIntents;
+        intentMesh.activate();
+
+        hostEvents = new HostEventQueue();
+
+        app = new AppComponent();
+        app.coreService = coreService;
+        app.hostService = fabric.hostService();
+        app.intentService = intentService;
+        app.intentMesh = intentMesh;
+        app.hostEvents = hostEvents;
+        app.activate();
+
+        List<Host> hosts = fabric.hosts();
+        events = new HostEvent[hosts.size()];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new HostEvent(HostEvent.Type.HOST_UPDATED, hosts.get(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        app.deactivate();
+        hostEvents.deactivate();
+        intentMesh.deactivate();
+        hostIntents.deactivate();
+    }
+
+    @Benchmark
+    public HostEvent offerHostEvent() {
+        HostEvent event = events[next];
+        next = (next + 1) % events.length;
+        hostEvents.offer(event);
+        return event;
+    }
+}
@@ -15,16 +15,16 @@
  */
 package org.mesh.app;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.Option;
 import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.onlab.packet.IpAddress;
 import org.onosproject.cli.AbstractShellCommand;
 import org.onosproject.net.Host;
-import org.onosproject.net.host.HostService;
 
 import java.util.List;
 
-import static com.google.common.collect.Lists.newArrayList;
-
 /**
  * Sample Apache Karaf CLI command
  */
@@ -33,22 +33,50 @@ import static com.google.common.collect.Lists.newArrayList;
          description = "Sample Apache Karaf CLI command")
 public class AppCommand extends AbstractShellCommand {
 
+    @Option(name = "-i", aliases = "--ip", description = "List only the hosts owning this IP address",
+            required = false, multiValued = false)
+    String ip = null;
+
+    @Option(name = "-s", aliases = "--sort", description = "Sort hosts by id, mac, ip or location",
+            required = false, multiValued = false)
+    String sort = null;
+
+    @Option(name = "-n", aliases = "--limit", description = "List at most this number of hosts",
+            required = false, multiValued = false)
+    int limit = 0;
+
     @Override
     protected void doExecute() {
-        HostService hostService = get(HostService.class);
+        HostInventory.Sort order = null;
+        if (sort != null) {
+            order = HostInventory.Sort.of(sort);
+            if (order == null) {
+                error("Unknown sort order %s, use one of id, mac, ip or location", sort);
+                return;
+            }
+        }
 
-        //Traslates the Set of hosts in a List of hosts
-        List<Host> hosts = newArrayList(hostService.getHosts());
+        HostInventory hostInventory = get(HostInventory.class);
+
+        List<Host> hosts = HostInventory.list(
+                ip == null ? hostInventory.hosts(null) : hostInventory.hostsByIp(IpAddress.valueOf(ip)),
+                order, limit);
+
+        if (outputJson()) {
+            ArrayNode json = mapper().createArrayNode();
+            hosts.forEach(host -> json.add(jsonForEntity(host, Host.class)));
+            print("%s", json);
+            return;
+        }
 
         print("-------------------------------");
         print("--- LIST OF CONNECTED HOSTS ---");
         print("-------------------------------");
 
-        for(int i=0; i < hosts.size(); i++) {
-
+        for (Host host : hosts) {
             print("Host ID: %s - IP addresses: %s",
-                    hosts.get(i).id(),
-                    hosts.get(i).ipAddresses());
+                    host.id(),
+                    host.ipAddresses());
         }
     }
 }
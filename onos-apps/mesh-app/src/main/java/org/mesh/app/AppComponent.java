@@ -19,11 +19,9 @@ import org.onlab.packet.IpAddress;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
 import org.onosproject.net.Host;
-import org.onosproject.net.HostId;
 import org.onosproject.net.host.HostEvent;
 import org.onosproject.net.host.HostListener;
 import org.onosproject.net.host.HostService;
-import org.onosproject.net.intent.HostToHostIntent;
 import org.onosproject.net.intent.IntentEvent;
 import org.onosproject.net.intent.IntentService;
 import org.onosproject.net.link.LinkEvent;
@@ -32,10 +30,6 @@ import org.osgi.service.component.annotations.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-
-import static com.google.common.collect.Lists.newArrayList;
-
 /**
  * Skeletal ONOS application component.
  */
@@ -51,6 +45,12 @@ public class AppComponent {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected IntentService intentService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected IntentMesh intentMesh;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected HostEventQueue hostEvents;
+
     private InternalHostListener hostListener = new InternalHostListener();
 
     private ApplicationId appId;
@@ -60,8 +60,14 @@ public class AppComponent {
     protected void activate() {
         appId = coreService.registerApplication("org.mesh.app");
 
+        hostEvents.start(this::handleHostEvent);
         hostService.addListener(hostListener);
 
+        //Mesh the hosts known before the application started
+        for (Host host : hostService.getHosts()) {
+            intentMesh.addHost(host.id());
+        }
+
         log.info("The application {} has been started", appId);
     }
 
@@ -70,47 +76,41 @@ public class AppComponent {
         hostService.removeListener(hostListener);
         hostListener = null;
 
+        hostEvents.stop();
+
         log.info("The application {} has been stopped", appId);
     }
 
+    //Host events are handled on the queue thread, not on the dispatch one
     private class InternalHostListener implements HostListener {
         @Override
         public void event(HostEvent event) {
+            hostEvents.offer(event);
+        }
+    }
 
-            if (event.type() == HostEvent.Type.HOST_ADDED) {
-                log.info("A new host has been HOST_ADDED {}", event.subject().id());
-
-                //Search for other hosts and establish host2host intents
-                establishIntents(event.subject().id());
-            }
+    private void handleHostEvent(HostEvent event) {
+        if (event.type() == HostEvent.Type.HOST_ADDED) {
+            log.info("A new host has been HOST_ADDED {}", event.subject().id());
 
-            if (event.type() == HostEvent.Type.HOST_UPDATED) {
-                log.info("A new host has been HOST_UPDATED {}", event.subject().id());
-            }
+            //Establish host2host intents towards the other hosts
+            intentMesh.addHost(event.subject().id());
         }
-    }
 
-    protected void establishIntents(HostId hostId) {
-        List<Host> hosts = newArrayList(hostService.getHosts());
+        if (event.type() == HostEvent.Type.HOST_REMOVED) {
+            log.info("An host has been REMOVED {}", event.subject().id());
 
-        for (int i=0; i < hostService.getHostCount(); i++) {
+            intentMesh.removeHost(event.subject().id());
+        }
 
-            if (!hosts.get(i).id().equals(hostId)) {
-                //Submit an intent
-                HostToHostIntent intent;
-                intent = HostToHostIntent.builder()
-                        .one(hostId)
-                        .two(hosts.get(i).id())
-                        .priority(500)
-                        .appId(appId)
-                        .build();
+        if (event.type() == HostEvent.Type.HOST_MOVED) {
+            log.info("An host has been MOVED {}", event.subject().id());
 
-                log.info("Intent established between {} and {}",
-                        hostId,
-                        hosts.get(i).id());
+            intentMesh.moveHost(event.subject().id());
+        }
 
-                intentService.submit(intent);
-            }
+        if (event.type() == HostEvent.Type.HOST_UPDATED) {
+            log.info("A new host has been HOST_UPDATED {}", event.subject().id());
         }
     }
 }
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mesh.app;
+
+import org.onosproject.net.HostId;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentEvent;
+import org.onosproject.net.intent.IntentListener;
+import org.onosproject.net.intent.IntentService;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.Key;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Index of the host-to-host intents of the application by host.
+ *
+ * When a host leaves, the keys of its intents are taken from the index and
+ * the intents are withdrawn by key, without scanning the intent store. Each
+ * withdrawn intent is purged as soon as the intent service reports it
+ * withdrawn, so the store does not grow with the hosts that come and go.
+ */
+@Component(immediate = true, service = HostIntentIndex.class)
+public class HostIntentIndex {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected IntentService intentService;
+
+    private final InternalIntentListener intentListener = new InternalIntentListener();
+
+    private final Map<HostId, Set<Key>> hostKeys = new HashMap<>();
+    private final Map<Key, Pair> pairs = new HashMap<>();
+    private final Set<Key> purging = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder withdrawn = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+
+    @Activate
+    protected void activate() {
+        intentService.addListener(intentListener);
+        log.info("Host intent index started");
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        intentService.removeListener(intentListener);
+        log.info("Host intent index stopped, {} intents withdrawn, {} purged", withdrawn(), purged());
+    }
+
+    /**
+     * Records the intent connecting two hosts.
+     *
+     * @param one one host
+     * @param two the other host
+     * @param key key of the intent
+     */
+    public synchronized void add(HostId one, HostId two, Key key) {
+        // a key submitted again must survive the purge of its previous withdrawal
+        purging.remove(key);
+        if (pairs.put(key, new Pair(one, two)) == null) {
+            hostKeys.computeIfAbsent(one, h -> new HashSet<>()).add(key);
+            hostKeys.computeIfAbsent(two, h -> new HashSet<>()).add(key);
+        }
+    }
+
+    /**
+     * Returns the keys of the intents of a host.
+     *
+     * @param hostId host
+     * @return intent keys, empty if none
+     */
+    public synchronized Set<Key> keys(HostId hostId) {
+        Set<Key> keys = hostKeys.get(hostId);
+        return keys == null ? Collections.emptySet() : new HashSet<>(keys);
+    }
+
+    /**
+     * Withdraws every intent of a host and drops them from the index; the
+     * intents are purged once withdrawn.
+     *
+     * @param hostId host
+     * @return number of intents withdrawn
+     */
+    public int withdraw(HostId hostId) {
+        List<Key> keys = new ArrayList<>();
+        synchronized (this) {
+            Set<Key> removed = hostKeys.remove(hostId);
+            if (removed == null) {
+                return 0;
+            }
+            for (Key key : removed) {
+                Pair pair = pairs.remove(key);
+                HostId peer = pair.one.equals(hostId) ? pair.two : pair.one;
+                Set<Key> peerKeys = hostKeys.get(peer);
+                if (peerKeys != null) {
+                    peerKeys.remove(key);
+                    if (peerKeys.isEmpty()) {
+                        hostKeys.remove(peer);
+                    }
+                }
+                keys.add(key);
+            }
+        }
+
+        int count = 0;
+        for (Key key : keys) {
+            Intent intent = intentService.getIntent(key);
+            if (intent == null) {
+                continue;
+            }
+            IntentState state = intentService.getIntentState(key);
+            if (state == IntentState.WITHDRAWN || state == IntentState.FAILED) {
+                intentService.purge(intent);
+                purged.increment();
+                continue;
+            }
+            purging.add(key);
+            intentService.withdraw(intent);
+            withdrawn.increment();
+            count++;
+        }
+        log.info("Withdrawing {} intents of host {}", count, hostId);
+        return count;
+    }
+
+    /**
+     * Submits again every intent of a host, so that they are compiled for
+     * its current location.
+     *
+     * @param hostId host
+     * @return number of intents submitted
+     */
+    public int resubmit(HostId hostId) {
+        int count = 0;
+        for (Key key : keys(hostId)) {
+            Intent intent = intentService.getIntent(key);
+            if (intent != null) {
+                intentService.submit(intent);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of hosts with indexed intents.
+     *
+     * @return host count
+     */
+    public synchronized int hosts() {
+        return hostKeys.size();
+    }
+
+    /**
+     * Returns the number of indexed intents.
+     *
+     * @return intent count
+     */
+    public synchronized int intents() {
+        return pairs.size();
+    }
+
+    /**
+     * Returns the number of intents withdrawn.
+     *
+     * @return withdrawn intent count
+     */
+    public long withdrawn() {
+        return withdrawn.sum();
+    }
+
+    /**
+     * Returns the number of intents purged.
+     *
+     * @return purged intent count
+     */
+    public long purged() {
+        return purged.sum();
+    }
+
+    private class InternalIntentListener implements IntentListener {
+        @Override
+        public void event(IntentEvent event) {
+            if ((event.type() == IntentEvent.Type.WITHDRAWN || event.type() == IntentEvent.Type.FAILED)
+                    && purging.remove(event.subject().key())) {
+                intentService.purge(event.subject());
+                purged.increment();
+            }
+        }
+    }
+
+    private static final class Pair {
+        private final HostId one;
+        private final HostId two;
+
+        private Pair(HostId one, HostId two) {
+            this.one = one;
+            this.two = two;
+        }
+    }
+}
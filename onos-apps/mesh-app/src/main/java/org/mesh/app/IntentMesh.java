@@ -0,0 +1,205 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mesh.app;
+
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.CoreService;
+import org.onosproject.net.HostId;
+import org.onosproject.net.intent.HostToHostIntent;
+import org.onosproject.net.intent.IntentService;
+import org.onosproject.net.intent.Key;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Incremental full mesh of host-to-host intents.
+ *
+ * The mesh keeps its own index of the meshed hosts, so a new host only costs
+ * the intents towards the hosts already there. Intent keys are derived from
+ * the ordered host pair, which makes a replayed event resubmit the very same
+ * intents instead of duplicating them. Intents are submitted in chunks from
+ * a dedicated thread, so the event thread is never held by a large mesh.
+ * Every intent is recorded in the {@link HostIntentIndex}, which withdraws
+ * the intents of the hosts that leave the mesh.
+ */
+@Component(immediate = true, service = IntentMesh.class)
+public class IntentMesh {
+
+    private static final int PRIORITY = 500;
+    private static final int SUBMIT_CHUNK = 128;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected CoreService coreService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected IntentService intentService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected HostIntentIndex hostIntents;
+
+    private final Set<HostId> hosts = new LinkedHashSet<>();
+    private final LongAdder submitted = new LongAdder();
+
+    private ApplicationId appId;
+    // package-private so that the tests can hold the chunks back
+    ExecutorService submitter;
+
+    @Activate
+    protected void activate() {
+        appId = coreService.registerApplication("org.mesh.app");
+        submitter = Executors.newSingleThreadExecutor(groupedThreads("onos/mesh", "intent-submitter-%d", log));
+        log.info("Intent mesh started");
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        submitter.shutdown();
+        try {
+            submitter.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Intent mesh stopped, {} intents submitted", submitted());
+    }
+
+    /**
+     * Adds a host to the mesh, connecting it to every host already there.
+     *
+     * @param hostId host to add
+     */
+    public void addHost(HostId hostId) {
+        List<HostId> peers;
+        synchronized (hosts) {
+            if (!hosts.add(hostId)) {
+                return;
+            }
+            peers = new ArrayList<>(hosts.size() - 1);
+            for (HostId other : hosts) {
+                if (!other.equals(hostId)) {
+                    peers.add(other);
+                    hostIntents.add(hostId, other, key(hostId, other, appId));
+                }
+            }
+        }
+
+        for (int from = 0; from < peers.size(); from += SUBMIT_CHUNK) {
+            List<HostId> chunk = peers.subList(from, Math.min(from + SUBMIT_CHUNK, peers.size()));
+            submitter.execute(() -> submit(hostId, chunk));
+        }
+        log.info("Host {} added to the mesh, {} intents queued", hostId, peers.size());
+    }
+
+    /**
+     * Removes a host from the mesh and withdraws its intents.
+     *
+     * @param hostId host to remove
+     */
+    public void removeHost(HostId hostId) {
+        synchronized (hosts) {
+            hosts.remove(hostId);
+        }
+        hostIntents.withdraw(hostId);
+    }
+
+    /**
+     * Submits again the intents of a host that moved.
+     *
+     * @param hostId host that moved
+     */
+    public void moveHost(HostId hostId) {
+        int count = hostIntents.resubmit(hostId);
+        log.info("Host {} moved, {} intents submitted again", hostId, count);
+    }
+
+    /**
+     * Returns the number of hosts in the mesh.
+     *
+     * @return host count
+     */
+    public int size() {
+        synchronized (hosts) {
+            return hosts.size();
+        }
+    }
+
+    /**
+     * Returns the number of intents submitted so far.
+     *
+     * @return submitted intent count
+     */
+    public long submitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * Returns the key of the intent between two hosts, the same whichever
+     * host comes first.
+     *
+     * @param one   one host
+     * @param two   the other host
+     * @param appId application owning the intent
+     * @return intent key
+     */
+    public static Key key(HostId one, HostId two, ApplicationId appId) {
+        return ordered(one, two)
+                ? Key.of(one + "-" + two, appId)
+                : Key.of(two + "-" + one, appId);
+    }
+
+    private static boolean ordered(HostId one, HostId two) {
+        return one.toString().compareTo(two.toString()) < 0;
+    }
+
+    private void submit(HostId hostId, List<HostId> peers) {
+        for (HostId peer : peers) {
+            boolean ordered = ordered(hostId, peer);
+            HostToHostIntent intent = HostToHostIntent.builder()
+                    .key(key(hostId, peer, appId))
+                    .one(ordered ? hostId : peer)
+                    .two(ordered ? peer : hostId)
+                    .priority(PRIORITY)
+                    .appId(appId)
+                    .build();
+
+            synchronized (hosts) {
+                // either end may have left while the chunk was waiting
+                if (!hosts.contains(hostId) || !hosts.contains(peer)) {
+                    continue;
+                }
+                intentService.submit(intent);
+            }
+            submitted.increment();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mesh.app;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.onosproject.cli.AbstractShellCommand;
+
+/**
+ * Lists the statistics of the intent mesh and of the host event queue.
+ */
+@Service
+@Command(scope = "onos", name = "mesh-stats",
+         description = "This command lists the statistics of the intent mesh and of the host event queue")
+public class StatsCommand extends AbstractShellCommand {
+
+    @Override
+    protected void doExecute() {
+        IntentMesh intentMesh = get(IntentMesh.class);
+        HostEventQueue hostEvents = get(HostEventQueue.class);
+        HostIntentIndex hostIntents = get(HostIntentIndex.class);
+
+        if (outputJson()) {
+            ObjectNode root = mapper().createObjectNode();
+            root.putObject("intentMesh")
+                    .put("hosts", intentMesh.size())
+                    .put("submitted", intentMesh.submitted());
+            root.putObject("hostEvents")
+                    .put("depth", hostEvents.depth())
+                    .put("oldestNanos", hostEvents.oldestNanos())
+                    .put("received", hostEvents.received())
+                    .put("coalesced", hostEvents.coalesced())
+                    .put("processed", hostEvents.processed())
+                    .put("peakDepth", hostEvents.peakDepth())
+                    .put("meanLatencyNanos", hostEvents.meanLatencyNanos())
+                    .put("maxLatencyNanos", hostEvents.maxLatencyNanos());
+            root.putObject("hostIntents")
+                    .put("hosts", hostIntents.hosts())
+                    .put("intents", hostIntents.intents())
+                    .put("withdrawn", hostIntents.withdrawn())
+                    .put("purged", hostIntents.purged());
+            print("%s", root);
+            return;
+        }
+
+        print("Intent mesh: %d hosts, %d intents submitted", intentMesh.size(), intentMesh.submitted());
+        print("Host events: %d queued (oldest %.3f ms, peak %d), %d received, %d coalesced, %d processed",
+              hostEvents.depth(), hostEvents.oldestNanos() / 1e6, hostEvents.peakDepth(),
+              hostEvents.received(), hostEvents.coalesced(), hostEvents.processed());
+        print("Host event latency: mean %.3f ms, max %.3f ms",
+              hostEvents.meanLatencyNanos() / 1e6, hostEvents.maxLatencyNanos() / 1e6);
+        print("Host intents: %d intents of %d hosts indexed, %d withdrawn, %d purged",
+              hostIntents.intents(), hostIntents.hosts(), hostIntents.withdrawn(), hostIntents.purged());
+    }
+}
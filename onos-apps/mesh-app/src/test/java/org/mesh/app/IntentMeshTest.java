@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.mesh.app;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.CoreServiceAdapter;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.HostId;
+import org.onosproject.net.intent.HostToHostIntent;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentServiceAdapter;
+import org.onosproject.net.intent.Key;
+import org.onosproject.net.intent.MockIdGenerator;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the incremental intent mesh.
+ */
+public class IntentMeshTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.mesh.app");
+
+    private final TestIntentService intentService = new TestIntentService();
+
+    private IntentMesh mesh;
+    private HostIntentIndex hostIntents;
+
+    @Before
+    public void setUp() {
+        MockIdGenerator.cleanBind();
+        hostIntents = new HostIntentIndex();
+        hostIntents.intentService = intentService;
+        hostIntents.activate();
+
+        mesh = new IntentMesh();
+        mesh.coreService = new CoreServiceAdapter() {
+            @Override
+            public ApplicationId registerApplication(String name) {
+                return APP_ID;
+            }
+        };
+        mesh.intentService = intentService;
+        mesh.hostIntents = hostIntents;
+        mesh.activate();
+    }
+
+    @Test
+    public void newHostIsMeshedWithEveryHostInChunks() {
+        int hosts = 300;
+        for (int i = 1; i <= hosts; i++) {
+            mesh.addHost(host(i));
+        }
+        // waits for the queued chunks
+        mesh.deactivate();
+
+        int pairs = hosts * (hosts - 1) / 2;
+        assertEquals(pairs, intentService.submitted.size());
+        assertEquals(pairs, mesh.submitted());
+        assertEquals(pairs, hostIntents.intents());
+        assertEquals(hosts - 1, hostIntents.keys(host(hosts)).size());
+
+        Set<Key> keys = new HashSet<>();
+        for (Intent intent : intentService.submitted) {
+            assertTrue(keys.add(intent.key()));
+        }
+        assertFalse(intentService.callers.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void peerLeavingBeforeItsChunkIsSkipped() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        mesh.submitter.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        mesh.addHost(host(1));
+        mesh.addHost(host(2));
+        mesh.addHost(host(3));
+        mesh.removeHost(host(2));
+        release.countDown();
+        mesh.deactivate();
+
+        assertEquals(1, intentService.submitted.size());
+        HostToHostIntent intent = (HostToHostIntent) intentService.submitted.get(0);
+        assertEquals(IntentMesh.key(host(1), host(3), APP_ID), intent.key());
+        assertEquals(1, mesh.submitted());
+        assertEquals(2, mesh.size());
+    }
+
+    @Test
+    public void replayedAdditionSubmitsNothingMore() {
+        mesh.addHost(host(1));
+        mesh.addHost(host(2));
+        mesh.addHost(host(2));
+        mesh.addHost(host(1));
+        mesh.deactivate();
+
+        assertEquals(1, intentService.submitted.size());
+        assertEquals(1, hostIntents.intents());
+        assertEquals(2, mesh.size());
+    }
+
+    @Test
+    public void keyIsTheSameWhicheverHostComesFirst() {
+        assertEquals(IntentMesh.key(host(1), host(2), APP_ID), IntentMesh.key(host(2), host(1), APP_ID));
+    }
+
+    private static HostId host(int i) {
+        return HostId.hostId(MacAddress.valueOf((long) i), VlanId.NONE);
+    }
+
+    private static class TestIntentService extends IntentServiceAdapter {
+        private final List<Intent> submitted = new CopyOnWriteArrayList<>();
+        private final Set<Thread> callers = new HashSet<>();
+
+        @Override
+        public void submit(Intent intent) {
+            submitted.add(intent);
+            synchronized (callers) {
+                callers.add(Thread.currentThread());
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wires and activates components outside of OSGi.
+ *
+ * The component annotations are not kept at runtime, so the wiring follows
+ * the conventions of the apps instead: every protected field is a mandatory
+ * reference, and the lifecycle methods are named activate and deactivate,
+ * taking no argument or a component context, which is passed as null.
+ * A reference is satisfied by a registered service of a compatible type or,
+ * when its type is a class of the component's own package, by one instance
+ * of that class, wired and activated before the component that needs it.
+ */
+public final class ComponentWiring {
+
+    private final List<Object> services = new ArrayList<>();
+    private final Map<Class<?>, Object> components = new LinkedHashMap<>();
+    private final List<Object> active = new ArrayList<>();
+
+    /**
+     * Registers a service the components can reference.
+     *
+     * @param service service implementation
+     * @return this wiring
+     */
+    public ComponentWiring register(Object service) {
+        services.add(service);
+        return this;
+    }
+
+    /**
+     * Returns the component of a class, creating, wiring and activating it
+     * with its dependencies on first use.
+     *
+     * @param type component class
+     * @param <T>  component type
+     * @return active component
+     */
+    public <T> T component(Class<T> type) {
+        Object component = components.get(type);
+        if (component == null) {
+            component = create(type);
+            components.put(type, component);
+            wire(component);
+            invoke(component, "activate");
+            active.add(component);
+        }
+        return type.cast(component);
+    }
+
+    /**
+     * Deactivates the components, in the reverse order of activation.
+     */
+    public void deactivate() {
+        List<Object> reverse = new ArrayList<>(active);
+        Collections.reverse(reverse);
+        for (Object component : reverse) {
+            invoke(component, "deactivate");
+        }
+        active.clear();
+        components.clear();
+    }
+
+    private void wire(Object component) {
+        Package home = component.getClass().getPackage();
+        for (Class<?> c = component.getClass(); c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isProtected(modifiers) || Modifier.isStatic(modifiers)
+                        || Modifier.isFinal(modifiers)) {
+                    continue;
+                }
+                Object value = service(field.getType());
+                if (value == null && field.getType().getPackage() == home
+                        && !field.getType().isInterface()
+                        && !Modifier.isAbstract(field.getType().getModifiers())) {
+                    value = component(field.getType());
+                }
+                if (value == null) {
+                    throw new IllegalStateException("No service for " + c.getSimpleName()
+                                                            + "." + field.getName());
+                }
+                set(component, field, value);
+            }
+        }
+    }
+
+    private Object service(Class<?> type) {
+        for (Object service : services) {
+            if (type.isInstance(service)) {
+                return service;
+            }
+        }
+        return null;
+    }
+
+    private static Object create(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + type.getName(), e);
+        }
+    }
+
+    private static void set(Object component, Field field, Object value) {
+        try {
+            field.setAccessible(true);
+            field.set(component, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot set " + field.getName(), e);
+        }
+    }
+
+    private static void invoke(Object component, String name) {
+        for (Method method : component.getClass().getDeclaredMethods()) {
+            if (!method.getName().equals(name) || method.getParameterCount() > 1) {
+                continue;
+            }
+            try {
+                method.setAccessible(true);
+                if (method.getParameterCount() == 0) {
+                    method.invoke(component);
+                } else {
+                    method.invoke(component, (Object) null);
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot call " + name, e);
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException(component.getClass().getSimpleName() + "."
+                                                        + name + " failed", e.getCause());
+            }
+            return;
+        }
+    }
+}
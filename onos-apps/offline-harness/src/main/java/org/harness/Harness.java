@@ -0,0 +1,130 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.net.Host;
+import org.onosproject.net.device.DeviceServiceAdapter;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+
+/**
+ * One of the apps running on the in-memory services.
+ */
+public final class Harness {
+
+    private final TopologyDescription topology;
+    private final InMemoryHostService hostService = new InMemoryHostService();
+    private final InMemoryFlowRuleService flowRuleService = new InMemoryFlowRuleService();
+    private final InMemoryFlowObjectiveService flowObjectiveService = new InMemoryFlowObjectiveService();
+    private final InMemoryIntentService intentService = new InMemoryIntentService();
+    private final InMemoryPacketService packetService = new InMemoryPacketService();
+    private final ComponentWiring wiring;
+
+    /**
+     * Activates an app on a topology, then adds the hosts of the topology
+     * the way they would be discovered.
+     *
+     * @param app      app name, such as wnet or hybrid
+     * @param topology topology
+     */
+    public Harness(String app, TopologyDescription topology) {
+        this.topology = topology;
+        wiring = new ComponentWiring()
+                .register(new InMemoryCoreService())
+                .register(new ComponentConfigAdapter())
+                .register(hostService)
+                .register(new InMemoryTopologyService(topology))
+                .register(new InMemoryLinkService(topology))
+                .register(new DeviceServiceAdapter())
+                .register(flowRuleService)
+                .register(flowObjectiveService)
+                .register(intentService)
+                .register(packetService)
+                .register(new InMemoryPortStatisticsService());
+
+        try {
+            wiring.component(Class.forName("org." + app + ".app.AppComponent"));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Unknown app " + app, e);
+        }
+
+        // hosts show up once the app listens, as they would be discovered
+        for (Host host : topology.hosts()) {
+            hostService.addHost(host);
+        }
+    }
+
+    /**
+     * Reads a topology description, or the bundled one.
+     *
+     * @param file description file, or null for the bundled description
+     * @return topology
+     * @throws IOException if the description cannot be read
+     */
+    public static TopologyDescription topology(String file) throws IOException {
+        if (file == null) {
+            return TopologyDescription.bundled();
+        }
+        try (Reader reader = new FileReader(file)) {
+            return TopologyDescription.parse(reader);
+        }
+    }
+
+    /**
+     * Returns the topology the app runs on.
+     *
+     * @return topology
+     */
+    public TopologyDescription topology() {
+        return topology;
+    }
+
+    /**
+     * Returns the packet service delivering the packet-ins to the app.
+     *
+     * @return packet service
+     */
+    public InMemoryPacketService packetService() {
+        return packetService;
+    }
+
+    /**
+     * Deactivates the app, which flushes what it still holds in its batchers.
+     */
+    public void stop() {
+        wiring.deactivate();
+    }
+
+    /**
+     * Prints what the app pushed to the network.
+     *
+     * @param out output
+     */
+    public void report(PrintStream out) {
+        out.printf("packets sent    %d%n", packetService.sent());
+        out.printf("rules           %d added, %d removed, %d batches, %d in tables%n",
+                   flowRuleService.added(), flowRuleService.removed(),
+                   flowRuleService.batches(), flowRuleService.getFlowRuleCount());
+        out.printf("objectives      %d forwarding%n", flowObjectiveService.forwarded());
+        out.printf("intents         %d submitted, %d withdrawn, %d in store%n",
+                   intentService.submitted(), intentService.withdrawn(),
+                   intentService.getIntentCount());
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.CoreServiceAdapter;
+import org.onosproject.core.DefaultApplicationId;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Core service handing out one application id per name.
+ */
+public class InMemoryCoreService extends CoreServiceAdapter {
+
+    private final Map<String, ApplicationId> ids = new ConcurrentHashMap<>();
+
+    @Override
+    public ApplicationId registerApplication(String name) {
+        return ids.computeIfAbsent(name, n -> new DefaultApplicationId(ids.size() + 1, n));
+    }
+
+    @Override
+    public ApplicationId getAppId(String name) {
+        return ids.get(name);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flowobjective.FlowObjectiveServiceAdapter;
+import org.onosproject.net.flowobjective.ForwardingObjective;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flow objective service counting the forwarding objectives, each one
+ * reported as installed at once.
+ */
+public class InMemoryFlowObjectiveService extends FlowObjectiveServiceAdapter {
+
+    private final LongAdder forwarded = new LongAdder();
+
+    @Override
+    public void forward(DeviceId deviceId, ForwardingObjective forwardingObjective) {
+        forwarded.increment();
+        forwardingObjective.context().ifPresent(c -> c.onSuccess(forwardingObjective));
+    }
+
+    /**
+     * Returns the number of forwarding objectives since the start.
+     *
+     * @return forwarding objectives
+     */
+    public long forwarded() {
+        return forwarded.sum();
+    }
+}
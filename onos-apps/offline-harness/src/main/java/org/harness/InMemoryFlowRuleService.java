@@ -0,0 +1,170 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowEntry.FlowEntryState;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleEvent;
+import org.onosproject.net.flow.FlowRuleListener;
+import org.onosproject.net.flow.FlowRuleOperation;
+import org.onosproject.net.flow.FlowRuleOperations;
+import org.onosproject.net.flow.FlowRuleServiceAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flow rule service keeping the rules of every device in a table, where
+ * every rule is reported as added as soon as it is applied. Rule events are
+ * delivered synchronously to the listeners.
+ */
+public class InMemoryFlowRuleService extends FlowRuleServiceAdapter {
+
+    private final Map<DeviceId, Map<FlowRule, FlowEntry>> tables = new ConcurrentHashMap<>();
+    private final LongAdder added = new LongAdder();
+    private final LongAdder removed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final List<FlowRuleListener> listeners = new CopyOnWriteArrayList<>();
+
+    private Map<FlowRule, FlowEntry> table(DeviceId deviceId) {
+        return tables.computeIfAbsent(deviceId, d -> new ConcurrentHashMap<>());
+    }
+
+    private void add(FlowRule rule) {
+        FlowEntry entry = new DefaultFlowEntry(rule, FlowEntryState.ADDED, 0, 0, 0);
+        table(rule.deviceId()).put(rule, entry);
+        added.increment();
+        post(new FlowRuleEvent(FlowRuleEvent.Type.RULE_ADDED, entry));
+    }
+
+    private void remove(FlowRule rule) {
+        FlowEntry entry = table(rule.deviceId()).remove(rule);
+        if (entry != null) {
+            removed.increment();
+            post(new FlowRuleEvent(FlowRuleEvent.Type.RULE_REMOVED, entry));
+        }
+    }
+
+    private void post(FlowRuleEvent event) {
+        for (FlowRuleListener listener : listeners) {
+            listener.event(event);
+        }
+    }
+
+    @Override
+    public void addListener(FlowRuleListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(FlowRuleListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public int getFlowRuleCount() {
+        int count = 0;
+        for (Map<FlowRule, FlowEntry> table : tables.values()) {
+            count += table.size();
+        }
+        return count;
+    }
+
+    @Override
+    public Iterable<FlowEntry> getFlowEntries(DeviceId deviceId) {
+        return new ArrayList<>(table(deviceId).values());
+    }
+
+    @Override
+    public Iterable<FlowEntry> getFlowEntriesById(ApplicationId id) {
+        List<FlowEntry> entries = new ArrayList<>();
+        for (Map<FlowRule, FlowEntry> table : tables.values()) {
+            for (FlowEntry entry : table.values()) {
+                if (entry.appId() == id.id()) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public void applyFlowRules(FlowRule... flowRules) {
+        for (FlowRule rule : flowRules) {
+            add(rule);
+        }
+    }
+
+    @Override
+    public void removeFlowRules(FlowRule... flowRules) {
+        for (FlowRule rule : flowRules) {
+            remove(rule);
+        }
+    }
+
+    @Override
+    public void apply(FlowRuleOperations ops) {
+        batches.increment();
+        for (Set<FlowRuleOperation> stage : ops.stages()) {
+            for (FlowRuleOperation op : stage) {
+                if (op.type() == FlowRuleOperation.Type.REMOVE) {
+                    remove(op.rule());
+                } else {
+                    add(op.rule());
+                }
+            }
+        }
+        if (ops.callback() != null) {
+            ops.callback().onSuccess(ops);
+        }
+    }
+
+    /**
+     * Returns the number of rules added since the start.
+     *
+     * @return rules added
+     */
+    public long added() {
+        return added.sum();
+    }
+
+    /**
+     * Returns the number of rules removed since the start.
+     *
+     * @return rules removed
+     */
+    public long removed() {
+        return removed.sum();
+    }
+
+    /**
+     * Returns the number of batches applied since the start.
+     *
+     * @return batches applied
+     */
+    public long batches() {
+        return batches.sum();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MacAddress;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.HostId;
+import org.onosproject.net.host.HostEvent;
+import org.onosproject.net.host.HostListener;
+import org.onosproject.net.host.HostServiceAdapter;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Host service backed by a map, with hosts added and removed by the
+ * harness and events delivered synchronously to the listeners.
+ */
+public class InMemoryHostService extends HostServiceAdapter {
+
+    private final Map<HostId, Host> hosts = new ConcurrentHashMap<>();
+    private final List<HostListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds or updates a host, notifying the listeners.
+     *
+     * @param host host
+     */
+    public void addHost(Host host) {
+        Host old = hosts.put(host.id(), host);
+        if (old == null) {
+            post(new HostEvent(HostEvent.Type.HOST_ADDED, host));
+        } else if (!old.location().equals(host.location())) {
+            post(new HostEvent(HostEvent.Type.HOST_MOVED, host, old));
+        } else {
+            post(new HostEvent(HostEvent.Type.HOST_UPDATED, host, old));
+        }
+    }
+
+    /**
+     * Removes a host, notifying the listeners.
+     *
+     * @param hostId host id
+     */
+    public void removeHost(HostId hostId) {
+        Host old = hosts.remove(hostId);
+        if (old != null) {
+            post(new HostEvent(HostEvent.Type.HOST_REMOVED, old));
+        }
+    }
+
+    private void post(HostEvent event) {
+        for (HostListener listener : listeners) {
+            listener.event(event);
+        }
+    }
+
+    @Override
+    public void addListener(HostListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(HostListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public int getHostCount() {
+        return hosts.size();
+    }
+
+    @Override
+    public Iterable<Host> getHosts() {
+        return Collections.unmodifiableCollection(hosts.values());
+    }
+
+    @Override
+    public Host getHost(HostId hostId) {
+        return hosts.get(hostId);
+    }
+
+    @Override
+    public Set<Host> getHostsByMac(MacAddress mac) {
+        Set<Host> found = new HashSet<>();
+        for (Host host : hosts.values()) {
+            if (host.mac().equals(mac)) {
+                found.add(host);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Set<Host> getHostsByIp(IpAddress ip) {
+        Set<Host> found = new HashSet<>();
+        for (Host host : hosts.values()) {
+            if (host.ipAddresses().contains(ip)) {
+                found.add(host);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Set<Host> getConnectedHosts(ConnectPoint connectPoint) {
+        Set<Host> found = new HashSet<>();
+        for (Host host : hosts.values()) {
+            if (host.location().deviceId().equals(connectPoint.deviceId())
+                    && host.location().port().equals(connectPoint.port())) {
+                found.add(host);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Set<Host> getConnectedHosts(DeviceId deviceId) {
+        Set<Host> found = new HashSet<>();
+        for (Host host : hosts.values()) {
+            if (host.location().deviceId().equals(deviceId)) {
+                found.add(host);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentEvent;
+import org.onosproject.net.intent.IntentListener;
+import org.onosproject.net.intent.IntentServiceAdapter;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.Key;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Intent service keeping the intents in a map, where every intent is
+ * installed as soon as it is submitted. No path is compiled and no rule is
+ * emitted for an intent; the events are delivered synchronously, in the
+ * order the intent framework would post them.
+ */
+public class InMemoryIntentService extends IntentServiceAdapter {
+
+    private final Map<Key, Intent> intents = new ConcurrentHashMap<>();
+    private final Map<Key, IntentState> states = new ConcurrentHashMap<>();
+    private final List<IntentListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder withdrawn = new LongAdder();
+
+    private void post(IntentEvent.Type type, IntentState state, Intent intent) {
+        states.put(intent.key(), state);
+        IntentEvent event = new IntentEvent(type, intent);
+        for (IntentListener listener : listeners) {
+            listener.event(event);
+        }
+    }
+
+    @Override
+    public void submit(Intent intent) {
+        submitted.increment();
+        intents.put(intent.key(), intent);
+        post(IntentEvent.Type.INSTALL_REQ, IntentState.INSTALL_REQ, intent);
+        post(IntentEvent.Type.INSTALLED, IntentState.INSTALLED, intent);
+    }
+
+    @Override
+    public void withdraw(Intent intent) {
+        if (intents.containsKey(intent.key())) {
+            withdrawn.increment();
+            post(IntentEvent.Type.WITHDRAWN, IntentState.WITHDRAWN, intent);
+        }
+    }
+
+    @Override
+    public void purge(Intent intent) {
+        if (intents.remove(intent.key()) != null) {
+            states.remove(intent.key());
+            IntentEvent event = new IntentEvent(IntentEvent.Type.PURGED, intent);
+            for (IntentListener listener : listeners) {
+                listener.event(event);
+            }
+        }
+    }
+
+    @Override
+    public Intent getIntent(Key key) {
+        return intents.get(key);
+    }
+
+    @Override
+    public Iterable<Intent> getIntents() {
+        return new ArrayList<>(intents.values());
+    }
+
+    @Override
+    public long getIntentCount() {
+        return intents.size();
+    }
+
+    @Override
+    public IntentState getIntentState(Key intentKey) {
+        return states.get(intentKey);
+    }
+
+    @Override
+    public void addListener(IntentListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(IntentListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the number of intents submitted since the start.
+     *
+     * @return intents submitted
+     */
+    public long submitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * Returns the number of intents withdrawn since the start.
+     *
+     * @return intents withdrawn
+     */
+    public long withdrawn() {
+        return withdrawn.sum();
+    }
+}
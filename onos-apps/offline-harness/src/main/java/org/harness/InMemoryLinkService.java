@@ -0,0 +1,79 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.link.LinkServiceAdapter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Link service serving the links of a fixed topology, all of them active.
+ */
+public class InMemoryLinkService extends LinkServiceAdapter {
+
+    private final List<Link> links;
+
+    /**
+     * Creates the service for a topology.
+     *
+     * @param topology topology description
+     */
+    public InMemoryLinkService(TopologyDescription topology) {
+        this.links = topology.links();
+    }
+
+    @Override
+    public int getLinkCount() {
+        return links.size();
+    }
+
+    @Override
+    public Iterable<Link> getLinks() {
+        return links;
+    }
+
+    @Override
+    public Iterable<Link> getActiveLinks() {
+        return links;
+    }
+
+    @Override
+    public Set<Link> getDeviceEgressLinks(DeviceId deviceId) {
+        Set<Link> found = new HashSet<>();
+        for (Link link : links) {
+            if (link.src().deviceId().equals(deviceId)) {
+                found.add(link);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Set<Link> getEgressLinks(ConnectPoint connectPoint) {
+        Set<Link> found = new HashSet<>();
+        for (Link link : links) {
+            if (link.src().equals(connectPoint)) {
+                found.add(link);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import org.onosproject.net.packet.DefaultOutboundPacket;
+import org.onosproject.net.packet.DefaultPacketContext;
+import org.onosproject.net.packet.InboundPacket;
+import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketProcessor;
+import org.onosproject.net.packet.PacketServiceAdapter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Packet service handing packet-ins to the registered processors, in
+ * priority order, and counting the packets sent back to the network.
+ */
+public class InMemoryPacketService extends PacketServiceAdapter {
+
+    private final List<Entry> processors = new CopyOnWriteArrayList<>();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+
+    private static final class Entry {
+        private final PacketProcessor processor;
+        private final int priority;
+
+        private Entry(PacketProcessor processor, int priority) {
+            this.processor = processor;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Packet context whose packet-out is counted instead of being sent.
+     */
+    private final class InMemoryPacketContext extends DefaultPacketContext {
+        private InMemoryPacketContext(InboundPacket packet) {
+            super(System.currentTimeMillis(), packet,
+                  new DefaultOutboundPacket(packet.receivedFrom().deviceId(), null, packet.unparsed()),
+                  false);
+        }
+
+        @Override
+        public void send() {
+            if (!block()) {
+                sent.increment();
+            }
+        }
+    }
+
+    /**
+     * Delivers a packet-in to the processors, as the packet manager does.
+     *
+     * @param packet inbound packet
+     */
+    public void deliver(InboundPacket packet) {
+        delivered.increment();
+        PacketContext context = new InMemoryPacketContext(packet);
+        for (Entry entry : processors) {
+            entry.processor.process(context);
+        }
+    }
+
+    @Override
+    public synchronized void addProcessor(PacketProcessor processor, int priority) {
+        int i = 0;
+        while (i < processors.size() && processors.get(i).priority <= priority) {
+            i++;
+        }
+        processors.add(i, new Entry(processor, priority));
+    }
+
+    @Override
+    public synchronized void removeProcessor(PacketProcessor processor) {
+        processors.removeIf(entry -> entry.processor == processor);
+    }
+
+    @Override
+    public void emit(OutboundPacket packet) {
+        sent.increment();
+    }
+
+    /**
+     * Returns the number of packet-ins delivered since the start.
+     *
+     * @return packet-ins delivered
+     */
+    public long delivered() {
+        return delivered.sum();
+    }
+
+    /**
+     * Returns the number of packets sent or emitted since the start.
+     *
+     * @return packets sent
+     */
+    public long sent() {
+        return sent.sum();
+    }
+}
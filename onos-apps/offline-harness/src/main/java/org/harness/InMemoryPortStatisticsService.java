@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.statistic.DefaultLoad;
+import org.onosproject.net.statistic.Load;
+import org.onosproject.net.statistic.PortStatisticsService;
+
+/**
+ * Port statistics service reporting every port as idle; no traffic crosses
+ * the in-memory network.
+ */
+public class InMemoryPortStatisticsService implements PortStatisticsService {
+
+    private final Load idle = new DefaultLoad();
+
+    @Override
+    public Load load(ConnectPoint connectPoint) {
+        return idle;
+    }
+}
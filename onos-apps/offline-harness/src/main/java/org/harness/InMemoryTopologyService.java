@@ -0,0 +1,129 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import com.google.common.collect.ImmutableSet;
+import org.onlab.graph.ScalarWeight;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultPath;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.topology.LinkWeigher;
+import org.onosproject.net.topology.Topology;
+import org.onosproject.net.topology.TopologyServiceAdapter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Topology service answering path queries on a fixed topology.
+ *
+ * Paths are the shortest ones by hop count, found by a breadth-first search;
+ * every shortest path is returned, as the ONOS topology service does. The
+ * current topology is null, the queries ignore it.
+ */
+public class InMemoryTopologyService extends TopologyServiceAdapter {
+
+    private static final int MAX_PATHS = 64;
+
+    private final Map<DeviceId, List<Link>> egress = new HashMap<>();
+    private final Set<ConnectPoint> infrastructure = new HashSet<>();
+
+    /**
+     * Creates the service for a topology.
+     *
+     * @param topology topology description
+     */
+    public InMemoryTopologyService(TopologyDescription topology) {
+        for (DeviceId device : topology.devices()) {
+            egress.put(device, new ArrayList<>());
+        }
+        for (Link link : topology.links()) {
+            egress.get(link.src().deviceId()).add(link);
+            infrastructure.add(link.src());
+            infrastructure.add(link.dst());
+        }
+    }
+
+    @Override
+    public Set<Path> getPaths(Topology topology, DeviceId src, DeviceId dst) {
+        if (src.equals(dst) || !egress.containsKey(src) || !egress.containsKey(dst)) {
+            return Collections.emptySet();
+        }
+
+        // hop distance of every device from the source
+        Map<DeviceId, Integer> distance = new HashMap<>();
+        Deque<DeviceId> queue = new ArrayDeque<>();
+        distance.put(src, 0);
+        queue.add(src);
+        while (!queue.isEmpty()) {
+            DeviceId device = queue.poll();
+            if (device.equals(dst)) {
+                break;
+            }
+            for (Link link : egress.get(device)) {
+                if (!distance.containsKey(link.dst().deviceId())) {
+                    distance.put(link.dst().deviceId(), distance.get(device) + 1);
+                    queue.add(link.dst().deviceId());
+                }
+            }
+        }
+        if (!distance.containsKey(dst)) {
+            return Collections.emptySet();
+        }
+
+        ImmutableSet.Builder<Path> paths = ImmutableSet.builder();
+        collect(src, dst, distance.get(dst), distance, new ArrayList<>(), paths, new int[1]);
+        return paths.build();
+    }
+
+    @Override
+    public Set<Path> getPaths(Topology topology, DeviceId src, DeviceId dst, LinkWeigher weigher) {
+        return getPaths(topology, src, dst);
+    }
+
+    @Override
+    public boolean isInfrastructure(Topology topology, ConnectPoint connectPoint) {
+        return infrastructure.contains(connectPoint);
+    }
+
+    // Follows every link that keeps the walk on a shortest path.
+    private void collect(DeviceId at, DeviceId dst, int length, Map<DeviceId, Integer> distance,
+                         List<Link> walk, ImmutableSet.Builder<Path> paths, int[] count) {
+        if (at.equals(dst)) {
+            paths.add(new DefaultPath(TopologyDescription.PID, new ArrayList<>(walk),
+                                      ScalarWeight.toWeight(walk.size())));
+            count[0]++;
+            return;
+        }
+        for (Link link : egress.get(at)) {
+            Integer next = distance.get(link.dst().deviceId());
+            if (count[0] < MAX_PATHS && next != null && next == walk.size() + 1 && next <= length) {
+                walk.add(link);
+                collect(link.dst().deviceId(), dst, length, distance, walk, paths, count);
+                walk.remove(walk.size() - 1);
+            }
+        }
+    }
+}
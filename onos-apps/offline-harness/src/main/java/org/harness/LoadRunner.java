@@ -0,0 +1,161 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import org.onlab.packet.Data;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.UDP;
+import org.onosproject.net.Host;
+import org.onosproject.net.packet.DefaultInboundPacket;
+import org.onosproject.net.packet.InboundPacket;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one of the apps on the in-memory services and replays synthetic
+ * packet-ins through it, reporting the throughput and what the app pushed
+ * to the network.
+ *
+ * Usage:
+ * <pre>
+ *   java -jar harness.jar [--app wnet|test2025|hybrid|pcklog|mesh]
+ *                         [--packets N] [--threads N] [--topology FILE]
+ * </pre>
+ * The packets are UDP datagrams between random pairs of hosts, entering at
+ * the edge port of their source. Every packet is a packet-in: the rules
+ * the app installs are counted but not matched, so the run measures the
+ * controller side only.
+ */
+public final class LoadRunner {
+
+    private static final int RING = 4096;
+    private static final long SEED = 2025;
+
+    private String app = "wnet";
+    private long packets = 1_000_000;
+    private int threads = 1;
+    private String topologyFile;
+
+    private LoadRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadRunner runner = new LoadRunner();
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--app":
+                    runner.app = value;
+                    break;
+                case "--packets":
+                    runner.packets = Long.parseLong(value);
+                    break;
+                case "--threads":
+                    runner.threads = Integer.parseInt(value);
+                    break;
+                case "--topology":
+                    runner.topologyFile = value;
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(1);
+            }
+            i++;
+        }
+        runner.run();
+    }
+
+    private void run() throws Exception {
+        Harness harness = new Harness(app, Harness.topology(topologyFile));
+        TopologyDescription topology = harness.topology();
+        InMemoryPacketService packetService = harness.packetService();
+
+        InboundPacket[] ring = ring(topology.hosts());
+        System.out.printf("%s: %d switches, %d hosts, %d packet-ins on %d thread(s)%n",
+                          app, topology.devices().size(), topology.hosts().size(), packets, threads);
+
+        List<Thread> workers = new ArrayList<>();
+        long share = packets / threads;
+        for (int t = 0; t < threads; t++) {
+            long count = t == threads - 1 ? packets - share * (threads - 1) : share;
+            int offset = t * (RING / threads);
+            workers.add(new Thread(() -> {
+                for (long i = 0; i < count; i++) {
+                    packetService.deliver(ring[(int) ((offset + i) % RING)]);
+                }
+            }, "harness-" + t));
+        }
+
+        long start = System.nanoTime();
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        harness.stop();
+
+        double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.printf("packet-ins      %d in %.3f s, %.0f/s%n",
+                          packetService.delivered(), seconds, packetService.delivered() / seconds);
+        harness.report(System.out);
+    }
+
+    private static InboundPacket[] ring(List<Host> hosts) {
+        if (hosts.size() < 2) {
+            throw new IllegalArgumentException("The topology needs at least two hosts");
+        }
+        Random random = new Random(SEED);
+        InboundPacket[] ring = new InboundPacket[RING];
+        for (int i = 0; i < RING; i++) {
+            Host src = hosts.get(random.nextInt(hosts.size()));
+            Host dst = hosts.get(random.nextInt(hosts.size()));
+            while (dst.equals(src)) {
+                dst = hosts.get(random.nextInt(hosts.size()));
+            }
+            Ethernet eth = udp(src, dst, random.nextInt(64000) + 1024);
+            ring[i] = new DefaultInboundPacket(src.location(), eth, ByteBuffer.wrap(eth.serialize()));
+        }
+        return ring;
+    }
+
+    private static Ethernet udp(Host src, Host dst, int port) {
+        UDP udp = new UDP();
+        udp.setSourcePort(port);
+        udp.setDestinationPort(5001);
+        udp.setPayload(new Data("harness".getBytes(StandardCharsets.US_ASCII)));
+
+        IPv4 ip = new IPv4();
+        ip.setSourceAddress(src.ipAddresses().iterator().next().getIp4Address().toInt());
+        ip.setDestinationAddress(dst.ipAddresses().iterator().next().getIp4Address().toInt());
+        ip.setProtocol(IPv4.PROTOCOL_UDP);
+        ip.setTtl((byte) 64);
+        ip.setPayload(udp);
+
+        Ethernet eth = new Ethernet();
+        eth.setSourceMACAddress(src.mac());
+        eth.setDestinationMACAddress(dst.mac());
+        eth.setEtherType(Ethernet.TYPE_IPV4);
+        eth.setPayload(ip);
+        return eth;
+    }
+}
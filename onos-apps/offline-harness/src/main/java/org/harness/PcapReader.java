@@ -0,0 +1,155 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader of the frames of a pcap file, mapped in memory.
+ *
+ * The file is mapped in windows of at most {@link #WINDOW} bytes, so
+ * captures larger than 2 GB can be read too. Each frame is returned as a
+ * slice of the mapping, without copying it. Only classic pcap files of
+ * Ethernet frames are supported, with microsecond or nanosecond
+ * timestamps in either byte order.
+ */
+public final class PcapReader implements Closeable {
+
+    static final long WINDOW = 1L << 30;
+
+    private static final int MAGIC_MICROS = 0xa1b2c3d4;
+    private static final int MAGIC_NANOS = 0xa1b23c4d;
+    private static final int LINKTYPE_ETHERNET = 1;
+    private static final int FILE_HEADER = 24;
+    private static final int RECORD_HEADER = 16;
+
+    private final FileChannel channel;
+    private final long size;
+    private final ByteOrder order;
+    private final boolean nanos;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position = FILE_HEADER;
+    private long timestamp;
+
+    /**
+     * Opens a capture.
+     *
+     * @param file pcap file
+     * @throws IOException if the file cannot be read or is not a pcap of
+     *                     Ethernet frames
+     */
+    public PcapReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            size = channel.size();
+            if (size < FILE_HEADER) {
+                throw new IOException(file + " is not a pcap file");
+            }
+            map(0);
+            int magic = window.order(ByteOrder.BIG_ENDIAN).getInt(0);
+            if (magic == MAGIC_MICROS || magic == MAGIC_NANOS) {
+                order = ByteOrder.BIG_ENDIAN;
+            } else if (Integer.reverseBytes(magic) == MAGIC_MICROS
+                    || Integer.reverseBytes(magic) == MAGIC_NANOS) {
+                order = ByteOrder.LITTLE_ENDIAN;
+            } else {
+                throw new IOException(file + " is not a pcap file (pcapng is not supported)");
+            }
+            window.order(order);
+            nanos = window.getInt(0) == MAGIC_NANOS;
+            int linkType = window.getInt(20);
+            if (linkType != LINKTYPE_ETHERNET) {
+                throw new IOException(file + " holds link type " + linkType + ", not Ethernet");
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, size - start));
+        if (order != null) {
+            window.order(order);
+        }
+    }
+
+    /**
+     * Returns the next frame, as a read-only slice of the mapping.
+     *
+     * @return frame, or null at the end of the capture
+     * @throws IOException if the capture is truncated
+     */
+    public ByteBuffer next() throws IOException {
+        if (position + RECORD_HEADER > size) {
+            return null;
+        }
+        if (position < windowStart || position + RECORD_HEADER > windowStart + window.limit()) {
+            // past the window, or back before it after a rewind
+            map(position);
+        }
+        int offset = (int) (position - windowStart);
+        long seconds = window.getInt(offset) & 0xffffffffL;
+        long fraction = window.getInt(offset + 4) & 0xffffffffL;
+        int length = window.getInt(offset + 8);
+        if (length < 0 || position + RECORD_HEADER + length > size) {
+            throw new IOException("Truncated frame at offset " + position);
+        }
+        if (position + RECORD_HEADER + length > windowStart + window.limit()) {
+            map(position);
+            offset = 0;
+        }
+        timestamp = seconds * 1_000_000_000L + (nanos ? fraction : fraction * 1_000L);
+        position += RECORD_HEADER + length;
+
+        ByteBuffer frame = window.duplicate();
+        frame.position(offset + RECORD_HEADER);
+        frame.limit(offset + RECORD_HEADER + length);
+        return frame.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the capture time of the frame last returned by {@link #next()}.
+     *
+     * @return nanoseconds since the epoch
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Rewinds the capture to its first frame. The first window is mapped
+     * again by the next read if the capture spans several windows.
+     */
+    public void rewind() {
+        position = FILE_HEADER;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
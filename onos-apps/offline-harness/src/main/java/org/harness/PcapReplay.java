@@ -0,0 +1,192 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import org.onlab.packet.DeserializationException;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.MacAddress;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.Host;
+import org.onosproject.net.packet.DefaultInboundPacket;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a pcap capture as packet-ins to one of the apps running on the
+ * in-memory services.
+ *
+ * Usage:
+ * <pre>
+ *   java -cp harness.jar org.harness.PcapReplay --pcap FILE
+ *        [--app wnet|test2025|hybrid|pcklog|mesh] [--topology FILE]
+ *        [--rate R] [--loops N]
+ *        [--ingress MAC=DEVICE/PORT]... [--default-ingress DEVICE/PORT]
+ * </pre>
+ * Frames are replayed with the gaps of the capture divided by the rate
+ * multiplier, so --rate 10 feeds the app ten times the recorded packet-in
+ * rate; --rate 0 replays as fast as possible. A frame enters at the
+ * connect point given for its source MAC with --ingress, else at the
+ * location of the host of the topology owning that MAC, else at the
+ * default ingress; frames with no ingress are skipped.
+ */
+public final class PcapReplay {
+
+    // gaps longer than this are slept, shorter ones are spun
+    private static final long PARK_THRESHOLD = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private String app = "wnet";
+    private String topologyFile;
+    private String pcap;
+    private double rate = 1;
+    private int loops = 1;
+    private final Map<MacAddress, ConnectPoint> ingress = new HashMap<>();
+    private ConnectPoint defaultIngress;
+
+    private long frames;
+    private long malformed;
+    private long unmapped;
+    private long maxLag;
+
+    private PcapReplay() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        PcapReplay replay = new PcapReplay();
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--app":
+                    replay.app = value;
+                    break;
+                case "--topology":
+                    replay.topologyFile = value;
+                    break;
+                case "--pcap":
+                    replay.pcap = value;
+                    break;
+                case "--rate":
+                    replay.rate = Double.parseDouble(value);
+                    break;
+                case "--loops":
+                    replay.loops = Integer.parseInt(value);
+                    break;
+                case "--ingress":
+                    String[] mapping = value.split("=", 2);
+                    replay.ingress.put(MacAddress.valueOf(mapping[0]),
+                                       ConnectPoint.deviceConnectPoint(mapping[1]));
+                    break;
+                case "--default-ingress":
+                    replay.defaultIngress = ConnectPoint.deviceConnectPoint(value);
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(1);
+            }
+            i++;
+        }
+        if (replay.pcap == null) {
+            System.err.println("Missing --pcap FILE");
+            System.exit(1);
+        }
+        replay.run();
+    }
+
+    private void run() throws Exception {
+        Harness harness = new Harness(app, Harness.topology(topologyFile));
+        for (Host host : harness.topology().hosts()) {
+            ingress.putIfAbsent(host.mac(), host.location());
+        }
+        InMemoryPacketService packetService = harness.packetService();
+
+        long captured = 0;
+        long start = System.nanoTime();
+        try (PcapReader reader = new PcapReader(Paths.get(pcap))) {
+            for (int loop = 0; loop < loops; loop++) {
+                reader.rewind();
+                long first = -1;
+                long wallStart = System.nanoTime();
+                ByteBuffer frame;
+                while ((frame = reader.next()) != null) {
+                    if (first < 0) {
+                        first = reader.timestamp();
+                    }
+                    if (rate > 0) {
+                        pace(wallStart + (long) ((reader.timestamp() - first) / rate));
+                    }
+                    deliver(packetService, frame);
+                }
+                if (first >= 0) {
+                    captured += reader.timestamp() - first;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        harness.stop();
+
+        double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+        double recorded = captured / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.printf("frames          %d, %d malformed, %d without ingress%n",
+                          frames, malformed, unmapped);
+        System.out.printf("capture         %.3f s, %.0f frames/s%n",
+                          recorded, recorded > 0 ? frames / recorded : 0);
+        System.out.printf("replay          %.3f s, %.0f packet-ins/s, max lag %d us%n",
+                          seconds, packetService.delivered() / seconds,
+                          TimeUnit.NANOSECONDS.toMicros(maxLag));
+        harness.report(System.out);
+    }
+
+    private void deliver(InMemoryPacketService packetService, ByteBuffer frame) {
+        frames++;
+        // the deserializers work on arrays, the mapped frame has none
+        byte[] data = new byte[frame.remaining()];
+        frame.duplicate().get(data);
+        Ethernet eth;
+        try {
+            eth = Ethernet.deserializer().deserialize(data, 0, data.length);
+        } catch (DeserializationException e) {
+            malformed++;
+            return;
+        }
+        ConnectPoint from = ingress.getOrDefault(eth.getSourceMAC(), defaultIngress);
+        if (from == null) {
+            unmapped++;
+            return;
+        }
+        packetService.deliver(new DefaultInboundPacket(from, eth, frame));
+    }
+
+    // Waits until the given time, recording how late the replay already is.
+    private void pace(long target) {
+        long now = System.nanoTime();
+        if (now > target) {
+            maxLag = Math.max(maxLag, now - target);
+            return;
+        }
+        while (target - now > PARK_THRESHOLD) {
+            LockSupport.parkNanos(target - now - PARK_THRESHOLD);
+            now = System.nanoTime();
+        }
+        while (System.nanoTime() < target) {
+            // spin out the last microseconds
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.harness;
+
+import com.google.common.collect.ImmutableSet;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultHost;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.HostId;
+import org.onosproject.net.HostLocation;
+import org.onosproject.net.Link;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.provider.ProviderId;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Network described the way the Mininet scripts build it.
+ *
+ * The description is a list of lines:
+ * <pre>
+ *   switch &lt;name&gt; &lt;dpid&gt;
+ *   host &lt;name&gt; &lt;ip&gt; &lt;mac&gt;
+ *   link &lt;node&gt; &lt;node&gt;
+ * </pre>
+ * Links are read in the order Mininet adds them, and the ports of each
+ * switch are numbered from 1 in that order, so devices, ports and hosts
+ * come out as ONOS would discover them. Empty lines and lines starting
+ * with # are ignored.
+ */
+public final class TopologyDescription {
+
+    /** Description of mininet-scripts/topology_mac.py, bundled with the harness. */
+    public static final String DEFAULT_RESOURCE = "/topology.txt";
+
+    static final ProviderId PID = new ProviderId("harness", "org.harness");
+
+    private final Map<String, DeviceId> switches = new LinkedHashMap<>();
+    private final Map<String, String[]> hostSpecs = new LinkedHashMap<>();
+    private final Map<DeviceId, Integer> lastPort = new HashMap<>();
+    private final List<Host> hosts = new ArrayList<>();
+    private final List<Link> links = new ArrayList<>();
+
+    private TopologyDescription() {
+    }
+
+    /**
+     * Reads the description bundled with the harness.
+     *
+     * @return topology
+     * @throws IOException if the resource cannot be read
+     */
+    public static TopologyDescription bundled() throws IOException {
+        try (InputStream in = TopologyDescription.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Missing resource " + DEFAULT_RESOURCE);
+            }
+            return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Reads a description.
+     *
+     * @param reader source of the description
+     * @return topology
+     * @throws IOException if the description cannot be read or is not valid
+     */
+    public static TopologyDescription parse(Reader reader) throws IOException {
+        TopologyDescription topology = new TopologyDescription();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] words = line.split("\\s+");
+            try {
+                topology.add(words);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return topology;
+    }
+
+    private void add(String[] words) {
+        switch (words[0]) {
+            case "switch":
+                expect(words, 3);
+                switches.put(words[1], DeviceId.deviceId("of:" + words[2]));
+                break;
+            case "host":
+                expect(words, 4);
+                hostSpecs.put(words[1], words);
+                break;
+            case "link":
+                expect(words, 3);
+                link(words[1], words[2]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown statement " + words[0]);
+        }
+    }
+
+    private void link(String one, String two) {
+        DeviceId oneDevice = switches.get(one);
+        DeviceId twoDevice = switches.get(two);
+        if (oneDevice != null && twoDevice != null) {
+            ConnectPoint a = new ConnectPoint(oneDevice, nextPort(oneDevice));
+            ConnectPoint b = new ConnectPoint(twoDevice, nextPort(twoDevice));
+            links.add(link(a, b));
+            links.add(link(b, a));
+        } else if (oneDevice != null && hostSpecs.containsKey(two)) {
+            attach(hostSpecs.get(two), oneDevice);
+        } else if (twoDevice != null && hostSpecs.containsKey(one)) {
+            attach(hostSpecs.get(one), twoDevice);
+        } else {
+            throw new IllegalArgumentException("Cannot link " + one + " and " + two);
+        }
+    }
+
+    private void attach(String[] spec, DeviceId device) {
+        MacAddress mac = MacAddress.valueOf(spec[3]);
+        HostLocation location = new HostLocation(device, nextPort(device), 0);
+        hosts.add(new DefaultHost(PID, HostId.hostId(mac), mac, VlanId.NONE, location,
+                                  ImmutableSet.of(IpAddress.valueOf(spec[2]))));
+    }
+
+    private PortNumber nextPort(DeviceId device) {
+        int port = lastPort.merge(device, 1, Integer::sum);
+        return PortNumber.portNumber(port);
+    }
+
+    private static Link link(ConnectPoint src, ConnectPoint dst) {
+        return DefaultLink.builder()
+                .providerId(PID)
+                .src(src)
+                .dst(dst)
+                .type(Link.Type.DIRECT)
+                .state(Link.State.ACTIVE)
+                .build();
+    }
+
+    private static void expect(String[] words, int count) {
+        if (words.length != count) {
+            throw new IllegalArgumentException(words[0] + " takes " + (count - 1) + " arguments");
+        }
+    }
+
+    /**
+     * Returns the switches.
+     *
+     * @return device ids, in the order of the description
+     */
+    public List<DeviceId> devices() {
+        return Collections.unmodifiableList(new ArrayList<>(switches.values()));
+    }
+
+    /**
+     * Returns the hosts attached to a switch.
+     *
+     * @return hosts, in the order they are linked
+     */
+    public List<Host> hosts() {
+        return Collections.unmodifiableList(hosts);
+    }
+
+    /**
+     * Returns the links between switches, one per direction.
+     *
+     * @return links
+     */
+    public List<Link> links() {
+        return Collections.unmodifiableList(links);
+    }
+}
@@ -15,21 +15,20 @@
  */
 package org.pcklog.app;
 
-import org.apache.karaf.shell.api.action.Argument;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.apache.karaf.shell.api.action.Command;
 import org.apache.karaf.shell.api.action.Completion;
+import org.apache.karaf.shell.api.action.Option;
 import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.onlab.packet.IpAddress;
 import org.onosproject.cli.AbstractShellCommand;
-import org.onosproject.cli.net.ConnectPointCompleter;
 import org.onosproject.cli.net.DeviceIdCompleter;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.Host;
-import org.onosproject.net.host.HostService;
 
+import java.util.Collection;
 import java.util.List;
 
-import static com.google.common.collect.Lists.newArrayList;
-
 /**
  * Sample Apache Karaf CLI command
  */
@@ -38,18 +37,54 @@ import static com.google.common.collect.Lists.newArrayList;
         description = "This command lists all known hosts")
 public class AnotherCommand extends AbstractShellCommand {
 
+    @Option(name = "-d", aliases = "--device", description = "List only the hosts connected to this device",
+            required = false, multiValued = false)
+    @Completion(DeviceIdCompleter.class)
+    String device = null;
+
+    @Option(name = "-i", aliases = "--ip", description = "List only the hosts owning this IP address",
+            required = false, multiValued = false)
+    String ip = null;
+
+    @Option(name = "-s", aliases = "--sort", description = "Sort hosts by id, mac, ip or location",
+            required = false, multiValued = false)
+    String sort = null;
+
+    @Option(name = "-n", aliases = "--limit", description = "List at most this number of hosts",
+            required = false, multiValued = false)
+    int limit = 0;
+
     @Override
     protected void doExecute() {
 
-        HostService hostService = get(HostService.class);
+        HostInventory.Sort order = null;
+        if (sort != null) {
+            order = HostInventory.Sort.of(sort);
+            if (order == null) {
+                error("Unknown sort order %s, use one of id, mac, ip or location", sort);
+                return;
+            }
+        }
+
+        HostInventory hostInventory = get(HostInventory.class);
+
+        Collection<Host> source = ip != null
+                ? hostInventory.hostsByIp(IpAddress.valueOf(ip))
+                : hostInventory.hosts(device == null ? null : DeviceId.deviceId(device));
+        List<Host> hosts = HostInventory.list(source, order, limit);
+
+        if (outputJson()) {
+            ArrayNode json = mapper().createArrayNode();
+            hosts.forEach(host -> json.add(jsonForEntity(host, Host.class)));
+            print("%s", json);
+            return;
+        }
 
         print("---------------------------");
         print("--- LIST OF KNOWN HOSTS ---");
         print("---------------------------");
 
-        //List hosts = newArrayList(hostService.getHosts());
-
-        for (Host host : hostService.getHosts()) {
+        for (Host host : hosts) {
             print("Host id: %s with ip address %s", host.id(), host.ipAddresses());
         }
     }
@@ -16,6 +16,7 @@
 package org.pcklog.app;
 
 import org.onlab.packet.Ethernet;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
 import org.onosproject.net.*;
@@ -26,16 +27,40 @@ import org.onosproject.net.flowobjective.ForwardingObjective;
 import org.onosproject.net.host.HostService;
 import org.onosproject.net.packet.*;
 import org.onosproject.net.topology.TopologyService;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Dictionary;
 import java.util.Set;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.get;
+import static org.onlab.util.Tools.getIntegerProperty;
+import static org.pcklog.app.OsgiPropertyConstants.*;
+
 /**
  * Skeletal ONOS application component.
  */
-@Component(immediate = true)
+@Component(
+        immediate = true,
+        property = {
+                ASYNC_LOGGING + ":Boolean=" + ASYNC_LOGGING_DEFAULT,
+                RING_SIZE + ":Integer=" + RING_SIZE_DEFAULT,
+                LOG_SAMPLE_RATE + ":Integer=" + LOG_SAMPLE_RATE_DEFAULT,
+                LOG_RATE_LIMIT + ":Integer=" + LOG_RATE_LIMIT_DEFAULT,
+                LOG_BURST + ":Integer=" + LOG_BURST_DEFAULT,
+                FLOW_AGGREGATION + ":Boolean=" + FLOW_AGGREGATION_DEFAULT,
+                FLOW_IDLE_TIMEOUT + ":Integer=" + FLOW_IDLE_TIMEOUT_DEFAULT,
+                CAPTURE_ENABLED + ":Boolean=" + CAPTURE_ENABLED_DEFAULT,
+                CAPTURE_DIRECTORY + "=" + CAPTURE_DIRECTORY_DEFAULT,
+                CAPTURE_SNAP_LENGTH + ":Integer=" + CAPTURE_SNAP_LENGTH_DEFAULT,
+                CAPTURE_ROTATE_BYTES + ":Long=" + CAPTURE_ROTATE_BYTES_DEFAULT,
+                CAPTURE_ROTATE_SECONDS + ":Long=" + CAPTURE_ROTATE_SECONDS_DEFAULT,
+                CAPTURE_QUEUE_SIZE + ":Integer=" + CAPTURE_QUEUE_SIZE_DEFAULT,
+        }
+)
 public class AppComponent {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
@@ -58,14 +83,74 @@ public class AppComponent {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected FlowRuleService flowRuleService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PacketInMetrics metrics;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected HostLocationCache hostCache;
+
+    /** Copy packet-ins into a ring drained by a writer thread instead of logging inline. */
+    private boolean asyncLogging = ASYNC_LOGGING_DEFAULT;
+
+    /** Number of packet-in records the asynchronous logger can hold. */
+    private int ringSize = RING_SIZE_DEFAULT;
+
+    /** Log one packet-in every logSampleRate per device and ethertype, 1 to log all. */
+    private int logSampleRate = LOG_SAMPLE_RATE_DEFAULT;
+
+    /** Maximum log records per second per device and ethertype, 0 for no limit. */
+    private int logRateLimit = LOG_RATE_LIMIT_DEFAULT;
+
+    /** Number of log records allowed above logRateLimit in a burst. */
+    private int logBurst = LOG_BURST_DEFAULT;
+
+    /** Aggregate IPv4 packet-ins into flow summaries instead of logging each of them. */
+    private boolean flowAggregation = FLOW_AGGREGATION_DEFAULT;
+
+    /** Seconds of inactivity after which an aggregated flow is exported. */
+    private int flowIdleTimeout = FLOW_IDLE_TIMEOUT_DEFAULT;
+
+    /** Stream the raw packet-in frames to rotating pcapng files. */
+    private boolean captureEnabled = CAPTURE_ENABLED_DEFAULT;
+
+    /** Directory where the pcapng files are created. */
+    private String captureDirectory = CAPTURE_DIRECTORY_DEFAULT;
+
+    /** Maximum number of bytes captured per frame. */
+    private int captureSnapLength = CAPTURE_SNAP_LENGTH_DEFAULT;
+
+    /** Size in bytes after which a new capture file is started, 0 to disable. */
+    private long captureRotateBytes = CAPTURE_ROTATE_BYTES_DEFAULT;
+
+    /** Age in seconds after which a new capture file is started, 0 to disable. */
+    private long captureRotateSeconds = CAPTURE_ROTATE_SECONDS_DEFAULT;
+
+    /** Maximum number of frames waiting to be written to the capture file. */
+    private int captureQueueSize = CAPTURE_QUEUE_SIZE_DEFAULT;
+
     private ReactivePacketProcessor processor = new ReactivePacketProcessor();
 
+    private volatile AsyncPacketLogger asyncLogger;
+
+    private volatile LogRateLimiter logLimiter =
+            new LogRateLimiter(LOG_SAMPLE_RATE_DEFAULT, LOG_RATE_LIMIT_DEFAULT, LOG_BURST_DEFAULT);
+
+    private volatile PacketCaptureSink captureSink;
+
+    private volatile FlowAggregator flowAggregator;
+
     private ApplicationId appId;
 
     @Activate
-    protected void activate() {
+    protected void activate(ComponentContext context) {
         appId = coreService.registerApplication("org.pcklog.app");
 
+        cfgService.registerProperties(getClass());
+        modified(context);
+
         packetService.addProcessor(processor, PacketProcessor.director(2));
 
         installIpv4FlowRule();
@@ -75,14 +160,210 @@ public class AppComponent {
 
     @Deactivate
     protected void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
+
         packetService.removeProcessor(processor);
         processor = null;
 
+        stopAsyncLogger();
+        stopFlowAggregator();
+        stopCapture();
+
         removeIpv4FlowRule();
 
         log.info("Packet Logger application has been stopped with appId {}", appId);
     }
 
+    @Modified
+    protected void modified(ComponentContext context) {
+        Dictionary<?, ?> properties = context != null ? context.getProperties() : null;
+
+        boolean newAsyncLogging = asyncLogging;
+        int newRingSize = ringSize;
+        if (properties != null) {
+            String s = get(properties, ASYNC_LOGGING);
+            newAsyncLogging = isNullOrEmpty(s) ? ASYNC_LOGGING_DEFAULT : Boolean.parseBoolean(s.trim());
+
+            newRingSize = intProperty(properties, RING_SIZE, RING_SIZE_DEFAULT, MIN_RING_SIZE, MAX_RING_SIZE);
+        }
+
+        if (newAsyncLogging != asyncLogging || newRingSize != ringSize) {
+            stopAsyncLogger();
+        }
+        asyncLogging = newAsyncLogging;
+        ringSize = newRingSize;
+
+        if (asyncLogging && asyncLogger == null) {
+            AsyncPacketLogger logger = new AsyncPacketLogger(log, hostCache, ringSize);
+            logger.start();
+            asyncLogger = logger;
+        }
+
+        log.info("Configured. Asynchronous logging is {}, ring size {}",
+                 asyncLogging ? "enabled" : "disabled", ringSize);
+
+        readLimiterConfiguration(properties);
+        readAggregationConfiguration(properties);
+        readCaptureConfiguration(properties);
+    }
+
+    private void readAggregationConfiguration(Dictionary<?, ?> properties) {
+        boolean newAggregation = flowAggregation;
+        int newIdleTimeout = flowIdleTimeout;
+        if (properties != null) {
+            String s = get(properties, FLOW_AGGREGATION);
+            newAggregation = isNullOrEmpty(s) ? FLOW_AGGREGATION_DEFAULT : Boolean.parseBoolean(s.trim());
+
+            newIdleTimeout = intProperty(properties, FLOW_IDLE_TIMEOUT, FLOW_IDLE_TIMEOUT_DEFAULT,
+                                         1, MAX_FLOW_IDLE_TIMEOUT);
+        }
+
+        if (newAggregation != flowAggregation || newIdleTimeout != flowIdleTimeout) {
+            stopFlowAggregator();
+        }
+        flowAggregation = newAggregation;
+        flowIdleTimeout = newIdleTimeout;
+
+        if (flowAggregation && flowAggregator == null) {
+            FlowAggregator aggregator = new FlowAggregator(log, flowIdleTimeout);
+            aggregator.start();
+            flowAggregator = aggregator;
+        }
+
+        log.info("Configured. Flow aggregation is {}, idle timeout {} s",
+                 flowAggregation ? "enabled" : "disabled", flowIdleTimeout);
+    }
+
+    private void stopFlowAggregator() {
+        FlowAggregator aggregator = flowAggregator;
+        flowAggregator = null;
+        if (aggregator != null) {
+            aggregator.stop();
+            log.info("Flow aggregation stopped, {} flow summaries exported",
+                     aggregator.exportedFlows());
+        }
+    }
+
+    private void readLimiterConfiguration(Dictionary<?, ?> properties) {
+        if (properties != null) {
+            logSampleRate = intProperty(properties, LOG_SAMPLE_RATE, LOG_SAMPLE_RATE_DEFAULT,
+                                        1, MAX_LOG_RATE);
+            logRateLimit = intProperty(properties, LOG_RATE_LIMIT, LOG_RATE_LIMIT_DEFAULT,
+                                       0, MAX_LOG_RATE);
+            logBurst = intProperty(properties, LOG_BURST, LOG_BURST_DEFAULT, 1, MAX_LOG_RATE);
+        }
+
+        logLimiter = new LogRateLimiter(logSampleRate, logRateLimit, logBurst);
+
+        log.info("Configured. Logging 1 packet-in every {}, rate limit {} records/s, burst {}",
+                 logSampleRate, logRateLimit, logBurst);
+    }
+
+    private void readCaptureConfiguration(Dictionary<?, ?> properties) {
+        boolean newEnabled = captureEnabled;
+        String newDirectory = captureDirectory;
+        int newSnapLength = captureSnapLength;
+        long newRotateBytes = captureRotateBytes;
+        long newRotateSeconds = captureRotateSeconds;
+        int newQueueSize = captureQueueSize;
+        if (properties != null) {
+            String s = get(properties, CAPTURE_ENABLED);
+            newEnabled = isNullOrEmpty(s) ? CAPTURE_ENABLED_DEFAULT : Boolean.parseBoolean(s.trim());
+
+            s = get(properties, CAPTURE_DIRECTORY);
+            newDirectory = isNullOrEmpty(s) ? CAPTURE_DIRECTORY_DEFAULT : s.trim();
+
+            newSnapLength = intProperty(properties, CAPTURE_SNAP_LENGTH, CAPTURE_SNAP_LENGTH_DEFAULT,
+                                        MIN_SNAP_LENGTH, PacketCaptureSink.MAX_SNAP_LENGTH);
+            newRotateBytes = longProperty(properties, CAPTURE_ROTATE_BYTES, CAPTURE_ROTATE_BYTES_DEFAULT,
+                                          0, Long.MAX_VALUE);
+            newRotateSeconds = longProperty(properties, CAPTURE_ROTATE_SECONDS, CAPTURE_ROTATE_SECONDS_DEFAULT,
+                                            0, Long.MAX_VALUE);
+            newQueueSize = intProperty(properties, CAPTURE_QUEUE_SIZE, CAPTURE_QUEUE_SIZE_DEFAULT,
+                                       1, MAX_QUEUE_SIZE);
+        }
+
+        boolean changed = newEnabled != captureEnabled
+                || !newDirectory.equals(captureDirectory)
+                || newSnapLength != captureSnapLength
+                || newRotateBytes != captureRotateBytes
+                || newRotateSeconds != captureRotateSeconds
+                || newQueueSize != captureQueueSize;
+        if (changed) {
+            stopCapture();
+        }
+        captureEnabled = newEnabled;
+        captureDirectory = newDirectory;
+        captureSnapLength = newSnapLength;
+        captureRotateBytes = newRotateBytes;
+        captureRotateSeconds = newRotateSeconds;
+        captureQueueSize = newQueueSize;
+
+        if (captureEnabled && captureSink == null) {
+            PacketCaptureSink sink = new PacketCaptureSink(log, captureDirectory, captureSnapLength,
+                                                           captureRotateBytes, captureRotateSeconds,
+                                                           captureQueueSize);
+            sink.start();
+            captureSink = sink;
+        }
+
+        log.info("Configured. Packet capture is {}, directory {}, snap length {}",
+                 captureEnabled ? "enabled" : "disabled", captureDirectory, captureSnapLength);
+    }
+
+    private void stopCapture() {
+        PacketCaptureSink sink = captureSink;
+        captureSink = null;
+        if (sink != null) {
+            sink.stop();
+            log.info("Packet capture stopped, {} frames captured, {} dropped{}",
+                     sink.captured(), sink.dropped(), sink.failed() ? ", after a write failure" : "");
+        }
+    }
+
+    // Integer property clamped to [min, max], the default when unset or not a number.
+    private int intProperty(Dictionary<?, ?> properties, String name, int defaultValue, int min, int max) {
+        Integer value = getIntegerProperty(properties, name);
+        if (value == null) {
+            if (!isNullOrEmpty(get(properties, name))) {
+                log.warn("Ignoring {} = {}, not a number, using {}", name, get(properties, name), defaultValue);
+            }
+            return defaultValue;
+        }
+        return (int) clamp(name, value, min, max);
+    }
+
+    // Long property clamped to [min, max], the default when unset or not a number.
+    private long longProperty(Dictionary<?, ?> properties, String name, long defaultValue, long min, long max) {
+        String s = get(properties, name);
+        if (isNullOrEmpty(s)) {
+            return defaultValue;
+        }
+        try {
+            return clamp(name, Long.parseLong(s.trim()), min, max);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring {} = {}, not a number, using {}", name, s, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private long clamp(String name, long value, long min, long max) {
+        long clamped = Math.max(min, Math.min(max, value));
+        if (clamped != value) {
+            log.warn("Clamping {} = {} to {}", name, value, clamped);
+        }
+        return clamped;
+    }
+
+    private void stopAsyncLogger() {
+        AsyncPacketLogger logger = asyncLogger;
+        asyncLogger = null;
+        if (logger != null) {
+            logger.stop();
+            log.info("Asynchronous packet logger stopped, {} records dropped", logger.dropped());
+        }
+    }
+
     /**
      * Request packet in via packet service.
      */
@@ -108,6 +389,15 @@ public class AppComponent {
 
         @Override
         public void process(PacketContext context) {
+            long start = System.nanoTime();
+            try {
+                processPacket(context);
+            } finally {
+                metrics.recordProcessTime(System.nanoTime() - start);
+            }
+        }
+
+        private void processPacket(PacketContext context) {
 
             if (context.isHandled()) {
                 return;
@@ -116,6 +406,41 @@ public class AppComponent {
             InboundPacket pkt = context.inPacket();
             Ethernet ethPkt = pkt.parsed();
 
+            metrics.countPacket(pkt.receivedFrom().deviceId(),
+                                pkt.receivedFrom().port().toLong(),
+                                ethPkt.getEtherType());
+
+            PacketCaptureSink sink = captureSink;
+            if (sink != null) {
+                sink.capture(pkt.receivedFrom(), context.time(), pkt.unparsed());
+            }
+
+            FlowAggregator aggregator = flowAggregator;
+            if (aggregator != null && ethPkt.getEtherType() == Ethernet.TYPE_IPV4) {
+                aggregator.add(ethPkt.getSourceMAC().toLong(),
+                               ethPkt.getDestinationMAC().toLong(),
+                               pkt.receivedFrom(),
+                               pkt.unparsed().remaining(),
+                               context.time());
+                return;
+            }
+
+            int verdict = logLimiter.admit(pkt.receivedFrom().deviceId(), ethPkt.getEtherType());
+            if (verdict != LogRateLimiter.ADMITTED) {
+                metrics.countSuppressed(verdict);
+                return;
+            }
+
+            AsyncPacketLogger logger = asyncLogger;
+            if (logger != null) {
+                short ethType = ethPkt.getEtherType();
+                if (ethType == Ethernet.TYPE_LLDP || ethType == Ethernet.TYPE_ARP
+                        || ethType == Ethernet.TYPE_IPV4) {
+                    logger.record(pkt.receivedFrom(), ethPkt, context.time());
+                }
+                return;
+            }
+
             if (ethPkt.getEtherType() == Ethernet.TYPE_LLDP) {
                 log.info("[---PACKLOGGED---]: from {} ETH_TYPE: LLDP", context.inPacket().receivedFrom());
             }
@@ -128,12 +453,10 @@ public class AppComponent {
 
                 //----
                 //Identify the destination host
-                HostId id = HostId.hostId(ethPkt.getDestinationMAC());
-                Host dst = hostService.getHost(id);
+                Host dst = hostCache.getHost(ethPkt.getDestinationMAC());
 
                 //Identify the source host
-                HostId idSrc = HostId.hostId(ethPkt.getSourceMAC());
-                Host src = hostService.getHost(idSrc);
+                Host src = hostCache.getHost(ethPkt.getSourceMAC());
 
                 if (dst == null) {
                     log.error("PCKLOG destination host is not known MAC {}", ethPkt.getDestinationMAC());
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.onosproject.net.DeviceId;
+import org.onosproject.rest.AbstractWebResource;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Packet Logger web resource.
+ */
+@Path("")
+public class AppWebResource extends AbstractWebResource {
+
+    /**
+     * Get a snapshot of the packet-in counters and of the packet processor
+     * execution time.
+     *
+     * @param device optional device to restrict the counters to
+     * @return 200 OK
+     */
+    @GET
+    @Path("stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getStats(@QueryParam("device") String device) {
+        PacketInMetrics metrics = get(PacketInMetrics.class);
+        HostLocationCache hostCache = get(HostLocationCache.class);
+
+        DeviceId deviceId = device == null ? null : DeviceId.deviceId(device);
+
+        ObjectNode root = metrics.toJson(mapper(), deviceId);
+        root.putObject("hostCache")
+                .put("hosts", hostCache.size())
+                .put("hits", hostCache.hits())
+                .put("misses", hostCache.misses());
+
+        return ok(root).build();
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.MacAddress;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.PortNumber;
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Packet logger that moves formatting and writing off the packet-dispatch
+ * thread. Packet-ins are copied into a {@link PacketLogRing} and a dedicated
+ * writer thread drains the ring and emits the usual log lines. An idle writer
+ * parks until the next record is offered, so it costs nothing without
+ * traffic.
+ */
+public class AsyncPacketLogger {
+
+    private static final long DROP_REPORT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(DROP_REPORT_MILLIS);
+
+    private final Logger log;
+    private final HostLocationCache hostCache;
+    private final PacketLogRing ring;
+    private final Thread writer;
+
+    private volatile boolean running;
+    private volatile boolean idle;
+    private long reportedDrops;
+    private long lastDropReport;
+
+    /**
+     * Creates a new asynchronous logger.
+     *
+     * @param log         logger used to emit records
+     * @param hostCache   host cache used to resolve IPv4 endpoints
+     * @param ringSize    number of records that can be pending
+     */
+    public AsyncPacketLogger(Logger log, HostLocationCache hostCache, int ringSize) {
+        this.log = log;
+        this.hostCache = hostCache;
+        this.ring = new PacketLogRing(ringSize);
+        this.writer = groupedThreads("onos/pcklog", "log-writer-%d", log).newThread(this::drainLoop);
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    public void start() {
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * Stops the writer thread after draining the pending records.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        reportDrops();
+    }
+
+    /**
+     * Records a packet-in; never blocks and never allocates.
+     *
+     * @param receivedFrom connect point the packet was received from
+     * @param ethPkt       parsed packet
+     * @param timestamp    time the packet was received
+     */
+    public void record(ConnectPoint receivedFrom, Ethernet ethPkt, long timestamp) {
+        ring.offer(receivedFrom.deviceId(),
+                   receivedFrom.port().toLong(),
+                   ethPkt.getEtherType(),
+                   ethPkt.getSourceMAC().toLong(),
+                   ethPkt.getDestinationMAC().toLong(),
+                   timestamp);
+        if (idle) {
+            idle = false;
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Returns the number of records dropped because the ring was full.
+     *
+     * @return dropped record count
+     */
+    public long dropped() {
+        return ring.dropped();
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (ring.poll(this::write)) {
+                continue;
+            }
+            reportDropsIfNeeded();
+
+            // a record offered before the flag is raised is polled here,
+            // one offered after it finds the flag and unparks the writer
+            idle = true;
+            if (!ring.poll(this::write) && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            idle = false;
+        }
+        while (ring.poll(this::write)) {
+            // drain what is left before leaving
+        }
+    }
+
+    private void write(DeviceId deviceId, long port, short ethType,
+                       long srcMac, long dstMac, long timestamp) {
+        try {
+            ConnectPoint receivedFrom = new ConnectPoint(deviceId, PortNumber.portNumber(port));
+
+            if (ethType == Ethernet.TYPE_LLDP) {
+                log.info("[---PACKLOGGED---]: from {} ETH_TYPE: LLDP", receivedFrom);
+            }
+
+            if (ethType == Ethernet.TYPE_ARP) {
+                log.info("[---PACKLOGGED---]: from {} ETH_TYPE: ARP", receivedFrom);
+            }
+
+            if (ethType == Ethernet.TYPE_IPV4) {
+                MacAddress src = MacAddress.valueOf(srcMac);
+                MacAddress dst = MacAddress.valueOf(dstMac);
+
+                Host srcHost = hostCache.getHost(src);
+                if (hostCache.getHost(dst) == null) {
+                    log.error("PCKLOG destination host is not known MAC {}", dst);
+                    return;
+                }
+                if (srcHost == null) {
+                    log.error("PCKLOG source host is not known MAC {}", src);
+                    return;
+                }
+
+                if (srcHost.location().deviceId().equals(deviceId)) {
+                    log.info("PCKLOG NEW PCK source host {} to destination {} from device {}",
+                             src, dst, deviceId);
+                }
+
+                log.info("[---PACKLOGGED---]: from {} ETH_TYPE: IPv4", receivedFrom);
+            }
+        } catch (RuntimeException e) {
+            log.warn("PCKLOG unable to write packet record", e);
+        }
+    }
+
+    private void reportDropsIfNeeded() {
+        long now = System.currentTimeMillis();
+        if (now - lastDropReport >= DROP_REPORT_MILLIS) {
+            lastDropReport = now;
+            reportDrops();
+        }
+    }
+
+    private void reportDrops() {
+        long drops = ring.dropped();
+        if (drops != reportedDrops) {
+            log.warn("PCKLOG ring full, {} packet records dropped so far ({} since last report)",
+                     drops, drops - reportedDrops);
+            reportedDrops = drops;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.onlab.packet.MacAddress;
+import org.onosproject.net.ConnectPoint;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Aggregates packet-ins into flow records keyed by (source MAC, destination
+ * MAC, ingress connect point) and exports one summary per flow once the flow
+ * has been idle for a while.
+ *
+ * Flows live in open-addressing tables with MACs stored as primitive longs;
+ * the key space is split in stripes, each guarded by its own monitor, so
+ * packet-dispatch threads rarely contend and updating an existing flow does
+ * not allocate.
+ */
+public class FlowAggregator {
+
+    static final int STRIPES = 16;
+    static final int INITIAL_CAPACITY = 256;
+    private static final long SWEEP_PERIOD_MILLIS = 1000;
+
+    private final Logger log;
+    private final long idleTimeoutMillis;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder exported = new LongAdder();
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Creates a new aggregator.
+     *
+     * @param log                logger used to export the flow summaries
+     * @param idleTimeoutSeconds idle time after which a flow is exported
+     */
+    public FlowAggregator(Logger log, long idleTimeoutSeconds) {
+        this.log = log;
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(idleTimeoutSeconds);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(INITIAL_CAPACITY);
+        }
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(
+                groupedThreads("onos/pcklog", "flow-sweeper-%d", log));
+    }
+
+    /**
+     * Starts expiring idle flows.
+     */
+    public void start() {
+        sweeper.scheduleWithFixedDelay(() -> expire(false), SWEEP_PERIOD_MILLIS,
+                                       SWEEP_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops expiring flows and exports every flow still in the table.
+     */
+    public void stop() {
+        sweeper.shutdownNow();
+        try {
+            sweeper.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        expire(true);
+    }
+
+    /**
+     * Accounts a packet-in to its flow.
+     *
+     * @param srcMac       source MAC address as a long
+     * @param dstMac       destination MAC address as a long
+     * @param receivedFrom ingress connect point
+     * @param bytes        length of the frame
+     * @param timestamp    time the packet was received
+     */
+    public void add(long srcMac, long dstMac, ConnectPoint receivedFrom, int bytes, long timestamp) {
+        int hash = hash(srcMac, dstMac, receivedFrom);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        synchronized (stripe) {
+            stripe.add(hash >>> 4, srcMac, dstMac, receivedFrom, bytes, timestamp);
+        }
+    }
+
+    /**
+     * Returns the number of flows currently aggregated.
+     *
+     * @return active flow count
+     */
+    public int activeFlows() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.size;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of flow summaries exported so far.
+     *
+     * @return exported flow count
+     */
+    public long exportedFlows() {
+        return exported.sum();
+    }
+
+    // Exports the flows idle for too long, or all of them; run by the sweeper.
+    void expire(boolean all) {
+        long deadline = System.currentTimeMillis() - idleTimeoutMillis;
+        List<Summary> expired = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                int i = 0;
+                while (i < stripe.capacity()) {
+                    if (stripe.ingress[i] != null && (all || stripe.lastSeen[i] <= deadline)) {
+                        expired.add(new Summary(stripe, i));
+                        // the slot is refilled by the backward shift, look at it again
+                        stripe.removeAt(i);
+                    } else {
+                        i++;
+                    }
+                }
+            }
+            // logged out of the stripe lock, so that a slow appender does not
+            // hold up the packet-ins of the stripe
+            expired.forEach(this::export);
+            expired.clear();
+        }
+    }
+
+    private void export(Summary flow) {
+        log.info("PCKLOG FLOW {} -> {} from {} first {} last {} packets {} bytes {}",
+                 MacAddress.valueOf(flow.srcMac),
+                 MacAddress.valueOf(flow.dstMac),
+                 flow.ingress,
+                 flow.firstSeen,
+                 flow.lastSeen,
+                 flow.packets,
+                 flow.bytes);
+        exported.increment();
+    }
+
+    // Low bits pick the stripe, the next ones the home slot in the stripe.
+    static int hash(long srcMac, long dstMac, ConnectPoint receivedFrom) {
+        long h = srcMac * 0x9E3779B97F4A7C15L;
+        h ^= dstMac * 0xC2B2AE3D27D4EB4FL;
+        h ^= receivedFrom.hashCode() * 0x165667B19E3779F9L;
+        h ^= h >>> 29;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Copy of an expired flow, taken under the lock of its stripe.
+     */
+    private static final class Summary {
+        private final long srcMac;
+        private final long dstMac;
+        private final ConnectPoint ingress;
+        private final long firstSeen;
+        private final long lastSeen;
+        private final long packets;
+        private final long bytes;
+
+        private Summary(Stripe stripe, int i) {
+            srcMac = stripe.srcMacs[i];
+            dstMac = stripe.dstMacs[i];
+            ingress = stripe.ingress[i];
+            firstSeen = stripe.firstSeen[i];
+            lastSeen = stripe.lastSeen[i];
+            packets = stripe.packets[i];
+            bytes = stripe.bytes[i];
+        }
+    }
+
+    /**
+     * Linear-probing table of flows, with columns stored in parallel arrays.
+     */
+    private static final class Stripe {
+        private long[] srcMacs;
+        private long[] dstMacs;
+        private ConnectPoint[] ingress;
+        private long[] firstSeen;
+        private long[] lastSeen;
+        private long[] packets;
+        private long[] bytes;
+        private int size;
+
+        private Stripe(int capacity) {
+            allocate(capacity);
+        }
+
+        private int capacity() {
+            return ingress.length;
+        }
+
+        private void allocate(int capacity) {
+            srcMacs = new long[capacity];
+            dstMacs = new long[capacity];
+            ingress = new ConnectPoint[capacity];
+            firstSeen = new long[capacity];
+            lastSeen = new long[capacity];
+            packets = new long[capacity];
+            bytes = new long[capacity];
+        }
+
+        private void add(int hash, long srcMac, long dstMac, ConnectPoint receivedFrom,
+                         int length, long timestamp) {
+            int mask = capacity() - 1;
+            int i = hash & mask;
+            while (ingress[i] != null) {
+                if (srcMacs[i] == srcMac && dstMacs[i] == dstMac && ingress[i].equals(receivedFrom)) {
+                    lastSeen[i] = Math.max(lastSeen[i], timestamp);
+                    packets[i]++;
+                    bytes[i] += length;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+
+            srcMacs[i] = srcMac;
+            dstMacs[i] = dstMac;
+            ingress[i] = receivedFrom;
+            firstSeen[i] = timestamp;
+            lastSeen[i] = timestamp;
+            packets[i] = 1;
+            bytes[i] = length;
+            if (++size * 2 > capacity()) {
+                resize();
+            }
+        }
+
+        private void removeAt(int slot) {
+            int mask = capacity() - 1;
+            int hole = slot;
+            int i = (slot + 1) & mask;
+            while (ingress[i] != null) {
+                int home = (hash(srcMacs[i], dstMacs[i], ingress[i]) >>> 4) & mask;
+                // move the entry into the hole unless its home lies in (hole, i]
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    move(i, hole);
+                    hole = i;
+                }
+                i = (i + 1) & mask;
+            }
+            ingress[hole] = null;
+            size--;
+        }
+
+        private void move(int from, int to) {
+            srcMacs[to] = srcMacs[from];
+            dstMacs[to] = dstMacs[from];
+            ingress[to] = ingress[from];
+            firstSeen[to] = firstSeen[from];
+            lastSeen[to] = lastSeen[from];
+            packets[to] = packets[from];
+            bytes[to] = bytes[from];
+        }
+
+        private void resize() {
+            long[] oldSrc = srcMacs;
+            long[] oldDst = dstMacs;
+            ConnectPoint[] oldIngress = ingress;
+            long[] oldFirst = firstSeen;
+            long[] oldLast = lastSeen;
+            long[] oldPackets = packets;
+            long[] oldBytes = bytes;
+
+            allocate(oldIngress.length * 2);
+            int mask = capacity() - 1;
+            for (int j = 0; j < oldIngress.length; j++) {
+                if (oldIngress[j] == null) {
+                    continue;
+                }
+                int i = (hash(oldSrc[j], oldDst[j], oldIngress[j]) >>> 4) & mask;
+                while (ingress[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                srcMacs[i] = oldSrc[j];
+                dstMacs[i] = oldDst[j];
+                ingress[i] = oldIngress[j];
+                firstSeen[i] = oldFirst[j];
+                lastSeen[i] = oldLast[j];
+                packets[i] = oldPackets[j];
+                bytes[i] = oldBytes[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Ordering;
+import org.onlab.packet.IpAddress;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.HostId;
+import org.onosproject.net.HostLocation;
+import org.onosproject.net.host.HostEvent;
+import org.onosproject.net.host.HostListener;
+import org.onosproject.net.host.HostService;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inventory of the hosts indexed by device and by IP address.
+ *
+ * The indexes follow the host events, so the hosts of a device or of an
+ * address are found without walking every host. Listings can be sorted and
+ * limited; a limited sorted listing selects the first hosts in a single pass
+ * instead of sorting them all.
+ *
+ * The listener is registered before the store is read, so no event is
+ * missed; a host that an event changed while the store was being read is
+ * left as the event set it, since the store copy may predate the event.
+ */
+@Component(immediate = true, service = HostInventory.class)
+public class HostInventory {
+
+    /**
+     * Orders in which hosts can be listed.
+     */
+    public enum Sort {
+        ID(Comparator.comparing((Host h) -> h.id().toString())),
+        MAC(Comparator.comparing((Host h) -> h.mac().toString())),
+        IP(Comparator.comparing(HostInventory::lowestIp, Comparator.nullsFirst(Comparator.naturalOrder()))),
+        LOCATION(Comparator.comparing((Host h) -> h.location().toString()));
+
+        private final Comparator<Host> comparator;
+
+        Sort(Comparator<Host> comparator) {
+            this.comparator = comparator;
+        }
+
+        /**
+         * Returns the sort order of the given name, in any case.
+         *
+         * @param name sort order name
+         * @return sort order, or null if there is none of that name
+         */
+        public static Sort of(String name) {
+            for (Sort sort : values()) {
+                if (sort.name().equalsIgnoreCase(name)) {
+                    return sort;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected HostService hostService;
+
+    private final InternalHostListener hostListener = new InternalHostListener();
+
+    private final Map<HostId, Host> hosts = new ConcurrentHashMap<>();
+    private final Map<DeviceId, Map<HostId, Host>> byDevice = new ConcurrentHashMap<>();
+    private final Map<IpAddress, Map<HostId, Host>> byIp = new ConcurrentHashMap<>();
+
+    // hosts changed by an event while the store is being read, null once it is read
+    private Set<HostId> changed;
+
+    @Activate
+    protected void activate() {
+        synchronized (this) {
+            changed = new HashSet<>();
+        }
+        hostService.addListener(hostListener);
+        for (Host host : hostService.getHosts()) {
+            load(host);
+        }
+        synchronized (this) {
+            changed = null;
+        }
+        log.info("Host inventory started with {} hosts", size());
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        hostService.removeListener(hostListener);
+        hosts.clear();
+        byDevice.clear();
+        byIp.clear();
+        log.info("Host inventory stopped");
+    }
+
+    /**
+     * Returns the hosts attached to a device, or all the hosts.
+     *
+     * @param deviceId device, null for all the hosts
+     * @return hosts
+     */
+    public Collection<Host> hosts(DeviceId deviceId) {
+        if (deviceId == null) {
+            return Collections.unmodifiableCollection(hosts.values());
+        }
+        Map<HostId, Host> attached = byDevice.get(deviceId);
+        return attached == null ? Collections.emptyList() : Collections.unmodifiableCollection(attached.values());
+    }
+
+    /**
+     * Returns the hosts owning an IP address.
+     *
+     * @param ip IP address
+     * @return hosts
+     */
+    public Collection<Host> hostsByIp(IpAddress ip) {
+        Map<HostId, Host> owners = byIp.get(ip);
+        return owners == null ? Collections.emptyList() : Collections.unmodifiableCollection(owners.values());
+    }
+
+    /**
+     * Returns a listing of hosts, sorted and limited as requested.
+     *
+     * @param source hosts to list
+     * @param sort   order of the listing, null for no particular order
+     * @param limit  maximum number of hosts, 0 or less for all of them
+     * @return hosts
+     */
+    public static List<Host> list(Collection<Host> source, Sort sort, int limit) {
+        if (sort == null) {
+            return ImmutableList.copyOf(limit > 0 ? Iterables.limit(source, limit) : source);
+        }
+        Ordering<Host> ordering = Ordering.from(sort.comparator);
+        return limit > 0 ? ordering.leastOf(source, limit) : ordering.sortedCopy(source);
+    }
+
+    /**
+     * Returns the number of hosts.
+     *
+     * @return host count
+     */
+    public int size() {
+        return hosts.size();
+    }
+
+    private static IpAddress lowestIp(Host host) {
+        return host.ipAddresses().isEmpty() ? null : Collections.min(host.ipAddresses());
+    }
+
+    // Indexes a host read from the store, unless an event got there first.
+    private synchronized void load(Host host) {
+        if (!changed.contains(host.id())) {
+            update(host);
+        }
+    }
+
+    // Applies a host event, noting the host while the store is being read.
+    private synchronized void apply(HostEvent event) {
+        if (changed != null) {
+            changed.add(event.subject().id());
+        }
+        switch (event.type()) {
+            case HOST_ADDED:
+            case HOST_UPDATED:
+            case HOST_MOVED:
+                update(event.subject());
+                break;
+            case HOST_REMOVED:
+                remove(event.subject().id());
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Index updates are serialized, readers only see the concurrent maps.
+    private synchronized void update(Host host) {
+        remove(host.id());
+        hosts.put(host.id(), host);
+        for (HostLocation location : host.locations()) {
+            byDevice.computeIfAbsent(location.deviceId(), d -> new ConcurrentHashMap<>()).put(host.id(), host);
+        }
+        for (IpAddress ip : host.ipAddresses()) {
+            byIp.computeIfAbsent(ip, i -> new ConcurrentHashMap<>()).put(host.id(), host);
+        }
+    }
+
+    // Removes the indexed version of the host, which may predate the event.
+    private synchronized void remove(HostId hostId) {
+        Host old = hosts.remove(hostId);
+        if (old == null) {
+            return;
+        }
+        for (HostLocation location : old.locations()) {
+            byDevice.computeIfPresent(location.deviceId(), (d, m) -> {
+                m.remove(hostId);
+                return m.isEmpty() ? null : m;
+            });
+        }
+        for (IpAddress ip : old.ipAddresses()) {
+            byIp.computeIfPresent(ip, (i, m) -> {
+                m.remove(hostId);
+                return m.isEmpty() ? null : m;
+            });
+        }
+    }
+
+    private class InternalHostListener implements HostListener {
+        @Override
+        public void event(HostEvent event) {
+            apply(event);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.onlab.packet.Ethernet;
+import org.onosproject.net.DeviceId;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which packet-ins are worth a log record.
+ *
+ * Packets are first sampled deterministically, one every N per
+ * (device, ethertype), then the sampled ones go through a token bucket per
+ * (device, ethertype). The token bucket is implemented as a virtual
+ * scheduling (GCRA) clock updated with compare-and-set, so admission never
+ * takes a lock.
+ */
+public final class LogRateLimiter {
+
+    /** The packet should be logged. */
+    public static final int ADMITTED = 0;
+    /** The packet was skipped by 1-in-N sampling. */
+    public static final int SAMPLED_OUT = 1;
+    /** The packet was skipped because the rate limit was exceeded. */
+    public static final int RATE_LIMITED = 2;
+
+    private static final int SLOT_LLDP = 0;
+    private static final int SLOT_ARP = 1;
+    private static final int SLOT_IPV4 = 2;
+    private static final int SLOT_OTHER = 3;
+    private static final int SLOTS = 4;
+
+    private final int sampleRate;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final ConcurrentMap<DeviceId, Bucket[]> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new limiter.
+     *
+     * @param sampleRate log one packet every sampleRate, 1 to log all of them
+     * @param rateLimit  maximum number of records per second for each
+     *                   (device, ethertype), 0 to disable the limit
+     * @param burst      number of records that may exceed the rate in a burst
+     */
+    public LogRateLimiter(int sampleRate, int rateLimit, int burst) {
+        this.sampleRate = Math.max(1, sampleRate);
+        if (rateLimit > 0) {
+            intervalNanos = TimeUnit.SECONDS.toNanos(1) / rateLimit;
+            toleranceNanos = intervalNanos * Math.max(0, burst - 1);
+        } else {
+            intervalNanos = 0;
+            toleranceNanos = 0;
+        }
+    }
+
+    /**
+     * Returns whether the limiter lets every packet through.
+     *
+     * @return true if neither sampling nor rate limiting is configured
+     */
+    public boolean isPassThrough() {
+        return sampleRate == 1 && intervalNanos == 0;
+    }
+
+    /**
+     * Decides whether a packet-in should be logged.
+     *
+     * @param deviceId device that received the packet
+     * @param ethType  ethernet type of the packet
+     * @return one of {@link #ADMITTED}, {@link #SAMPLED_OUT} or {@link #RATE_LIMITED}
+     */
+    public int admit(DeviceId deviceId, short ethType) {
+        return admit(deviceId, ethType, System.nanoTime());
+    }
+
+    // Decision at a given time, on the System.nanoTime() scale.
+    int admit(DeviceId deviceId, short ethType, long now) {
+        if (isPassThrough()) {
+            return ADMITTED;
+        }
+
+        Bucket[] deviceBuckets = buckets.get(deviceId);
+        if (deviceBuckets == null) {
+            deviceBuckets = buckets.computeIfAbsent(deviceId, d -> newBuckets());
+        }
+        Bucket bucket = deviceBuckets[slot(ethType)];
+
+        if (sampleRate > 1 && bucket.sequence.getAndIncrement() % sampleRate != 0) {
+            return SAMPLED_OUT;
+        }
+        if (intervalNanos > 0 && !bucket.tryAcquire(now, intervalNanos, toleranceNanos)) {
+            return RATE_LIMITED;
+        }
+        return ADMITTED;
+    }
+
+    private static Bucket[] newBuckets() {
+        Bucket[] deviceBuckets = new Bucket[SLOTS];
+        for (int i = 0; i < SLOTS; i++) {
+            deviceBuckets[i] = new Bucket();
+        }
+        return deviceBuckets;
+    }
+
+    private static int slot(short ethType) {
+        // the Ethernet type constants are not compile-time constants, no switch
+        if (ethType == Ethernet.TYPE_LLDP) {
+            return SLOT_LLDP;
+        } else if (ethType == Ethernet.TYPE_ARP) {
+            return SLOT_ARP;
+        } else if (ethType == Ethernet.TYPE_IPV4) {
+            return SLOT_IPV4;
+        }
+        return SLOT_OTHER;
+    }
+
+    private static final class Bucket {
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        private boolean tryAcquire(long now, long interval, long tolerance) {
+            for (;;) {
+                long tat = theoreticalArrival.get();
+                long base = tat == Long.MIN_VALUE || tat < now ? now : tat;
+                if (base - tolerance > now) {
+                    return false;
+                }
+                if (theoreticalArrival.compareAndSet(tat, base + interval)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+/**
+ * Constants for default values of configurable properties.
+ */
+public final class OsgiPropertyConstants {
+
+    private OsgiPropertyConstants() {
+    }
+
+    public static final String ASYNC_LOGGING = "asyncLogging";
+    public static final boolean ASYNC_LOGGING_DEFAULT = false;
+
+    public static final String RING_SIZE = "ringSize";
+    public static final int RING_SIZE_DEFAULT = 65536;
+    static final int MIN_RING_SIZE = 16;
+    static final int MAX_RING_SIZE = 1 << 24;
+
+    public static final String LOG_SAMPLE_RATE = "logSampleRate";
+    public static final int LOG_SAMPLE_RATE_DEFAULT = 1;
+
+    public static final String LOG_RATE_LIMIT = "logRateLimit";
+    public static final int LOG_RATE_LIMIT_DEFAULT = 0;
+
+    public static final String LOG_BURST = "logBurst";
+    public static final int LOG_BURST_DEFAULT = 10;
+    static final int MAX_LOG_RATE = 1_000_000;
+
+    public static final String FLOW_AGGREGATION = "flowAggregation";
+    public static final boolean FLOW_AGGREGATION_DEFAULT = false;
+
+    public static final String FLOW_IDLE_TIMEOUT = "flowIdleTimeout";
+    public static final int FLOW_IDLE_TIMEOUT_DEFAULT = 10;
+    static final int MAX_FLOW_IDLE_TIMEOUT = 86400;
+
+    public static final String CAPTURE_ENABLED = "captureEnabled";
+    public static final boolean CAPTURE_ENABLED_DEFAULT = false;
+
+    public static final String CAPTURE_DIRECTORY = "captureDirectory";
+    public static final String CAPTURE_DIRECTORY_DEFAULT = "/tmp/pcklog";
+
+    public static final String CAPTURE_SNAP_LENGTH = "captureSnapLength";
+    public static final int CAPTURE_SNAP_LENGTH_DEFAULT = 65535;
+    static final int MIN_SNAP_LENGTH = 64;
+
+    public static final String CAPTURE_ROTATE_BYTES = "captureRotateBytes";
+    public static final long CAPTURE_ROTATE_BYTES_DEFAULT = 256L * 1024 * 1024;
+
+    public static final String CAPTURE_ROTATE_SECONDS = "captureRotateSeconds";
+    public static final long CAPTURE_ROTATE_SECONDS_DEFAULT = 3600;
+
+    public static final String CAPTURE_QUEUE_SIZE = "captureQueueSize";
+    public static final int CAPTURE_QUEUE_SIZE_DEFAULT = 16384;
+    static final int MAX_QUEUE_SIZE = 1 << 20;
+}
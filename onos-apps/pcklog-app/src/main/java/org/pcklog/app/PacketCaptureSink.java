@@ -0,0 +1,262 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.onosproject.net.ConnectPoint;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Streams raw packet-in frames into rotating pcapng files.
+ *
+ * The packet processor only copies the frame into a bounded queue; a
+ * dedicated writer thread moves the frames to disk. When the queue is full
+ * the frame is dropped and counted, so capturing never blocks the processor.
+ * Capture files are named after their creation time and a sequence number,
+ * which skips the names already taken in the directory. A failure to write,
+ * such as a full disk, stops the capture for good: from then on frames are
+ * dropped without being copied, until the sink is replaced.
+ */
+public class PacketCaptureSink {
+
+    /** Largest snap length accepted, the one of tcpdump. */
+    public static final int MAX_SNAP_LENGTH = 262144;
+
+    private static final int WRITE_BUFFER_SIZE = 4 * 1024 * 1024;
+    private static final long FORCE_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final long POLL_MILLIS = 100;
+    private static final int MAX_NAME_ATTEMPTS = 10000;
+
+    private final Logger log;
+    private final Path directory;
+    private final int snapLength;
+    private final long rotateBytes;
+    private final long rotateMillis;
+    private final BlockingQueue<Frame> queue;
+    private final Thread writerThread;
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean failed;
+    private PcapngWriter writer;
+    private long fileOpenedAt;
+    private long lastForce;
+    private int fileIndex;
+
+    /**
+     * Creates a new capture sink.
+     *
+     * @param log           logger used to report failures
+     * @param directory     directory where capture files are created
+     * @param snapLength    maximum number of bytes captured per frame, between
+     *                      1 and {@link #MAX_SNAP_LENGTH}
+     * @param rotateBytes   file size that triggers a rotation, 0 to disable
+     * @param rotateSeconds file age that triggers a rotation, 0 to disable
+     * @param queueSize     maximum number of frames waiting to be written, positive
+     * @throws IllegalArgumentException if a size is out of range
+     */
+    public PacketCaptureSink(Logger log, String directory, int snapLength,
+                             long rotateBytes, long rotateSeconds, int queueSize) {
+        if (snapLength < 1 || snapLength > MAX_SNAP_LENGTH) {
+            throw new IllegalArgumentException("Snap length out of range: " + snapLength);
+        }
+        if (queueSize < 1 || rotateBytes < 0 || rotateSeconds < 0) {
+            throw new IllegalArgumentException("Queue size must be positive, rotation limits not negative");
+        }
+        this.log = log;
+        this.directory = Paths.get(directory);
+        this.snapLength = snapLength;
+        this.rotateBytes = rotateBytes;
+        this.rotateMillis = TimeUnit.SECONDS.toMillis(rotateSeconds);
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.writerThread = groupedThreads("onos/pcklog", "capture-writer-%d", log)
+                .newThread(this::writeLoop);
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    public void start() {
+        running = true;
+        writerThread.start();
+    }
+
+    /**
+     * Stops the writer thread, writing out the queued frames first.
+     */
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a frame for capture; never blocks.
+     *
+     * @param receivedFrom connect point the frame was received from
+     * @param timestamp    receive time in milliseconds since the epoch
+     * @param data         unparsed frame
+     */
+    public void capture(ConnectPoint receivedFrom, long timestamp, ByteBuffer data) {
+        if (failed) {
+            dropped.increment();
+            return;
+        }
+        ByteBuffer frame = data.duplicate();
+        int length = frame.remaining();
+        byte[] bytes = new byte[Math.min(length, snapLength)];
+        frame.get(bytes);
+
+        if (queue.offer(new Frame(receivedFrom, timestamp, bytes, length))) {
+            captured.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Returns the number of frames accepted for capture.
+     *
+     * @return captured frame count
+     */
+    public long captured() {
+        return captured.sum();
+    }
+
+    /**
+     * Returns the number of frames dropped because the queue was full or
+     * the capture had failed.
+     *
+     * @return dropped frame count
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns whether the capture stopped on a write failure.
+     *
+     * @return true if frames are no longer written
+     */
+    public boolean failed() {
+        return failed;
+    }
+
+    private void writeLoop() {
+        try {
+            while (running || !queue.isEmpty()) {
+                Frame frame = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+
+                long now = System.currentTimeMillis();
+                if (frame != null) {
+                    write(frame, now);
+                }
+                if (writer != null && now - lastForce >= FORCE_INTERVAL_MILLIS) {
+                    writer.flush(true);
+                    lastForce = now;
+                }
+            }
+        } catch (IOException e) {
+            failed = true;
+            // the frames still queued will never be written
+            queue.clear();
+            log.error("PCKLOG packet capture stopped, reconfigure the capture to restart it", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeWriter();
+        }
+    }
+
+    private void write(Frame frame, long now) throws IOException {
+        if (writer == null || needsRotation(now)) {
+            rotate(now);
+        }
+        writer.write(frame.receivedFrom, TimeUnit.MILLISECONDS.toMicros(frame.timestamp),
+                     frame.data, frame.data.length, frame.length);
+    }
+
+    private boolean needsRotation(long now) {
+        return (rotateBytes > 0 && writer.size() >= rotateBytes)
+                || (rotateMillis > 0 && now - fileOpenedAt >= rotateMillis);
+    }
+
+    private void rotate(long now) throws IOException {
+        closeWriter();
+        Files.createDirectories(directory);
+
+        String time = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(now));
+        Path file = null;
+        for (int attempt = 0; writer == null; attempt++) {
+            // a sink restarted within the same second finds its previous files
+            file = directory.resolve(String.format("pcklog-%s-%04d.pcapng", time, fileIndex++));
+            try {
+                writer = new PcapngWriter(file, snapLength, WRITE_BUFFER_SIZE);
+            } catch (FileAlreadyExistsException e) {
+                if (attempt == MAX_NAME_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+        fileOpenedAt = now;
+        lastForce = now;
+        log.info("PCKLOG capturing packet-ins to {}", file);
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("PCKLOG unable to close capture file", e);
+        }
+        writer = null;
+    }
+
+    private static final class Frame {
+        private final ConnectPoint receivedFrom;
+        private final long timestamp;
+        private final byte[] data;
+        private final int length;
+
+        private Frame(ConnectPoint receivedFrom, long timestamp, byte[] data, int length) {
+            this.receivedFrom = receivedFrom;
+            this.timestamp = timestamp;
+            this.data = data;
+            this.length = length;
+        }
+    }
+}
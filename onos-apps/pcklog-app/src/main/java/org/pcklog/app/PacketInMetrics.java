@@ -0,0 +1,366 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.onosproject.net.DeviceId;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Packet-in counters per (device, port, ethertype) and a histogram of the
+ * packet processor execution time. Counters are striped {@link LongAdder}s,
+ * so updating them from the packet-dispatch threads never takes a lock.
+ * The counters of a device sit in an open-addressing table keyed by the port
+ * and ethertype packed in a long, so finding the counter of a packet-in
+ * allocates nothing once the counter exists. A background task turns the
+ * counters into per-second rates.
+ */
+@Component(immediate = true, service = PacketInMetrics.class)
+public class PacketInMetrics {
+
+    private static final long RATE_PERIOD_SECONDS = 1;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ConcurrentMap<DeviceId, DeviceCounters> counters = new ConcurrentHashMap<>();
+    private final LatencyHistogram processLatency = new LatencyHistogram();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    private ScheduledExecutorService rateExecutor;
+    private volatile long resetTime = System.currentTimeMillis();
+
+    @Activate
+    protected void activate() {
+        rateExecutor = Executors.newSingleThreadScheduledExecutor(
+                groupedThreads("onos/pcklog", "metrics-%d", log));
+        rateExecutor.scheduleAtFixedRate(this::updateRates, RATE_PERIOD_SECONDS,
+                                         RATE_PERIOD_SECONDS, TimeUnit.SECONDS);
+        log.info("Packet-in metrics started");
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        rateExecutor.shutdownNow();
+        rateExecutor = null;
+        log.info("Packet-in metrics stopped");
+    }
+
+    /**
+     * Counts a packet-in.
+     *
+     * @param deviceId device that received the packet
+     * @param port     port that received the packet
+     * @param ethType  ethernet type of the packet
+     */
+    public void countPacket(DeviceId deviceId, long port, short ethType) {
+        DeviceCounters device = counters.get(deviceId);
+        if (device == null) {
+            device = counters.computeIfAbsent(deviceId, k -> new DeviceCounters());
+        }
+        device.counter(key(port, ethType)).packets.increment();
+    }
+
+    /**
+     * Records the execution time of the packet processor.
+     *
+     * @param nanos execution time in nanoseconds
+     */
+    public void recordProcessTime(long nanos) {
+        processLatency.record(nanos);
+    }
+
+    /**
+     * Counts a packet-in whose log record has been suppressed.
+     *
+     * @param verdict verdict returned by {@link LogRateLimiter#admit}
+     */
+    public void countSuppressed(int verdict) {
+        if (verdict == LogRateLimiter.SAMPLED_OUT) {
+            sampledOut.increment();
+        } else if (verdict == LogRateLimiter.RATE_LIMITED) {
+            rateLimited.increment();
+        }
+    }
+
+    /**
+     * Returns the number of log records skipped by sampling.
+     *
+     * @return sampled out record count
+     */
+    public long sampledOut() {
+        return sampledOut.sum();
+    }
+
+    /**
+     * Returns the number of log records skipped by rate limiting.
+     *
+     * @return rate limited record count
+     */
+    public long rateLimited() {
+        return rateLimited.sum();
+    }
+
+    /**
+     * Returns the histogram of the packet processor execution time.
+     *
+     * @return execution time histogram
+     */
+    public LatencyHistogram processLatency() {
+        return processLatency;
+    }
+
+    /**
+     * Returns a snapshot of the counters, sorted by device, port and ethertype.
+     *
+     * @param deviceId device to restrict the snapshot to, null for all devices
+     * @return counter entries
+     */
+    public List<Entry> entries(DeviceId deviceId) {
+        List<Entry> entries = new ArrayList<>();
+        counters.forEach((device, deviceCounters) -> {
+            if (deviceId == null || deviceId.equals(device)) {
+                for (Counter counter : deviceCounters.counters()) {
+                    entries.add(new Entry(device, counter.key >>> 16, (short) counter.key,
+                                          counter.packets.sum(), counter.rate));
+                }
+            }
+        });
+        entries.sort(Comparator.comparing((Entry e) -> e.deviceId().toString())
+                             .thenComparingLong(Entry::port)
+                             .thenComparingInt(Entry::ethType));
+        return entries;
+    }
+
+    /**
+     * Returns the time the metrics were last reset.
+     *
+     * @return reset time in milliseconds since the epoch
+     */
+    public long resetTime() {
+        return resetTime;
+    }
+
+    /**
+     * Clears all counters and the execution time histogram.
+     */
+    public void reset() {
+        counters.clear();
+        processLatency.reset();
+        sampledOut.reset();
+        rateLimited.reset();
+        resetTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Encodes a snapshot of the metrics as JSON.
+     *
+     * @param mapper   object mapper
+     * @param deviceId device to restrict the snapshot to, null for all devices
+     * @return JSON node
+     */
+    public ObjectNode toJson(ObjectMapper mapper, DeviceId deviceId) {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("since", resetTime);
+
+        ObjectNode latency = root.putObject("processLatencyNanos");
+        latency.put("count", processLatency.count());
+        latency.put("mean", processLatency.mean());
+        latency.put("p50", processLatency.quantile(0.50));
+        latency.put("p90", processLatency.quantile(0.90));
+        latency.put("p99", processLatency.quantile(0.99));
+        latency.put("p999", processLatency.quantile(0.999));
+        latency.put("max", processLatency.max());
+
+        ObjectNode suppressed = root.putObject("suppressedLogRecords");
+        suppressed.put("sampledOut", sampledOut.sum());
+        suppressed.put("rateLimited", rateLimited.sum());
+
+        ArrayNode array = root.putArray("counters");
+        for (Entry entry : entries(deviceId)) {
+            array.addObject()
+                    .put("device", entry.deviceId().toString())
+                    .put("port", entry.port())
+                    .put("ethType", String.format("0x%04x", entry.ethType()))
+                    .put("packets", entry.packets())
+                    .put("rate", entry.rate());
+        }
+        return root;
+    }
+
+    private void updateRates() {
+        for (DeviceCounters device : counters.values()) {
+            for (Counter counter : device.counters()) {
+                long packets = counter.packets.sum();
+                counter.rate = (double) (packets - counter.lastPackets) / RATE_PERIOD_SECONDS;
+                counter.lastPackets = packets;
+            }
+        }
+    }
+
+    // OpenFlow port numbers take 32 bits, which leaves room for the ethertype.
+    private static long key(long port, short ethType) {
+        return port << 16 | (ethType & 0xffff);
+    }
+
+    /**
+     * Snapshot of a single counter.
+     */
+    public static final class Entry {
+        private final DeviceId deviceId;
+        private final long port;
+        private final int ethType;
+        private final long packets;
+        private final double rate;
+
+        private Entry(DeviceId deviceId, long port, short ethType, long packets, double rate) {
+            this.deviceId = deviceId;
+            this.port = port;
+            this.ethType = ethType & 0xffff;
+            this.packets = packets;
+            this.rate = rate;
+        }
+
+        public DeviceId deviceId() {
+            return deviceId;
+        }
+
+        public long port() {
+            return port;
+        }
+
+        public int ethType() {
+            return ethType;
+        }
+
+        public long packets() {
+            return packets;
+        }
+
+        public double rate() {
+            return rate;
+        }
+    }
+
+    private static final class Counter {
+        private final long key;
+        private final LongAdder packets = new LongAdder();
+        private long lastPackets;
+        private volatile double rate;
+
+        private Counter(long key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Counters of a device. Lookups probe the table without locking; a
+     * missing counter is added under the lock, growing the table into a new
+     * one so that concurrent lookups always see a consistent table.
+     */
+    private static final class DeviceCounters {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private volatile AtomicReferenceArray<Counter> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+        private int size;
+
+        private Counter counter(long key) {
+            AtomicReferenceArray<Counter> t = table;
+            int mask = t.length() - 1;
+            for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+                Counter counter = t.get(i);
+                if (counter == null) {
+                    return add(key);
+                }
+                if (counter.key == key) {
+                    return counter;
+                }
+            }
+        }
+
+        private synchronized Counter add(long key) {
+            AtomicReferenceArray<Counter> t = table;
+            int mask = t.length() - 1;
+            int i = slot(key, mask);
+            for (Counter counter = t.get(i); counter != null; counter = t.get(i)) {
+                if (counter.key == key) {
+                    return counter;
+                }
+                i = (i + 1) & mask;
+            }
+
+            Counter counter = new Counter(key);
+            if (2 * (size + 1) > t.length()) {
+                // keep the table at most half full, so that probes stay short
+                AtomicReferenceArray<Counter> grown = new AtomicReferenceArray<>(2 * t.length());
+                for (Counter c : counters()) {
+                    place(grown, c);
+                }
+                place(grown, counter);
+                table = grown;
+            } else {
+                t.set(i, counter);
+            }
+            size++;
+            return counter;
+        }
+
+        private List<Counter> counters() {
+            AtomicReferenceArray<Counter> t = table;
+            List<Counter> list = new ArrayList<>();
+            for (int i = 0; i < t.length(); i++) {
+                Counter counter = t.get(i);
+                if (counter != null) {
+                    list.add(counter);
+                }
+            }
+            return list;
+        }
+
+        private static void place(AtomicReferenceArray<Counter> t, Counter counter) {
+            int mask = t.length() - 1;
+            int i = slot(counter.key, mask);
+            while (t.get(i) != null) {
+                i = (i + 1) & mask;
+            }
+            t.set(i, counter);
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9e3779b97f4a7c15L;
+            return (int) (h >>> 32) & mask;
+        }
+    }
+}
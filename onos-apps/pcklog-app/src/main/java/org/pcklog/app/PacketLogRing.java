@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.onosproject.net.DeviceId;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Preallocated, lock-free ring of packet-in records.
+ *
+ * Any number of packet-dispatch threads may offer records, a single writer
+ * thread drains them. Each record only holds the fixed fields of the packet,
+ * so offering a record never allocates. When the ring is full the record is
+ * dropped and counted.
+ */
+public final class PacketLogRing {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private long head;
+
+    private final DeviceId[] devices;
+    private final long[] ports;
+    private final short[] ethTypes;
+    private final long[] srcMacs;
+    private final long[] dstMacs;
+    private final long[] timestamps;
+
+    /**
+     * Creates a ring able to hold the given number of records.
+     *
+     * @param capacity requested capacity, rounded up to a power of two
+     */
+    public PacketLogRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        devices = new DeviceId[size];
+        ports = new long[size];
+        ethTypes = new short[size];
+        srcMacs = new long[size];
+        dstMacs = new long[size];
+        timestamps = new long[size];
+    }
+
+    /**
+     * Offers a record to the ring; safe to call from any thread.
+     *
+     * @param deviceId  device that received the packet
+     * @param port      port that received the packet
+     * @param ethType   ethernet type of the packet
+     * @param srcMac    source MAC address as a long
+     * @param dstMac    destination MAC address as a long
+     * @param timestamp time the packet was received
+     * @return false if the ring was full and the record has been dropped
+     */
+    public boolean offer(DeviceId deviceId, long port, short ethType,
+                         long srcMac, long dstMac, long timestamp) {
+        long pos;
+        int idx;
+        for (;;) {
+            pos = tail.get();
+            idx = (int) pos & mask;
+            long diff = sequences.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+            } else if (diff < 0) {
+                dropped.increment();
+                return false;
+            }
+        }
+
+        devices[idx] = deviceId;
+        ports[idx] = port;
+        ethTypes[idx] = ethType;
+        srcMacs[idx] = srcMac;
+        dstMacs[idx] = dstMac;
+        timestamps[idx] = timestamp;
+        // a full write, so that the writer cannot miss the record and park
+        sequences.set(idx, pos + 1);
+        return true;
+    }
+
+    /**
+     * Hands the oldest record to the consumer and releases its slot.
+     * Must only be called by the single writer thread.
+     *
+     * @param consumer record consumer
+     * @return false if the ring was empty
+     */
+    public boolean poll(RecordConsumer consumer) {
+        int idx = (int) head & mask;
+        if (sequences.get(idx) != head + 1) {
+            return false;
+        }
+
+        consumer.accept(devices[idx], ports[idx], ethTypes[idx],
+                        srcMacs[idx], dstMacs[idx], timestamps[idx]);
+        devices[idx] = null;
+        sequences.lazySet(idx, head + mask + 1);
+        head++;
+        return true;
+    }
+
+    /**
+     * Returns the number of records dropped because the ring was full.
+     *
+     * @return dropped record count
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of slots of the ring.
+     *
+     * @return ring capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Receives the fields of a drained record.
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(DeviceId deviceId, long port, short ethType,
+                    long srcMac, long dstMac, long timestamp);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.karaf.shell.api.action.Argument;
+import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.Completion;
+import org.apache.karaf.shell.api.action.Option;
+import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.cli.net.DeviceIdCompleter;
+import org.onosproject.net.DeviceId;
+
+/**
+ * Lists the packet-in counters and the packet processor execution time.
+ */
+@Service
+@Command(scope = "onos", name = "pcklog-packet-stats",
+         description = "This command lists the packet-in counters per device, port and ethertype")
+public class PacketStatsCommand extends AbstractShellCommand {
+
+    @Argument(index = 0, name = "device", description = "specific device",
+            required = false, multiValued = false)
+    @Completion(DeviceIdCompleter.class)
+    String deviceString = null;
+
+    @Option(name = "-r", aliases = "--reset", description = "Reset the counters after listing them",
+            required = false, multiValued = false)
+    boolean reset = false;
+
+    @Override
+    protected void doExecute() {
+
+        PacketInMetrics metrics = get(PacketInMetrics.class);
+        HostLocationCache hostCache = get(HostLocationCache.class);
+
+        DeviceId device = deviceString == null ? null : DeviceId.deviceId(deviceString);
+
+        if (outputJson()) {
+            ObjectNode root = metrics.toJson(mapper(), device);
+            root.putObject("hostCache")
+                    .put("hosts", hostCache.size())
+                    .put("hits", hostCache.hits())
+                    .put("misses", hostCache.misses());
+            print("%s", root);
+        } else {
+            LatencyHistogram latency = metrics.processLatency();
+            print("Packet processor: %d packets, mean %.0f ns, p50 %d ns, p99 %d ns, max %d ns",
+                  latency.count(), latency.mean(), latency.quantile(0.50),
+                  latency.quantile(0.99), latency.max());
+            print("Suppressed log records: %d sampled out, %d rate limited",
+                  metrics.sampledOut(), metrics.rateLimited());
+            print("Host cache: %d hosts, %d hits, %d misses",
+                  hostCache.size(), hostCache.hits(), hostCache.misses());
+
+            for (PacketInMetrics.Entry entry : metrics.entries(device)) {
+                print("Device %s port %d ETH_TYPE 0x%04x: %d packets, %.1f packets/s",
+                      entry.deviceId(), entry.port(), entry.ethType(),
+                      entry.packets(), entry.rate());
+            }
+        }
+
+        if (reset) {
+            metrics.reset();
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.onosproject.net.ConnectPoint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes Ethernet frames to a single pcapng file.
+ *
+ * Every receive point gets its own interface description block, named after
+ * the connect point, so Wireshark shows where each frame entered the network.
+ * Blocks are assembled in a large direct buffer and written to the channel
+ * only when the buffer fills up or when the writer is flushed.
+ */
+public class PcapngWriter implements AutoCloseable {
+
+    private static final int SECTION_HEADER_BLOCK = 0x0A0D0D0A;
+    private static final int INTERFACE_DESCRIPTION_BLOCK = 0x00000001;
+    private static final int ENHANCED_PACKET_BLOCK = 0x00000006;
+    private static final int BYTE_ORDER_MAGIC = 0x1A2B3C4D;
+    private static final short LINKTYPE_ETHERNET = 1;
+    private static final short OPT_END = 0;
+    private static final short OPT_IF_NAME = 2;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int snapLength;
+    private final Map<ConnectPoint, Integer> interfaces = new HashMap<>();
+    private long size;
+
+    /**
+     * Creates a new pcapng file and writes its section header.
+     *
+     * @param file       file to create
+     * @param snapLength maximum number of bytes captured per frame
+     * @param bufferSize size of the direct write buffer
+     * @throws IOException if the file cannot be created
+     */
+    public PcapngWriter(Path file, int snapLength, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+        this.snapLength = snapLength;
+
+        ensureCapacity(28);
+        buffer.putInt(SECTION_HEADER_BLOCK);
+        buffer.putInt(28);
+        buffer.putInt(BYTE_ORDER_MAGIC);
+        buffer.putShort((short) 1);
+        buffer.putShort((short) 0);
+        buffer.putLong(-1L);
+        buffer.putInt(28);
+        size += 28;
+    }
+
+    /**
+     * Appends a frame.
+     *
+     * @param receivedFrom   connect point the frame was received from
+     * @param timestampMicros receive time in microseconds since the epoch
+     * @param data           captured bytes, at most the snap length
+     * @param length         number of valid bytes in data
+     * @param originalLength length of the frame on the wire
+     * @throws IOException if the buffer cannot be flushed
+     */
+    public void write(ConnectPoint receivedFrom, long timestampMicros,
+                      byte[] data, int length, int originalLength) throws IOException {
+        int interfaceId = interfaceId(receivedFrom);
+        int captured = Math.min(length, snapLength);
+        int blockLength = 32 + pad(captured);
+
+        ensureCapacity(blockLength);
+        buffer.putInt(ENHANCED_PACKET_BLOCK);
+        buffer.putInt(blockLength);
+        buffer.putInt(interfaceId);
+        buffer.putInt((int) (timestampMicros >>> 32));
+        buffer.putInt((int) timestampMicros);
+        buffer.putInt(captured);
+        buffer.putInt(originalLength);
+        buffer.put(data, 0, captured);
+        padBuffer(captured);
+        buffer.putInt(blockLength);
+        size += blockLength;
+    }
+
+    /**
+     * Writes the buffered blocks to the file.
+     *
+     * @param force whether to also force the content to the storage device
+     * @throws IOException if the file cannot be written
+     */
+    public void flush(boolean force) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        if (force) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Returns the number of bytes written to this file, buffered ones included.
+     *
+     * @return file size in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private int interfaceId(ConnectPoint receivedFrom) throws IOException {
+        Integer id = interfaces.get(receivedFrom);
+        if (id != null) {
+            return id;
+        }
+
+        byte[] name = receivedFrom.toString().getBytes(StandardCharsets.UTF_8);
+        int blockLength = 16 + 4 + pad(name.length) + 4 + 4;
+
+        ensureCapacity(blockLength);
+        buffer.putInt(INTERFACE_DESCRIPTION_BLOCK);
+        buffer.putInt(blockLength);
+        buffer.putShort(LINKTYPE_ETHERNET);
+        buffer.putShort((short) 0);
+        buffer.putInt(snapLength);
+        buffer.putShort(OPT_IF_NAME);
+        buffer.putShort((short) name.length);
+        buffer.put(name);
+        padBuffer(name.length);
+        buffer.putShort(OPT_END);
+        buffer.putShort((short) 0);
+        buffer.putInt(blockLength);
+        size += blockLength;
+
+        id = interfaces.size();
+        interfaces.put(receivedFrom, id);
+        return id;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(false);
+        }
+        if (buffer.remaining() < bytes) {
+            throw new IOException("Block of " + bytes + " bytes does not fit the write buffer");
+        }
+    }
+
+    private void padBuffer(int length) {
+        for (int i = length; i < pad(length); i++) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    private static int pad(int length) {
+        return (length + 3) & ~3;
+    }
+}
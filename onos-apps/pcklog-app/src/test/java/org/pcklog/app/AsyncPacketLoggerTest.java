@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.MacAddress;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.slf4j.Logger;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the asynchronous packet logger.
+ */
+public class AsyncPacketLoggerTest {
+
+    private static final ConnectPoint CP =
+            new ConnectPoint(DeviceId.deviceId("of:0000000000000001"), PortNumber.portNumber(1));
+
+    // one permit per line logged at info level
+    private final Semaphore lines = new Semaphore(0);
+
+    private AsyncPacketLogger logger;
+
+    @Before
+    public void setUp() {
+        Logger log = (Logger) Proxy.newProxyInstance(
+                Logger.class.getClassLoader(), new Class<?>[]{Logger.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("info")) {
+                        lines.release();
+                    }
+                    return method.getReturnType() == boolean.class ? false : null;
+                });
+        logger = new AsyncPacketLogger(log, null, 64);
+        logger.start();
+    }
+
+    @After
+    public void tearDown() {
+        logger.stop();
+    }
+
+    @Test
+    public void recordsAreWrittenByTheWriter() throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            logger.record(CP, arp(), System.nanoTime());
+        }
+
+        assertTrue(lines.tryAcquire(10, 5, TimeUnit.SECONDS));
+        assertEquals(0, logger.dropped());
+    }
+
+    @Test
+    public void parkedWriterIsWokenByTheNextRecord() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            logger.record(CP, arp(), System.nanoTime());
+            assertTrue(lines.tryAcquire(1, 5, TimeUnit.SECONDS));
+            // let the writer find the ring empty and park
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void stopDrainsThePendingRecords() throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            logger.record(CP, arp(), System.nanoTime());
+        }
+        logger.stop();
+
+        assertEquals(50 - logger.dropped(), lines.availablePermits());
+    }
+
+    private static Ethernet arp() {
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(Ethernet.TYPE_ARP);
+        eth.setSourceMACAddress(MacAddress.valueOf(1L));
+        eth.setDestinationMACAddress(MacAddress.BROADCAST);
+        return eth;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.MacAddress;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.slf4j.Logger;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the flow aggregator, mostly of the expiry of colliding flows.
+ */
+public class FlowAggregatorTest {
+
+    private static final ConnectPoint CP =
+            new ConnectPoint(DeviceId.deviceId("of:0000000000000001"), PortNumber.portNumber(1));
+    private static final long DST = 0xffL;
+    private static final int LAST_SLOT = FlowAggregator.INITIAL_CAPACITY - 1;
+
+    // packets of each exported flow, by source MAC
+    private final Map<MacAddress, Long> exported = new HashMap<>();
+
+    private FlowAggregator aggregator;
+    private long nextMac = 1;
+
+    @Before
+    public void setUp() {
+        Logger log = (Logger) Proxy.newProxyInstance(
+                Logger.class.getClassLoader(), new Class<?>[]{Logger.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("info") && args.length == 2) {
+                        Object[] fields = (Object[]) args[1];
+                        exported.put((MacAddress) fields[0], (Long) fields[5]);
+                    }
+                    return method.getReturnType() == boolean.class ? false : null;
+                });
+        aggregator = new FlowAggregator(log, 60);
+    }
+
+    @Test
+    public void idleFlowsAreExported() {
+        long old = macHomeAt(3);
+        long fresh = macHomeAt(7);
+        aggregator.add(old, DST, CP, 100, 0);
+        aggregator.add(old, DST, CP, 100, 0);
+        aggregator.add(fresh, DST, CP, 100, Long.MAX_VALUE);
+
+        aggregator.expire(false);
+
+        assertEquals(1, aggregator.exportedFlows());
+        assertEquals(Long.valueOf(2), exported.get(MacAddress.valueOf(old)));
+        assertEquals(1, aggregator.activeFlows());
+    }
+
+    @Test
+    public void collidingFlowsStayReachableAfterAnExpiry() {
+        // three flows sharing a home slot, the first one idle
+        long idle = macHomeAt(10);
+        long second = macHomeAt(10);
+        long third = macHomeAt(10);
+        // a flow whose home is taken by the collision chain
+        long pushed = macHomeAt(11);
+        aggregator.add(idle, DST, CP, 1, 0);
+        aggregator.add(second, DST, CP, 1, Long.MAX_VALUE);
+        aggregator.add(third, DST, CP, 1, Long.MAX_VALUE);
+        aggregator.add(pushed, DST, CP, 1, Long.MAX_VALUE);
+
+        aggregator.expire(false);
+        assertEquals(3, aggregator.activeFlows());
+
+        assertStillAggregated(second, third, pushed);
+    }
+
+    @Test
+    public void wrappedAroundFlowsStayReachableAfterAnExpiry() {
+        // a chain starting at the last slot wraps around to the first ones
+        long idleLast = macHomeAt(LAST_SLOT);
+        long idleWrapped = macHomeAt(LAST_SLOT);
+        long kept = macHomeAt(LAST_SLOT);
+        long homeFirst = macHomeAt(0);
+        long homeSecond = macHomeAt(1);
+        aggregator.add(idleLast, DST, CP, 1, 0);
+        aggregator.add(idleWrapped, DST, CP, 1, 0);
+        aggregator.add(kept, DST, CP, 1, Long.MAX_VALUE);
+        aggregator.add(homeFirst, DST, CP, 1, Long.MAX_VALUE);
+        aggregator.add(homeSecond, DST, CP, 1, Long.MAX_VALUE);
+
+        aggregator.expire(false);
+        assertEquals(2, aggregator.exportedFlows());
+        assertEquals(3, aggregator.activeFlows());
+
+        assertStillAggregated(kept, homeFirst, homeSecond);
+    }
+
+    @Test
+    public void stopExportsEveryFlow() {
+        for (int i = 0; i < 1000; i++) {
+            aggregator.add(i, DST, CP, 1, Long.MAX_VALUE);
+        }
+        assertEquals(1000, aggregator.activeFlows());
+
+        aggregator.stop();
+
+        assertEquals(1000, aggregator.exportedFlows());
+        assertEquals(0, aggregator.activeFlows());
+    }
+
+    // A second packet of each flow must find its record rather than start a new one.
+    private void assertStillAggregated(long... macs) {
+        int active = aggregator.activeFlows();
+        for (long mac : macs) {
+            aggregator.add(mac, DST, CP, 1, Long.MAX_VALUE);
+        }
+        assertEquals(active, aggregator.activeFlows());
+
+        aggregator.expire(true);
+        for (long mac : macs) {
+            assertEquals(Long.valueOf(2), exported.get(MacAddress.valueOf(mac)));
+        }
+    }
+
+    // Next source MAC whose flow falls in the first stripe, with the given home slot.
+    private long macHomeAt(int slot) {
+        for (;;) {
+            long mac = nextMac++;
+            int hash = FlowAggregator.hash(mac, DST, CP);
+            if ((hash & (FlowAggregator.STRIPES - 1)) == 0
+                    && ((hash >>> 4) & LAST_SLOT) == slot) {
+                return mac;
+            }
+        }
+    }
+}
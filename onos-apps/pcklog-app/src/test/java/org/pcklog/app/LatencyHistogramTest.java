@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the latency histogram.
+ */
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.mean(), 0);
+        assertEquals(0, histogram.quantile(0.99));
+        assertEquals(0, histogram.max());
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        for (int i = 0; i < 32; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(15, histogram.quantile(0.5));
+        assertEquals(0, histogram.quantile(0));
+        assertEquals(31, histogram.quantile(1));
+        assertEquals(15.5, histogram.mean(), 0);
+    }
+
+    @Test
+    public void percentilesOfAUniformRange() {
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(1000, histogram.count());
+        assertEquals(500.5, histogram.mean(), 0);
+        assertEquals(1000, histogram.max());
+        assertWithinOneSubBucket(500, histogram.quantile(0.50));
+        assertWithinOneSubBucket(990, histogram.quantile(0.99));
+        assertEquals(1000, histogram.quantile(1));
+    }
+
+    @Test
+    public void bucketBoundsHoldOverTheWholeRange() {
+        List<Long> values = new ArrayList<>();
+        for (long v = 32; v > 0 && v < Long.MAX_VALUE / 3; v = v * 3 + 1) {
+            values.add(v);
+            values.add(v + 1);
+            values.add(2 * v - 1);
+        }
+        for (long v : values) {
+            LatencyHistogram h = new LatencyHistogram();
+            h.record(v);
+            // a larger sample keeps the quantile from being capped at the maximum
+            h.record(Long.MAX_VALUE);
+            assertWithinOneSubBucket(v, h.quantile(0.5));
+        }
+    }
+
+    @Test
+    public void extremeValuesAreRecorded() {
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(2, histogram.count());
+        assertEquals(0, histogram.quantile(0.5));
+        assertEquals(Long.MAX_VALUE, histogram.quantile(1));
+    }
+
+    @Test
+    public void resetClearsEverything() {
+        histogram.record(100);
+        histogram.reset();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.quantile(0.5));
+    }
+
+    // The reported bound is at least the value and at most one sub-bucket, a sixteenth, above it.
+    private static void assertWithinOneSubBucket(long value, long reported) {
+        assertTrue(value + " reported as " + reported,
+                   reported >= value && reported <= value + value / 16);
+    }
+}
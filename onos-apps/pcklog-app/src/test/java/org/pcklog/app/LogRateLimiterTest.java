@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.junit.Test;
+import org.onlab.packet.Ethernet;
+import org.onosproject.net.DeviceId;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.pcklog.app.LogRateLimiter.ADMITTED;
+import static org.pcklog.app.LogRateLimiter.RATE_LIMITED;
+import static org.pcklog.app.LogRateLimiter.SAMPLED_OUT;
+
+/**
+ * Tests of the log rate limiter.
+ */
+public class LogRateLimiterTest {
+
+    private static final DeviceId S1 = DeviceId.deviceId("of:0000000000000001");
+    private static final DeviceId S2 = DeviceId.deviceId("of:0000000000000002");
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void noLimitLetsEverythingThrough() {
+        LogRateLimiter limiter = new LogRateLimiter(1, 0, 0);
+        assertTrue(limiter.isPassThrough());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ADMITTED, limiter.admit(S1, Ethernet.TYPE_ARP, 0));
+        }
+    }
+
+    @Test
+    public void oneInNIsSampled() {
+        LogRateLimiter limiter = new LogRateLimiter(3, 0, 0);
+        assertFalse(limiter.isPassThrough());
+        int[] expected = {ADMITTED, SAMPLED_OUT, SAMPLED_OUT, ADMITTED, SAMPLED_OUT, SAMPLED_OUT, ADMITTED};
+        for (int verdict : expected) {
+            assertEquals(verdict, limiter.admit(S1, Ethernet.TYPE_ARP, 0));
+        }
+    }
+
+    @Test
+    public void burstIsAdmittedAtOnceThenTheRate() {
+        // 10 records a second, bursts of 5
+        LogRateLimiter limiter = new LogRateLimiter(1, 10, 5);
+        long now = 1_000 * MILLIS;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(ADMITTED, limiter.admit(S1, Ethernet.TYPE_IPV4, now));
+        }
+        assertEquals(RATE_LIMITED, limiter.admit(S1, Ethernet.TYPE_IPV4, now));
+
+        // one record every 100 ms from then on
+        assertEquals(RATE_LIMITED, limiter.admit(S1, Ethernet.TYPE_IPV4, now + 99 * MILLIS));
+        assertEquals(ADMITTED, limiter.admit(S1, Ethernet.TYPE_IPV4, now + 100 * MILLIS));
+        assertEquals(RATE_LIMITED, limiter.admit(S1, Ethernet.TYPE_IPV4, now + 150 * MILLIS));
+        assertEquals(ADMITTED, limiter.admit(S1, Ethernet.TYPE_IPV4, now + 200 * MILLIS));
+    }
+
+    @Test
+    public void idleBucketRefillsUpToTheBurst() {
+        LogRateLimiter limiter = new LogRateLimiter(1, 10, 5);
+        long now = 1_000 * MILLIS;
+        for (int i = 0; i < 5; i++) {
+            limiter.admit(S1, Ethernet.TYPE_IPV4, now);
+        }
+
+        // a long pause refills the burst, not more
+        now += 10_000 * MILLIS;
+        int admitted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (limiter.admit(S1, Ethernet.TYPE_IPV4, now) == ADMITTED) {
+                admitted++;
+            }
+        }
+        assertEquals(5, admitted);
+
+        // half the interval refills nothing
+        assertEquals(RATE_LIMITED, limiter.admit(S1, Ethernet.TYPE_IPV4, now + 50 * MILLIS));
+    }
+
+    @Test
+    public void bucketsArePerDeviceAndEthertype() {
+        LogRateLimiter limiter = new LogRateLimiter(1, 1, 1);
+        assertEquals(ADMITTED, limiter.admit(S1, Ethernet.TYPE_IPV4, 0));
+        assertEquals(RATE_LIMITED, limiter.admit(S1, Ethernet.TYPE_IPV4, 0));
+        assertEquals(ADMITTED, limiter.admit(S1, Ethernet.TYPE_ARP, 0));
+        assertEquals(ADMITTED, limiter.admit(S2, Ethernet.TYPE_IPV4, 0));
+        assertEquals(ADMITTED, limiter.admit(S1, (short) 0x86dd, 0));
+    }
+
+    @Test
+    public void onlySampledPacketsUseTheBucket() {
+        LogRateLimiter limiter = new LogRateLimiter(2, 1, 1);
+        assertEquals(ADMITTED, limiter.admit(S1, Ethernet.TYPE_IPV4, 0));
+        assertEquals(SAMPLED_OUT, limiter.admit(S1, Ethernet.TYPE_IPV4, 0));
+        assertEquals(RATE_LIMITED, limiter.admit(S1, Ethernet.TYPE_IPV4, 0));
+        assertEquals(SAMPLED_OUT, limiter.admit(S1, Ethernet.TYPE_IPV4, 0));
+        assertEquals(ADMITTED, limiter.admit(S1, Ethernet.TYPE_IPV4, 1_000 * MILLIS));
+    }
+}
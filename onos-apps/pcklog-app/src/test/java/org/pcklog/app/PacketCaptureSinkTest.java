@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the packet capture sink.
+ */
+public class PacketCaptureSinkTest {
+
+    private static final ConnectPoint CP =
+            new ConnectPoint(DeviceId.deviceId("of:0000000000000001"), PortNumber.portNumber(1));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void framesAreWrittenToTheCaptureFile() throws IOException {
+        File directory = folder.newFolder("capture");
+        PacketCaptureSink sink = sink(directory);
+        sink.start();
+        for (int i = 0; i < 10; i++) {
+            sink.capture(CP, System.currentTimeMillis(), ByteBuffer.wrap(new byte[60]));
+        }
+        sink.stop();
+
+        assertEquals(10, sink.captured());
+        assertFalse(sink.failed());
+        File[] files = directory.listFiles();
+        assertEquals(1, files.length);
+        assertTrue(files[0].length() > 10 * 60);
+    }
+
+    @Test
+    public void failedCaptureDropsTheFollowingFrames() throws IOException, InterruptedException {
+        // a file where the directory should be, so the capture file cannot be created
+        File directory = folder.newFile("capture");
+        PacketCaptureSink sink = sink(directory);
+        sink.start();
+        sink.capture(CP, System.currentTimeMillis(), ByteBuffer.wrap(new byte[60]));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!sink.failed() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(sink.failed());
+
+        for (int i = 0; i < 5; i++) {
+            sink.capture(CP, System.currentTimeMillis(), ByteBuffer.wrap(new byte[60]));
+        }
+        sink.stop();
+
+        assertEquals(1, sink.captured());
+        assertEquals(5, sink.dropped());
+    }
+
+    private static PacketCaptureSink sink(File directory) {
+        return new PacketCaptureSink(LoggerFactory.getLogger(PacketCaptureSinkTest.class),
+                                     directory.getPath(), 128, 0, 0, 16);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the packet log ring.
+ */
+public class PacketLogRingTest {
+
+    private static final DeviceId S1 = DeviceId.deviceId("of:0000000000000001");
+
+    @Test
+    public void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new PacketLogRing(5).capacity());
+        assertEquals(8, new PacketLogRing(8).capacity());
+        assertEquals(4, new PacketLogRing(3).capacity());
+    }
+
+    @Test
+    public void recordsComeOutWithTheirFields() {
+        PacketLogRing ring = new PacketLogRing(4);
+        assertTrue(ring.offer(S1, 3, (short) 0x0800, 0x0a, 0x0b, 42));
+
+        assertTrue(ring.poll((deviceId, port, ethType, srcMac, dstMac, timestamp) -> {
+            assertSame(S1, deviceId);
+            assertEquals(3, port);
+            assertEquals((short) 0x0800, ethType);
+            assertEquals(0x0a, srcMac);
+            assertEquals(0x0b, dstMac);
+            assertEquals(42, timestamp);
+        }));
+        assertFalse(ring.poll((deviceId, port, ethType, srcMac, dstMac, timestamp) -> { }));
+    }
+
+    @Test
+    public void fullRingDropsUntilASlotIsReleased() {
+        PacketLogRing ring = new PacketLogRing(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(S1, i, (short) 0, 0, 0, i));
+        }
+        assertFalse(ring.offer(S1, 4, (short) 0, 0, 0, 4));
+        assertFalse(ring.offer(S1, 5, (short) 0, 0, 0, 5));
+        assertEquals(2, ring.dropped());
+
+        List<Long> drained = new ArrayList<>();
+        assertTrue(ring.poll((deviceId, port, ethType, srcMac, dstMac, timestamp) -> drained.add(timestamp)));
+        assertTrue(ring.offer(S1, 6, (short) 0, 0, 0, 6));
+        while (ring.poll((deviceId, port, ethType, srcMac, dstMac, timestamp) -> drained.add(timestamp))) {
+            // drain
+        }
+
+        assertEquals(5, drained.size());
+        assertEquals(Long.valueOf(6), drained.get(4));
+        assertEquals(2, ring.dropped());
+    }
+
+    @Test
+    public void slotsAreReusedAcrossManyLaps() {
+        PacketLogRing ring = new PacketLogRing(4);
+        long[] next = new long[1];
+        for (long i = 0; i < 1000; i++) {
+            assertTrue(ring.offer(S1, 1, (short) 0, 0, 0, i));
+            if (i % 3 == 2) {
+                while (ring.poll((deviceId, port, ethType, srcMac, dstMac, timestamp) -> {
+                    assertEquals(next[0]++, timestamp);
+                })) {
+                    // drain
+                }
+            }
+        }
+        while (ring.poll((deviceId, port, ethType, srcMac, dstMac, timestamp) -> {
+            assertEquals(next[0]++, timestamp);
+        })) {
+            // drain
+        }
+        assertEquals(1000, next[0]);
+        assertEquals(0, ring.dropped());
+    }
+
+    @Test
+    public void concurrentProducersLoseNoRecord() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        PacketLogRing ring = new PacketLogRing(256);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    ring.offer(S1, producer, (short) 0, 0, 0, i);
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+
+        // per producer, the records drained must be in offer order
+        long[] last = new long[producers];
+        Arrays.fill(last, -1);
+        long[] drained = new long[1];
+        start.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        boolean alive = true;
+        while (alive && System.nanoTime() < deadline) {
+            alive = false;
+            for (Thread t : threads) {
+                alive |= t.isAlive();
+            }
+            while (ring.poll((deviceId, port, ethType, srcMac, dstMac, timestamp) -> {
+                assertTrue(timestamp > last[(int) port]);
+                last[(int) port] = timestamp;
+                drained[0]++;
+            })) {
+                // drain
+            }
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertEquals((long) producers * perProducer, drained[0] + ring.dropped());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.pcklog.app;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests of the pcapng writer, at the byte level.
+ */
+public class PcapngWriterTest {
+
+    private static final DeviceId S1 = DeviceId.deviceId("of:0000000000000001");
+    private static final ConnectPoint CP1 = new ConnectPoint(S1, PortNumber.portNumber(1));
+    private static final ConnectPoint CP2 = new ConnectPoint(S1, PortNumber.portNumber(2));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sectionHeaderOpensTheFile() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("shb.pcapng");
+        new PcapngWriter(file, 128, 4096).close();
+
+        ByteBuffer bytes = read(file);
+        assertEquals(28, bytes.limit());
+        assertEquals(0x0A0D0D0A, bytes.getInt(0));
+        assertEquals(28, bytes.getInt(4));
+        assertEquals(0x1A2B3C4D, bytes.getInt(8));
+        assertEquals(1, bytes.getShort(12));
+        assertEquals(0, bytes.getShort(14));
+        assertEquals(-1L, bytes.getLong(16));
+        assertEquals(28, bytes.getInt(24));
+    }
+
+    @Test
+    public void framesFollowTheInterfaceOfTheirPort() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("frames.pcapng");
+        byte[] frame = new byte[]{1, 2, 3, 4, 5};
+        long micros = 0x0000000123456789L;
+        try (PcapngWriter writer = new PcapngWriter(file, 128, 4096)) {
+            writer.write(CP1, micros, frame, frame.length, 60);
+            writer.write(CP1, micros, frame, frame.length, 60);
+            writer.write(CP2, micros, frame, frame.length, 60);
+        }
+
+        ByteBuffer bytes = read(file);
+        int offset = 28;
+        offset = interfaceBlock(bytes, offset, CP1);
+        offset = packetBlock(bytes, offset, 0, micros, frame, 60);
+        offset = packetBlock(bytes, offset, 0, micros, frame, 60);
+        offset = interfaceBlock(bytes, offset, CP2);
+        offset = packetBlock(bytes, offset, 1, micros, frame, 60);
+        assertEquals(bytes.limit(), offset);
+    }
+
+    @Test
+    public void framesAreCutToTheSnapLength() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("snap.pcapng");
+        byte[] frame = new byte[100];
+        try (PcapngWriter writer = new PcapngWriter(file, 10, 4096)) {
+            writer.write(CP1, 1, frame, frame.length, 1500);
+        }
+
+        ByteBuffer bytes = read(file);
+        int epb = interfaceBlock(bytes, 28, CP1);
+        assertEquals(10, bytes.getInt(epb + 20));
+        assertEquals(1500, bytes.getInt(epb + 24));
+        assertEquals(32 + 12, bytes.getInt(epb + 4));
+    }
+
+    @Test
+    public void fullBufferIsWrittenOut() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("flush.pcapng");
+        byte[] frame = new byte[64];
+        try (PcapngWriter writer = new PcapngWriter(file, 64, 256)) {
+            for (int i = 0; i < 20; i++) {
+                writer.write(CP1, i, frame, frame.length, frame.length);
+            }
+            assertFalse(Files.size(file) == 0);
+            assertEquals(28 + interfaceLength(CP1) + 20 * (32 + 64), writer.size());
+        }
+        assertEquals(28 + interfaceLength(CP1) + 20 * (32 + 64), Files.size(file));
+    }
+
+    private static ByteBuffer read(Path file) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int interfaceLength(ConnectPoint cp) {
+        return 28 + pad(cp.toString().length());
+    }
+
+    // Checks an interface description block, returns the offset of the next block.
+    private static int interfaceBlock(ByteBuffer bytes, int offset, ConnectPoint cp) {
+        byte[] name = cp.toString().getBytes(StandardCharsets.UTF_8);
+        int length = interfaceLength(cp);
+        assertEquals(1, bytes.getInt(offset));
+        assertEquals(length, bytes.getInt(offset + 4));
+        assertEquals(1, bytes.getShort(offset + 8));
+        assertEquals(2, bytes.getShort(offset + 16));
+        assertEquals(name.length, bytes.getShort(offset + 18));
+        byte[] written = new byte[name.length];
+        ((ByteBuffer) bytes.duplicate().position(offset + 20)).get(written);
+        assertEquals(cp.toString(), new String(written, StandardCharsets.UTF_8));
+        assertEquals(0, bytes.getInt(offset + 20 + pad(name.length)));
+        assertEquals(length, bytes.getInt(offset + length - 4));
+        return offset + length;
+    }
+
+    // Checks an enhanced packet block, returns the offset of the next block.
+    private static int packetBlock(ByteBuffer bytes, int offset, int interfaceId, long micros,
+                                   byte[] frame, int originalLength) {
+        int length = 32 + pad(frame.length);
+        assertEquals(6, bytes.getInt(offset));
+        assertEquals(length, bytes.getInt(offset + 4));
+        assertEquals(interfaceId, bytes.getInt(offset + 8));
+        assertEquals((int) (micros >>> 32), bytes.getInt(offset + 12));
+        assertEquals((int) micros, bytes.getInt(offset + 16));
+        assertEquals(frame.length, bytes.getInt(offset + 20));
+        assertEquals(originalLength, bytes.getInt(offset + 24));
+        for (int i = 0; i < pad(frame.length); i++) {
+            assertEquals(i < frame.length ? frame[i] : 0, bytes.get(offset + 28 + i));
+        }
+        assertEquals(length, bytes.getInt(offset + length - 4));
+        return offset + length;
+    }
+
+    private static int pad(int length) {
+        return (length + 3) & ~3;
+    }
+}
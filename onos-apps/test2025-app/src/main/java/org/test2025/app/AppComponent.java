@@ -16,24 +16,38 @@
 package org.test2025.app;
 
 import org.onlab.packet.Ethernet;
-import org.onlab.packet.VlanId;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
 import org.onosproject.net.*;
 import org.onosproject.net.flow.*;
+import org.onosproject.net.host.HostEvent;
+import org.onosproject.net.host.HostListener;
 import org.onosproject.net.host.HostService;
 import org.onosproject.net.packet.*;
+import org.onosproject.net.topology.TopologyEvent;
+import org.onosproject.net.topology.TopologyListener;
 import org.onosproject.net.topology.TopologyService;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Set;
+import java.util.Dictionary;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.get;
+import static org.test2025.app.OsgiPropertyConstants.*;
 
 /**
  * Skeletal ONOS application component.
  */
-@Component(immediate = true)
+@Component(
+        immediate = true,
+        property = {
+                PROACTIVE_TUNNELS + ":Boolean=" + PROACTIVE_TUNNELS_DEFAULT,
+        }
+)
 public class AppComponent {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
@@ -55,16 +69,61 @@ public class AppComponent {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected CoreService coreService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected HostLocationCache hostCache;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PathCache pathCache;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PathSelector pathSelector;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected VlanPool vlanPool;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected FlowRuleBatcher ruleBatcher;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PendingFlowTable pendingFlows;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
+    /** Install the tunnels between all hosts ahead of their traffic. */
+    private boolean proactiveTunnels = PROACTIVE_TUNNELS_DEFAULT;
+
     private MyProcessor processor = new MyProcessor();
 
+    private VlanTunnelEngine tunnelEngine;
+
+    private volatile ProactiveTunnels proactive;
+
+    private final InternalFlowRuleListener flowRuleListener = new InternalFlowRuleListener();
+
+    private final InternalHostListener hostListener = new InternalHostListener();
+
+    private final InternalTopologyListener topologyListener = new InternalTopologyListener();
+
     @Activate
-    protected void activate() {
+    protected void activate(ComponentContext context) {
 
         log.info("Started application TEST 2025");
-        packetService.addProcessor(processor, 10);
 
         appId = coreService.registerApplication("org.test2025.app");
 
+        //Rules are permanent, tunnels are torn down when their destination leaves
+        tunnelEngine = new VlanTunnelEngine(appId, flowruleService, ruleBatcher, packetService,
+                                            pathCache, pathSelector, vlanPool, pendingFlows, 0, log);
+
+        cfgService.registerProperties(getClass());
+        modified(context);
+
+        packetService.addProcessor(processor, 10);
+        flowruleService.addListener(flowRuleListener);
+        hostService.addListener(hostListener);
+        topologyService.addListener(topologyListener);
+
         requestIPV4();
     }
 
@@ -72,7 +131,94 @@ public class AppComponent {
     protected void deactivate() {
 
         log.info("Stopped application TEST 2025");
+        cfgService.unregisterProperties(getClass(), false);
         packetService.removeProcessor(processor);
+        flowruleService.removeListener(flowRuleListener);
+        hostService.removeListener(hostListener);
+        topologyService.removeListener(topologyListener);
+        setProactive(false);
+        tunnelEngine.stop();
+    }
+
+    @Modified
+    protected void modified(ComponentContext context) {
+        Dictionary<?, ?> properties = context != null ? context.getProperties() : null;
+        if (properties != null) {
+            String s = get(properties, PROACTIVE_TUNNELS);
+            proactiveTunnels = isNullOrEmpty(s) ? PROACTIVE_TUNNELS_DEFAULT : Boolean.parseBoolean(s.trim());
+        }
+        setProactive(proactiveTunnels);
+
+        log.info("Configured. Tunnels installed {}", proactiveTunnels ? "proactively" : "on the first packet");
+    }
+
+    private synchronized void setProactive(boolean enabled) {
+        if (enabled && proactive == null) {
+            proactive = new ProactiveTunnels(tunnelEngine, hostService, flowruleService, ruleBatcher, log);
+            proactive.start();
+        } else if (!enabled && proactive != null) {
+            // unpublished first, so that no resync is scheduled on a stopped installer
+            ProactiveTunnels stopped = proactive;
+            proactive = null;
+            stopped.stop();
+        }
+    }
+
+    /**
+     * Returns the proactive tunnel installer.
+     *
+     * @return installer, null when tunnels are installed on the first packet
+     */
+    public ProactiveTunnels proactiveTunnels() {
+        return proactive;
+    }
+
+    private void scheduleResync() {
+        ProactiveTunnels current = proactive;
+        if (current != null) {
+            current.schedule();
+        }
+    }
+
+    private class InternalFlowRuleListener implements FlowRuleListener {
+        @Override
+        public void event(FlowRuleEvent event) {
+            if (event.subject().appId() != appId.id()) {
+                return;
+            }
+            if (event.type() == FlowRuleEvent.Type.RULE_ADDED) {
+                tunnelEngine.added(event.subject());
+            } else if (event.type() == FlowRuleEvent.Type.RULE_REMOVED) {
+                tunnelEngine.reclaim(event.subject());
+            }
+        }
+    }
+
+    private class InternalHostListener implements HostListener {
+        @Override
+        public void event(HostEvent event) {
+            Host left = null;
+            if (event.type() == HostEvent.Type.HOST_REMOVED) {
+                left = event.subject();
+            } else if (event.type() == HostEvent.Type.HOST_MOVED) {
+                left = event.prevSubject();
+            }
+
+            if (left != null && hostService.getConnectedHosts(left.location()).isEmpty()) {
+                tunnelEngine.removeTunnel(left.location());
+            }
+
+            if (event.type() != HostEvent.Type.HOST_UPDATED) {
+                scheduleResync();
+            }
+        }
+    }
+
+    private class InternalTopologyListener implements TopologyListener {
+        @Override
+        public void event(TopologyEvent event) {
+            scheduleResync();
+        }
     }
 
     private class MyProcessor implements PacketProcessor {
@@ -93,19 +239,19 @@ public class AppComponent {
             if (ethPkt.getEtherType() == Ethernet.TYPE_IPV4) {
 
                 //Retrieving the source host
-                HostId srcHostId = HostId.hostId(ethPkt.getSourceMAC());
-                Host srcHost = hostService.getHost(srcHostId);
+                Host srcHost = hostCache.getHost(ethPkt.getSourceMAC());
 
                 if (srcHost == null) {
                     log.error("This SOURCE host is not known");
+                    return;
                 }
 
                 //Retrieving the source host
-                HostId dstHostId = HostId.hostId(ethPkt.getDestinationMAC());
-                Host dstHost = hostService.getHost(dstHostId);
+                Host dstHost = hostCache.getHost(ethPkt.getDestinationMAC());
 
                 if (dstHost == null) {
                     log.error("This DESTINATION host is not known");
+                    return;
                 }
 
                 log.info("[---PACKLOGGED---]: from {} ETH_TYPE: IPv4", context.inPacket().receivedFrom());
@@ -116,40 +262,11 @@ public class AppComponent {
                 if (srchostDeviceId.equals(pckInDeviceId)) {
 
                     log.warn("[---PACKLOGGED---]: NEW PACKET from host {} source MAC {} destination MAC {}",
-                            srcHostId,
+                            srcHost.id(),
                             srcHost.mac(),
                             dstHost.mac());
 
-                    /*Set<Path> paths = topologyService.getPaths(topologyService.currentTopology(), srcHost.location().deviceId(), dstHost.location().deviceId());
-                    if (paths == null) {
-                        log.error("[---PACKLOGGED---]: there are NOT paths");
-                    } else {
-                        log.warn("[---PACKLOGGED---]: there are {} candidated paths {}", paths.size(), paths);
-                    }*/
-
-                    TrafficSelector selector = DefaultTrafficSelector.builder()
-                            .matchInPort(pkt.receivedFrom().port())
-                            .matchEthSrc(srcHost.mac())
-                            .matchEthDst(dstHost.mac())
-                            .build();
-
-                    TrafficTreatment treatment = DefaultTrafficTreatment.builder()
-                            .pushVlan()
-                            .setVlanId(VlanId.vlanId("100"))
-                            .setOutput(PortNumber.portNumber("3")) //This is only valid for ping h21 -> h41
-                            .build();
-
-                    FlowRule flowRule = DefaultFlowRule.builder()
-                            .forDevice(srcHost.location().deviceId())
-                            .withSelector(selector)
-                            .withTreatment(treatment)
-                            .withPriority(20)
-                            .fromApp(appId)
-                            .forTable(0)
-                            .makePermanent()
-                            .build();
-
-                    flowruleService.applyFlowRules(flowRule);
+                    tunnelEngine.forward(context, srcHost, dstHost);
 
                     return;
                 }
@@ -158,32 +275,10 @@ public class AppComponent {
                 DeviceId dsthostDeviceId = dstHost.location().deviceId();
                 if (dsthostDeviceId.equals(pckInDeviceId)) {
                     log.warn("[---PACKLOGGED---]: LAST HOP to host {} is device {}",
-                            dstHostId,
+                            dstHost.id(),
                             pckInDeviceId);
 
-                    TrafficSelector selector = DefaultTrafficSelector.builder()
-                            .matchInPort(pkt.receivedFrom().port())
-                            .matchVlanId(VlanId.vlanId("100"))
-                            .matchEthSrc(srcHost.mac())
-                            .matchEthDst(dstHost.mac())
-                            .build();
-
-                    TrafficTreatment treatment = DefaultTrafficTreatment.builder()
-                            .popVlan()
-                            .setOutput(PortNumber.portNumber("1"))
-                            .build();
-
-                    FlowRule flowRule = DefaultFlowRule.builder()
-                            .forDevice(dstHost.location().deviceId())
-                            .withSelector(selector)
-                            .withTreatment(treatment)
-                            .withPriority(20)
-                            .fromApp(appId)
-                            .forTable(0)
-                            .makePermanent()
-                            .build();
-
-                    flowruleService.applyFlowRules(flowRule);
+                    tunnelEngine.deliver(context, dstHost);
 
                     return;
                 }
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.test2025.app;
+
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleOperations;
+import org.onosproject.net.flow.FlowRuleOperationsContext;
+import org.onosproject.net.flow.FlowRuleService;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Coalesces the flow rules of many packet-ins into batched
+ * {@link FlowRuleOperations}.
+ *
+ * Requests are queued until the batch holds enough rules or a short timer
+ * fires, then applied as a single operation. Within the batch the rules are
+ * grouped per device and duplicates, such as transit rules shared by several
+ * paths, are sent once. Each request has two stages: its ingress rules are
+ * pushed only once all its other rules are installed, so an edge switch never
+ * feeds traffic into a path that is not ready. The requester is notified when
+ * the whole batch is installed, or that it failed so that it can try again.
+ *
+ * Rules already installed, or sent by an earlier batch and not confirmed yet,
+ * are filtered out by the {@link FlowRuleShadow}, so a burst of packet-ins
+ * for the same flow costs a single FLOW_MOD per rule. A request whose rules
+ * ride on earlier batches waits for them as well: its ingress rules are
+ * queued, and its requester notified, only once those batches succeed.
+ */
+@Component(immediate = true, service = FlowRuleBatcher.class)
+public class FlowRuleBatcher {
+
+    static final int MAX_BATCH_RULES = 256;
+    private static final long FLUSH_DELAY_MICROS = 500;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected FlowRuleService flowRuleService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected FlowRuleShadow shadow;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder appliedRules = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    private ScheduledExecutorService flusher;
+
+    private Batch pending = new Batch();
+    private boolean flushScheduled;
+
+    @Activate
+    protected void activate() {
+        flusher = Executors.newSingleThreadScheduledExecutor(
+                groupedThreads("onos/test2025", "rule-batcher-%d", log));
+        log.info("Flow rule batcher started");
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        flusher.shutdownNow();
+        flush();
+        log.info("Flow rule batcher stopped, {} rules in {} batches", appliedRules(), batches());
+    }
+
+    /**
+     * Queues the rules of a forwarding decision.
+     *
+     * @param rules        rules installed in the first stage
+     * @param ingressRules rules installed once the first stage is complete
+     * @param onInstalled  called once every rule is installed, may be null
+     * @param onFailed     called if the batch of the rules fails, may be null
+     */
+    public void install(Collection<FlowRule> rules, Collection<FlowRule> ingressRules,
+                        Runnable onInstalled, Runnable onFailed) {
+        requests.increment();
+        enqueue(rules, ingressRules, onInstalled, onFailed);
+    }
+
+    private void enqueue(Collection<FlowRule> rules, Collection<FlowRule> ingressRules,
+                         Runnable onInstalled, Runnable onFailed) {
+        Batch full = null;
+        Waiter waiter;
+        synchronized (this) {
+            FlowRuleShadow.Admission first = shadow.admit(rules, pending);
+            pending.add(pending.rules, first.rules());
+            Set<Object> batches = waitedBatches(first);
+
+            if (!ingressRules.isEmpty() && !pendingOnly(batches)) {
+                // part of the path is still being installed by earlier batches,
+                // the ingress rules have to wait for them; within the current
+                // one the stages already keep them in order
+                waiter = new Waiter(batches.size(),
+                                    () -> enqueue(Collections.emptyList(), ingressRules, onInstalled, onFailed),
+                                    onFailed);
+            } else {
+                FlowRuleShadow.Admission second = shadow.admit(ingressRules, pending);
+                pending.add(pending.ingressRules, second.rules());
+                batches = union(batches, waitedBatches(second));
+                waiter = new Waiter(batches.size(), onInstalled, onFailed);
+            }
+            for (Object batch : batches) {
+                ((Batch) batch).join(waiter);
+            }
+
+            if (pending.size >= MAX_BATCH_RULES || pending.size > 0 && flusher.isShutdown()) {
+                // full, or a deferred request completing after deactivation
+                full = pending;
+                pending = new Batch();
+            } else if (pending.size > 0 && !flushScheduled) {
+                flushScheduled = true;
+                flusher.schedule(this::flush, FLUSH_DELAY_MICROS, TimeUnit.MICROSECONDS);
+            }
+        }
+
+        if (full != null) {
+            apply(full);
+        }
+        // nothing left to wait for, every rule is already installed
+        waiter.check();
+    }
+
+    // Batches a request has to wait for: the ones holding its pending rules,
+    // and the current batch if any of its rules were just queued.
+    private Set<Object> waitedBatches(FlowRuleShadow.Admission admission) {
+        if (admission.rules().isEmpty()) {
+            return admission.inFlight();
+        }
+        Set<Object> batches = Collections.newSetFromMap(new IdentityHashMap<>());
+        batches.addAll(admission.inFlight());
+        batches.add(pending);
+        return batches;
+    }
+
+    private boolean pendingOnly(Set<Object> batches) {
+        return batches.isEmpty() || batches.size() == 1 && batches.contains(pending);
+    }
+
+    private static Set<Object> union(Set<Object> a, Set<Object> b) {
+        if (a.isEmpty()) {
+            return b;
+        } else if (b.isEmpty()) {
+            return a;
+        }
+        Set<Object> union = Collections.newSetFromMap(new IdentityHashMap<>());
+        union.addAll(a);
+        union.addAll(b);
+        return union;
+    }
+
+    /**
+     * Returns the number of install requests received.
+     *
+     * @return request count
+     */
+    public long requests() {
+        return requests.sum();
+    }
+
+    /**
+     * Returns the number of batches applied.
+     *
+     * @return batch count
+     */
+    public long batches() {
+        return batches.sum();
+    }
+
+    /**
+     * Returns the number of rules applied, duplicates excluded.
+     *
+     * @return rule count
+     */
+    public long appliedRules() {
+        return appliedRules.sum();
+    }
+
+    /**
+     * Returns the number of batches that failed to install.
+     *
+     * @return failed batch count
+     */
+    public long failedBatches() {
+        return failedBatches.sum();
+    }
+
+    private void flush() {
+        Batch batch;
+        synchronized (this) {
+            flushScheduled = false;
+            batch = pending;
+            pending = new Batch();
+        }
+        if (batch.size > 0) {
+            apply(batch);
+        }
+    }
+
+    private void apply(Batch batch) {
+        FlowRuleOperations.Builder builder = FlowRuleOperations.builder();
+        if (!batch.rules.isEmpty()) {
+            batch.rules.values().forEach(rules -> rules.values().forEach(builder::add));
+            builder.newStage();
+        }
+        batch.ingressRules.values().forEach(rules -> rules.values().forEach(builder::add));
+
+        batches.increment();
+        appliedRules.add(batch.size);
+
+        flowRuleService.apply(builder.build(new FlowRuleOperationsContext() {
+            @Override
+            public void onSuccess(FlowRuleOperations ops) {
+                batch.complete(true).forEach(Waiter::batchInstalled);
+            }
+
+            @Override
+            public void onError(FlowRuleOperations ops) {
+                failedBatches.increment();
+                batch.rules.values().forEach(rules -> shadow.forget(rules.values()));
+                batch.ingressRules.values().forEach(rules -> shadow.forget(rules.values()));
+                log.warn("Flow rule batch of {} rules failed to install", batch.size);
+                batch.complete(false).forEach(Waiter::batchFailed);
+            }
+        }));
+    }
+
+    private void run(Runnable callback) {
+        if (callback != null) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                log.warn("Flow rule batch callback failed", e);
+            }
+        }
+    }
+
+    /**
+     * Rules of the requests queued together, and the requests waiting for
+     * them to be installed.
+     */
+    private static final class Batch {
+        private final Map<DeviceId, Map<FlowId, FlowRule>> rules = new LinkedHashMap<>();
+        private final Map<DeviceId, Map<FlowId, FlowRule>> ingressRules = new LinkedHashMap<>();
+        private int size;
+
+        // guarded by the batch, null once the batch is complete
+        private List<Waiter> waiters = new ArrayList<>();
+        private boolean installed;
+
+        // Registers a request, or tells it right away how the batch went.
+        private void join(Waiter waiter) {
+            boolean done;
+            synchronized (this) {
+                if (waiters != null) {
+                    waiters.add(waiter);
+                    return;
+                }
+                done = installed;
+            }
+            if (done) {
+                waiter.batchInstalled();
+            } else {
+                waiter.batchFailed();
+            }
+        }
+
+        private synchronized List<Waiter> complete(boolean success) {
+            List<Waiter> waiting = waiters;
+            waiters = null;
+            installed = success;
+            return waiting;
+        }
+
+        private void add(Map<DeviceId, Map<FlowId, FlowRule>> stage, Collection<FlowRule> toAdd) {
+            for (FlowRule rule : toAdd) {
+                Map<FlowId, FlowRule> deviceRules =
+                        stage.computeIfAbsent(rule.deviceId(), d -> new LinkedHashMap<>());
+                if (deviceRules.put(rule.id(), rule) == null) {
+                    size++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Request waiting for the batches holding its rules; it goes on once all
+     * of them are installed, or fails with the first one that fails.
+     */
+    private final class Waiter {
+        private final Runnable onInstalled;
+        private final Runnable onFailed;
+        // guarded by the waiter
+        private int batches;
+        private boolean done;
+
+        private Waiter(int batches, Runnable onInstalled, Runnable onFailed) {
+            this.batches = batches;
+            this.onInstalled = onInstalled;
+            this.onFailed = onFailed;
+        }
+
+        private void check() {
+            synchronized (this) {
+                if (done || batches > 0) {
+                    return;
+                }
+                done = true;
+            }
+            run(onInstalled);
+        }
+
+        private void batchInstalled() {
+            synchronized (this) {
+                batches--;
+            }
+            check();
+        }
+
+        private void batchFailed() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            run(onFailed);
+        }
+    }
+}
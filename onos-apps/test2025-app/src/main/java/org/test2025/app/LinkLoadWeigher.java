@@ -0,0 +1,296 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.test2025.app;
+
+import org.onlab.graph.ScalarWeight;
+import org.onlab.graph.Weight;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.Link;
+import org.onosproject.net.Port;
+import org.onosproject.net.device.DeviceService;
+import org.onosproject.net.link.LinkService;
+import org.onosproject.net.statistic.Load;
+import org.onosproject.net.statistic.PortStatisticsService;
+import org.onosproject.net.topology.LinkWeigher;
+import org.onosproject.net.topology.TopologyEdge;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Link weigher making the paths avoid the busy links.
+ *
+ * A link costs one hop plus a penalty growing with its utilization, so a
+ * longer path wins only over a congested one. Costs are whole numbers of
+ * tenths of a hop, so paths of the same cost add up to exactly the same
+ * weight and stay equal-cost. The utilization comes from a snapshot of the
+ * byte rates of the link source ports, refreshed by a background sampler
+ * from the port statistics; path computations read the snapshot and never
+ * query the statistics themselves. The snapshot is an open-addressing table
+ * of the source ports with the band of each link in a parallel byte array,
+ * so weighing an edge allocates nothing.
+ *
+ * The utilization is quantized in bands, and a link leaves its band only
+ * once it is a quarter band past its edges, so a load hovering on a band
+ * boundary does not flip the costs at every sample. The epoch of the
+ * weigher moves only when the band of a link changes, so that cached paths
+ * are recomputed when their costs actually change.
+ */
+@Component(immediate = true, service = LinkLoadWeigher.class)
+public class LinkLoadWeigher implements LinkWeigher {
+
+    private static final long SAMPLE_PERIOD_SECONDS = 5;
+    private static final int BANDS = 10;
+    private static final double HYSTERESIS = 0.25;
+    private static final long DEFAULT_SPEED_MBPS = 10_000;
+
+    // cost of an idle link, and extra cost per band, in tenths of a hop
+    private static final int HOP_COST = 10;
+    private static final int BAND_PENALTY = 4;
+
+    private static final Weight INITIAL_WEIGHT = ScalarWeight.toWeight(0);
+    private static final Weight[] BAND_WEIGHTS = new Weight[BANDS + 1];
+
+    static {
+        for (int band = 0; band <= BANDS; band++) {
+            BAND_WEIGHTS[band] = ScalarWeight.toWeight(HOP_COST + BAND_PENALTY * band);
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected LinkService linkService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected DeviceService deviceService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PortStatisticsService portStatisticsService;
+
+    private final LongAdder samples = new LongAdder();
+
+    private ScheduledExecutorService sampler;
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyList());
+    private volatile long epoch;
+
+    @Activate
+    protected void activate() {
+        sampler = Executors.newSingleThreadScheduledExecutor(
+                groupedThreads("onos/test2025", "link-load-%d", log));
+        sampler.scheduleWithFixedDelay(this::sampleSafely, 0, SAMPLE_PERIOD_SECONDS, TimeUnit.SECONDS);
+        log.info("Link load weigher started");
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        sampler.shutdownNow();
+        log.info("Link load weigher stopped after {} samples", samples());
+    }
+
+    @Override
+    public Weight getInitialWeight() {
+        return INITIAL_WEIGHT;
+    }
+
+    @Override
+    public Weight getNonViableWeight() {
+        return ScalarWeight.NON_VIABLE_WEIGHT;
+    }
+
+    @Override
+    public Weight weight(TopologyEdge edge) {
+        Link link = edge.link();
+        if (link.state() == Link.State.INACTIVE) {
+            return ScalarWeight.NON_VIABLE_WEIGHT;
+        }
+        return BAND_WEIGHTS[Math.max(0, snapshot.band(link.src()))];
+    }
+
+    /**
+     * Returns the epoch of the link costs, which changes whenever a cost
+     * does.
+     *
+     * @return epoch
+     */
+    public long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Returns the utilization band of a link in the last sample, from 0 for
+     * an idle link to 10 for a saturated one.
+     *
+     * @param link link
+     * @return band, 0 if the link was not sampled
+     */
+    public int utilization(Link link) {
+        return Math.max(0, snapshot.band(link.src()));
+    }
+
+    /**
+     * Returns the number of links in the last sample.
+     *
+     * @return link count
+     */
+    public int links() {
+        return snapshot.size;
+    }
+
+    /**
+     * Returns the number of links at least half utilized in the last sample.
+     *
+     * @return link count
+     */
+    public int hotLinks() {
+        Snapshot s = snapshot;
+        int hot = 0;
+        for (int i = 0; i < s.ports.length; i++) {
+            if (s.ports[i] != null && s.bands[i] >= BANDS / 2) {
+                hot++;
+            }
+        }
+        return hot;
+    }
+
+    /**
+     * Returns the number of samples taken.
+     *
+     * @return sample count
+     */
+    public long samples() {
+        return samples.sum();
+    }
+
+    /**
+     * Samples the load of the links and publishes a new snapshot.
+     */
+    void sample() {
+        List<ConnectPoint> ports = new ArrayList<>();
+        for (Link link : linkService.getActiveLinks()) {
+            ports.add(link.src());
+        }
+
+        Snapshot previous = snapshot;
+        Snapshot next = new Snapshot(ports);
+        boolean changed = false;
+        for (int i = 0; i < next.ports.length; i++) {
+            ConnectPoint src = next.ports[i];
+            if (src == null) {
+                continue;
+            }
+            Load load = portStatisticsService.load(src, PortStatisticsService.MetricType.BYTES);
+            long rate = load != null && load.isValid() ? load.rate() : 0;
+            int before = previous.band(src);
+            int band = band(rate, speed(src), before);
+            next.bands[i] = (byte) band;
+            // a link seen for the first time was weighed as idle so far
+            changed |= band != Math.max(0, before);
+        }
+
+        snapshot = next;
+        samples.increment();
+        if (changed) {
+            epoch++;
+        }
+    }
+
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            log.warn("Link load sampling failed", e);
+        }
+    }
+
+    // Port speed in Mb/s, the default when the port does not report it.
+    private long speed(ConnectPoint cp) {
+        Port port = deviceService.getPort(cp.deviceId(), cp.port());
+        return port != null && port.portSpeed() > 0 ? port.portSpeed() : DEFAULT_SPEED_MBPS;
+    }
+
+    /**
+     * Returns the utilization band of a byte rate, between 0 and BANDS. The
+     * previous band is kept while the utilization stays within a quarter
+     * band of it.
+     *
+     * @param bytesPerSecond byte rate of the link
+     * @param speedMbps      link speed in Mb/s
+     * @param previous       band of the previous sample, -1 if none
+     * @return band
+     */
+    static int band(long bytesPerSecond, long speedMbps, int previous) {
+        double level = bytesPerSecond * 8.0 * BANDS / (speedMbps * 1_000_000.0);
+        if (previous >= 0 && level >= previous - HYSTERESIS && level < previous + 1 + HYSTERESIS) {
+            return previous;
+        }
+        return Math.min(BANDS, (int) level);
+    }
+
+    // Bands of the links, in a linear-probing table of their source ports at most half full.
+    private static final class Snapshot {
+        private final ConnectPoint[] ports;
+        private final byte[] bands;
+        private final int size;
+
+        private Snapshot(List<ConnectPoint> links) {
+            int capacity = Integer.highestOneBit(Math.max(2, links.size() * 2) - 1) << 1;
+            ports = new ConnectPoint[capacity];
+            bands = new byte[capacity];
+            int n = 0;
+            for (ConnectPoint cp : links) {
+                int i = slot(cp);
+                if (ports[i] == null) {
+                    ports[i] = cp;
+                    n++;
+                }
+            }
+            size = n;
+        }
+
+        // Band of the link leaving a port, -1 if the link was not sampled.
+        private int band(ConnectPoint cp) {
+            int i = slot(cp);
+            return ports[i] == null ? -1 : bands[i];
+        }
+
+        // Slot holding the port, or the empty slot where it belongs.
+        private int slot(ConnectPoint cp) {
+            int mask = ports.length - 1;
+            int h = cp.hashCode() * 0x9e3779b9;
+            int i = (h ^ (h >>> 16)) & mask;
+            while (ports[i] != null && !ports[i].equals(cp)) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.test2025.app;
+
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.Host;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleService;
+import org.onosproject.net.host.HostService;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Installs the tunnels between all the hosts ahead of their traffic.
+ *
+ * Topology and host changes schedule a resync, coalescing the changes of a
+ * short window. A resync plans the tunnel of every destination edge port in
+ * parallel on a fork-join pool, then installs the rules that are missing or
+ * changed and removes the ones no longer planned. The first packet of a
+ * flow then finds its path ready, and the packet processor only sees the
+ * traffic of hosts not planned yet.
+ *
+ * Rules count as installed only once their batch succeeds; a failed batch,
+ * or one still without outcome after the install timeout, schedules a new
+ * resync and the late outcome of that batch is ignored. Resyncs do not overlap an install: one requested
+ * while the rules of the previous one are in flight runs once they are
+ * confirmed. All the resync state is confined to the scheduler thread.
+ */
+public class ProactiveTunnels {
+
+    private static final long RESYNC_DELAY_MILLIS = 200;
+    private static final long RETRY_DELAY_MILLIS = 2000;
+    private static final long INSTALL_TIMEOUT_MILLIS = 30000;
+
+    private final VlanTunnelEngine tunnelEngine;
+    private final HostService hostService;
+    private final FlowRuleService flowRuleService;
+    private final FlowRuleBatcher ruleBatcher;
+    private final Logger log;
+
+    private final AtomicBoolean resyncScheduled = new AtomicBoolean();
+    private final LongAdder resyncs = new LongAdder();
+    private final LongAdder installedRules = new LongAdder();
+    private final LongAdder removedRules = new LongAdder();
+    private final LongAdder failedResyncs = new LongAdder();
+
+    // rules confirmed installed by the resyncs, keyed by their flow id
+    private final Map<FlowRule, FlowRule> installed = new HashMap<>();
+    // a resync is waiting for its rules, and another one was requested meanwhile
+    private boolean installing;
+    private boolean resyncPending;
+    // identifies the batch in flight, so that the outcome of an expired one is ignored
+    private long installGeneration;
+    private volatile long lastResyncNanos;
+
+    // package-private so that the tests can shorten it
+    long installTimeoutMillis = INSTALL_TIMEOUT_MILLIS;
+
+    private ScheduledExecutorService scheduler;
+    private ForkJoinPool planners;
+    private boolean stopped;
+
+    /**
+     * Creates the proactive installer.
+     *
+     * @param tunnelEngine    engine planning the tunnels
+     * @param hostService     host service
+     * @param flowRuleService flow rule service used to remove the rules
+     * @param ruleBatcher     batcher installing the rules
+     * @param log             logger
+     */
+    public ProactiveTunnels(VlanTunnelEngine tunnelEngine, HostService hostService,
+                            FlowRuleService flowRuleService, FlowRuleBatcher ruleBatcher, Logger log) {
+        this.tunnelEngine = tunnelEngine;
+        this.hostService = hostService;
+        this.flowRuleService = flowRuleService;
+        this.ruleBatcher = ruleBatcher;
+        this.log = log;
+    }
+
+    /**
+     * Starts the installer and plans the current network.
+     */
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                groupedThreads("onos/test2025", "proactive-tunnels-%d", log));
+        planners = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("onos/test2025-tunnel-planner-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        schedule();
+    }
+
+    /**
+     * Stops the installer, leaving the installed rules in place.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        scheduler.shutdownNow();
+        planners.shutdownNow();
+    }
+
+    /**
+     * Schedules a resync, unless one is already pending. Does nothing once
+     * the installer is stopped.
+     */
+    public void schedule() {
+        schedule(RESYNC_DELAY_MILLIS);
+    }
+
+    private synchronized void schedule(long delayMillis) {
+        if (!stopped && resyncScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::resync, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Gives up on the batch if it has no outcome once the install timeout is over.
+    private synchronized void expireAfterTimeout(long generation, List<FlowRule> sent) {
+        if (!stopped) {
+            scheduler.schedule(() -> expired(generation, sent), installTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Hands a batch outcome over to the scheduler thread, unless the installer is stopped.
+    private synchronized void execute(Runnable task) {
+        if (!stopped) {
+            try {
+                scheduler.execute(task);
+            } catch (RejectedExecutionException e) {
+                log.debug("[---PACKLOGGED---]: installer stopped, batch outcome dropped");
+            }
+        }
+    }
+
+    private void resync() {
+        resyncScheduled.set(false);
+        if (installing) {
+            resyncPending = true;
+            return;
+        }
+        long start = System.nanoTime();
+
+        Map<ConnectPoint, List<Host>> destinations = new LinkedHashMap<>();
+        List<Host> hosts = new ArrayList<>();
+        for (Host host : hostService.getHosts()) {
+            // a host location also carries its discovery time, keep the port only
+            ConnectPoint location = new ConnectPoint(host.location().deviceId(), host.location().port());
+            destinations.computeIfAbsent(location, cp -> new ArrayList<>()).add(host);
+            hosts.add(host);
+        }
+
+        List<VlanTunnelEngine.Plan> plans;
+        try {
+            plans = planners.submit(() -> destinations.entrySet().parallelStream()
+                    .map(d -> tunnelEngine.plan(d.getKey(), d.getValue(), hosts))
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            log.error("[---PACKLOGGED---]: tunnel planning failed", e.getCause());
+            return;
+        }
+
+        Map<FlowRule, FlowRule> planned = new HashMap<>();
+        List<FlowRule> rules = new ArrayList<>();
+        List<FlowRule> ingressRules = new ArrayList<>();
+        for (VlanTunnelEngine.Plan plan : plans) {
+            collect(plan.rules(), planned, rules);
+            collect(plan.ingressRules(), planned, ingressRules);
+        }
+
+        List<FlowRule> stale = new ArrayList<>();
+        for (FlowRule rule : installed.keySet()) {
+            if (!planned.containsKey(rule)) {
+                stale.add(rule);
+            }
+        }
+
+        if (!rules.isEmpty() || !ingressRules.isEmpty()) {
+            List<FlowRule> sent = new ArrayList<>(rules);
+            sent.addAll(ingressRules);
+            installing = true;
+            long generation = ++installGeneration;
+            ruleBatcher.install(rules, ingressRules,
+                                () -> execute(() -> installed(generation, sent)),
+                                () -> execute(() -> failed(generation, sent)));
+            expireAfterTimeout(generation, sent);
+        }
+        if (!stale.isEmpty()) {
+            flowRuleService.removeFlowRules(stale.toArray(new FlowRule[0]));
+            stale.forEach(installed::remove);
+        }
+
+        resyncs.increment();
+        removedRules.add(stale.size());
+        lastResyncNanos = System.nanoTime() - start;
+        log.info("[---PACKLOGGED---]: {} destinations planned, {} rules installed, {} removed",
+                 destinations.size(), rules.size() + ingressRules.size(), stale.size());
+    }
+
+    private void installed(long generation, List<FlowRule> sent) {
+        if (!inFlight(generation)) {
+            return;
+        }
+        sent.forEach(rule -> installed.put(rule, rule));
+        installedRules.add(sent.size());
+        installing = false;
+        if (resyncPending) {
+            resyncPending = false;
+            schedule();
+        }
+    }
+
+    private void failed(long generation, List<FlowRule> sent) {
+        if (!inFlight(generation)) {
+            return;
+        }
+        log.warn("[---PACKLOGGED---]: {} tunnel rules failed to install, resync in {} ms",
+                 sent.size(), RETRY_DELAY_MILLIS);
+        retry();
+    }
+
+    private void expired(long generation, List<FlowRule> sent) {
+        if (!inFlight(generation)) {
+            return;
+        }
+        log.warn("[---PACKLOGGED---]: {} tunnel rules unconfirmed after {} ms, resync in {} ms",
+                 sent.size(), installTimeoutMillis, RETRY_DELAY_MILLIS);
+        retry();
+    }
+
+    // Whether the batch is still the one the installer waits for.
+    private boolean inFlight(long generation) {
+        if (installing && generation == installGeneration) {
+            return true;
+        }
+        log.debug("[---PACKLOGGED---]: outcome of an expired tunnel batch ignored");
+        return false;
+    }
+
+    private void retry() {
+        failedResyncs.increment();
+        installing = false;
+        resyncPending = false;
+        schedule(RETRY_DELAY_MILLIS);
+    }
+
+    // Keeps the rules that are not installed yet or whose treatment changed.
+    private void collect(Collection<FlowRule> candidates, Map<FlowRule, FlowRule> planned,
+                         List<FlowRule> changed) {
+        for (FlowRule rule : candidates) {
+            planned.put(rule, rule);
+            FlowRule current = installed.get(rule);
+            if (current == null || !current.exactMatch(rule)) {
+                changed.add(rule);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of resyncs done.
+     *
+     * @return resyncs
+     */
+    public long resyncs() {
+        return resyncs.sum();
+    }
+
+    /**
+     * Returns the number of rules installed by the resyncs.
+     *
+     * @return rules installed
+     */
+    public long installedRules() {
+        return installedRules.sum();
+    }
+
+    /**
+     * Returns the number of resyncs whose rules failed to install or
+     * stayed unconfirmed past the install timeout.
+     *
+     * @return failed resyncs
+     */
+    public long failedResyncs() {
+        return failedResyncs.sum();
+    }
+
+    /**
+     * Returns the number of rules removed by the resyncs.
+     *
+     * @return rules removed
+     */
+    public long removedRules() {
+        return removedRules.sum();
+    }
+
+    /**
+     * Returns the duration of the last resync.
+     *
+     * @return nanoseconds
+     */
+    public long lastResyncNanos() {
+        return lastResyncNanos;
+    }
+}
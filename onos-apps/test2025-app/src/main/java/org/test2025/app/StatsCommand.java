@@ -0,0 +1,106 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.test2025.app;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.onosproject.cli.AbstractShellCommand;
+
+/**
+ * Lists the statistics of the packet processor caches.
+ */
+@Service
+@Command(scope = "onos", name = "test2025-stats",
+         description = "This command lists the statistics of the packet processor caches")
+public class StatsCommand extends AbstractShellCommand {
+
+    @Override
+    protected void doExecute() {
+        HostLocationCache hostCache = get(HostLocationCache.class);
+        PathCache pathCache = get(PathCache.class);
+        PathSelector pathSelector = get(PathSelector.class);
+        LinkLoadWeigher linkWeigher = get(LinkLoadWeigher.class);
+        FlowRuleBatcher ruleBatcher = get(FlowRuleBatcher.class);
+        PendingFlowTable pendingFlows = get(PendingFlowTable.class);
+        VlanPool vlanPool = get(VlanPool.class);
+        FlowRuleShadow shadow = get(FlowRuleShadow.class);
+
+        if (outputJson()) {
+            ObjectNode root = mapper().createObjectNode();
+            root.putObject("hostCache")
+                    .put("hosts", hostCache.size())
+                    .put("hits", hostCache.hits())
+                    .put("misses", hostCache.misses());
+            root.putObject("pathCache")
+                    .put("entries", pathCache.size())
+                    .put("hits", pathCache.hits())
+                    .put("misses", pathCache.misses())
+                    .put("hitRatio", pathCache.hitRatio())
+                    .put("savedNanos", pathCache.savedNanos());
+            root.putObject("pathSelector")
+                    .put("trees", pathSelector.trees())
+                    .put("selections", pathSelector.selections())
+                    .put("balanced", pathSelector.balanced())
+                    .put("rerouted", pathSelector.rerouted());
+            root.putObject("linkWeigher")
+                    .put("links", linkWeigher.links())
+                    .put("hotLinks", linkWeigher.hotLinks())
+                    .put("samples", linkWeigher.samples())
+                    .put("epoch", linkWeigher.epoch());
+            root.putObject("vlanPool")
+                    .put("allocated", vlanPool.allocated())
+                    .put("capacity", vlanPool.capacity());
+            root.putObject("ruleBatcher")
+                    .put("requests", ruleBatcher.requests())
+                    .put("batches", ruleBatcher.batches())
+                    .put("rules", ruleBatcher.appliedRules())
+                    .put("failedBatches", ruleBatcher.failedBatches());
+            root.putObject("ruleShadow")
+                    .put("rules", shadow.size())
+                    .put("admitted", shadow.admitted())
+                    .put("suppressed", shadow.suppressed());
+            root.putObject("pendingFlows")
+                    .put("pending", pendingFlows.size())
+                    .put("claimed", pendingFlows.claimed())
+                    .put("parked", pendingFlows.parked())
+                    .put("released", pendingFlows.released())
+                    .put("dropped", pendingFlows.dropped());
+            print("%s", root);
+            return;
+        }
+
+        print("Host cache: %d hosts, %d hits, %d misses",
+              hostCache.size(), hostCache.hits(), hostCache.misses());
+        print("Path cache: %d entries, %d hits, %d misses, hit ratio %.3f, %.3f ms of computation saved",
+              pathCache.size(), pathCache.hits(), pathCache.misses(), pathCache.hitRatio(),
+              pathCache.savedNanos() / 1e6);
+        print("Path selector: %d trees, %d selections, %d among equal-cost paths, %d rerouted",
+              pathSelector.trees(), pathSelector.selections(), pathSelector.balanced(),
+              pathSelector.rerouted());
+        print("Link weigher: %d links, %d at least half utilized, %d samples, cost epoch %d",
+              linkWeigher.links(), linkWeigher.hotLinks(), linkWeigher.samples(), linkWeigher.epoch());
+        print("VLAN pool: %d of %d allocated", vlanPool.allocated(), vlanPool.capacity());
+        print("Rule batcher: %d requests, %d rules in %d batches, %d failed batches",
+              ruleBatcher.requests(), ruleBatcher.appliedRules(), ruleBatcher.batches(),
+              ruleBatcher.failedBatches());
+        print("Rule shadow: %d rules, %d admitted, %d suppressed",
+              shadow.size(), shadow.admitted(), shadow.suppressed());
+        print("Pending flows: %d pending, %d claimed, %d packets parked, %d released, %d dropped",
+              pendingFlows.size(), pendingFlows.claimed(), pendingFlows.parked(), pendingFlows.released(),
+              pendingFlows.dropped());
+    }
+}
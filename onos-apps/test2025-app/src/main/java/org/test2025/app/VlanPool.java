@@ -0,0 +1,163 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.test2025.app;
+
+import org.onlab.packet.VlanId;
+import org.onosproject.net.ConnectPoint;
+import org.osgi.service.component.annotations.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pool of VLAN IDs handing out one VLAN per destination edge port.
+ *
+ * Free IDs are tracked in a bitmap and searched from a rotating hint, so
+ * a released ID is not reused straight away while stale rules may still be
+ * draining from the switches.
+ */
+@Component(immediate = true, service = VlanPool.class)
+public class VlanPool {
+
+    /** Lowest VLAN handed out; VLAN 1 is left to the default VLAN. */
+    public static final short MIN_VLAN = 2;
+
+    /** Highest VLAN handed out. */
+    public static final short MAX_VLAN = 4094;
+
+    private final long[] used = new long[(MAX_VLAN >> 6) + 1];
+    private final ConnectPoint[] owners = new ConnectPoint[MAX_VLAN + 1];
+    private final long[] lastUsed = new long[MAX_VLAN + 1];
+    private final Map<ConnectPoint, VlanId> allocations = new HashMap<>();
+    private int next = MIN_VLAN;
+
+    /**
+     * Returns the VLAN of the given destination, allocating one if needed.
+     *
+     * @param destination destination edge port
+     * @return VLAN ID or null if the pool is exhausted
+     */
+    public synchronized VlanId allocate(ConnectPoint destination) {
+        destination = key(destination);
+        VlanId vlanId = allocations.get(destination);
+        if (vlanId == null) {
+            int id = nextFree();
+            if (id < 0) {
+                return null;
+            }
+            used[id >> 6] |= 1L << id;
+            owners[id] = destination;
+            vlanId = VlanId.vlanId((short) id);
+            allocations.put(destination, vlanId);
+            next = id == MAX_VLAN ? MIN_VLAN : id + 1;
+        }
+        lastUsed[vlanId.toShort()] = System.currentTimeMillis();
+        return vlanId;
+    }
+
+    /**
+     * Returns the VLAN allocated to the given destination.
+     *
+     * @param destination destination edge port
+     * @return VLAN ID or null if none is allocated
+     */
+    public synchronized VlanId get(ConnectPoint destination) {
+        return allocations.get(key(destination));
+    }
+
+    /**
+     * Returns the destination the given VLAN is allocated to.
+     *
+     * @param vlanId VLAN ID
+     * @return destination edge port or null if the VLAN is free
+     */
+    public synchronized ConnectPoint owner(VlanId vlanId) {
+        short id = vlanId.toShort();
+        return id < MIN_VLAN || id > MAX_VLAN ? null : owners[id];
+    }
+
+    /**
+     * Returns the last time the given VLAN was handed out.
+     *
+     * @param vlanId VLAN ID
+     * @return time in milliseconds, 0 if the VLAN is free
+     */
+    public synchronized long lastUsed(VlanId vlanId) {
+        short id = vlanId.toShort();
+        return owner(vlanId) == null ? 0 : lastUsed[id];
+    }
+
+    /**
+     * Returns the VLAN to the pool.
+     *
+     * @param vlanId VLAN ID
+     * @return destination the VLAN was allocated to, null if it was free
+     */
+    public synchronized ConnectPoint release(VlanId vlanId) {
+        ConnectPoint destination = owner(vlanId);
+        if (destination != null) {
+            int id = vlanId.toShort();
+            used[id >> 6] &= ~(1L << id);
+            owners[id] = null;
+            allocations.remove(destination);
+        }
+        return destination;
+    }
+
+    /**
+     * Returns the number of VLANs allocated.
+     *
+     * @return allocated VLAN count
+     */
+    public synchronized int allocated() {
+        return allocations.size();
+    }
+
+    /**
+     * Returns the number of VLANs in the pool.
+     *
+     * @return pool size
+     */
+    public int capacity() {
+        return MAX_VLAN - MIN_VLAN + 1;
+    }
+
+    // host locations also compare their timestamp, keep the bare port
+    private static ConnectPoint key(ConnectPoint cp) {
+        return cp.getClass() == ConnectPoint.class ? cp : new ConnectPoint(cp.elementId(), cp.port());
+    }
+
+    private int nextFree() {
+        int id = nextFree(next, MAX_VLAN);
+        return id >= 0 ? id : nextFree(MIN_VLAN, next - 1);
+    }
+
+    // first clear bit in [from, to], -1 if none
+    private int nextFree(int from, int to) {
+        int word = from >> 6;
+        long free = ~used[word] & (-1L << from);
+        while (true) {
+            if (free != 0) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(free);
+                return id <= to ? id : -1;
+            }
+            if (++word > (to >> 6)) {
+                return -1;
+            }
+            free = ~used[word];
+        }
+    }
+}
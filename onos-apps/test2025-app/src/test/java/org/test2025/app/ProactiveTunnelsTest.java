@@ -0,0 +1,297 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.test2025.app;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.graph.ScalarWeight;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultHost;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.DefaultPath;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.HostId;
+import org.onosproject.net.HostLocation;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleOperation;
+import org.onosproject.net.flow.FlowRuleOperations;
+import org.onosproject.net.flow.FlowRuleServiceAdapter;
+import org.onosproject.net.host.HostServiceAdapter;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.net.topology.LinkWeigher;
+import org.onosproject.net.topology.Topology;
+import org.onosproject.net.topology.TopologyServiceAdapter;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the proactive tunnel resync, on two switches with one host each.
+ */
+public class ProactiveTunnelsTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.test2025.app");
+    private static final ProviderId PID = new ProviderId("of", "test");
+    private static final DeviceId S1 = DeviceId.deviceId("of:0000000000000001");
+    private static final DeviceId S2 = DeviceId.deviceId("of:0000000000000002");
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private final List<Host> hosts = new CopyOnWriteArrayList<>();
+    private final List<FlowRule> sent = new CopyOnWriteArrayList<>();
+    private final List<FlowRule> removed = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger silences = new AtomicInteger();
+
+    private FlowRuleShadow shadow;
+    private FlowRuleBatcher ruleBatcher;
+    private PathCache pathCache;
+    private VlanTunnelEngine tunnelEngine;
+    private ProactiveTunnels proactive;
+
+    @Before
+    public void setUp() {
+        TestFlowRuleService flowRuleService = new TestFlowRuleService();
+
+        shadow = new FlowRuleShadow();
+        shadow.flowRuleService = flowRuleService;
+        shadow.activate();
+
+        ruleBatcher = new FlowRuleBatcher();
+        ruleBatcher.flowRuleService = flowRuleService;
+        ruleBatcher.shadow = shadow;
+        ruleBatcher.activate();
+
+        pathCache = new PathCache();
+        pathCache.topologyService = new TestTopologyService();
+        // never sampled, every link costs one hop
+        LinkLoadWeigher linkWeigher = new LinkLoadWeigher();
+        pathCache.linkWeigher = linkWeigher;
+        pathCache.activate();
+
+        PathSelector pathSelector = new PathSelector();
+        pathSelector.linkWeigher = linkWeigher;
+
+        tunnelEngine = new VlanTunnelEngine(APP_ID, flowRuleService, ruleBatcher, null,
+                                            pathCache, pathSelector, new VlanPool(), null, 0,
+                                            LoggerFactory.getLogger(getClass()));
+        proactive = new ProactiveTunnels(tunnelEngine, new TestHostService(), flowRuleService,
+                                         ruleBatcher, LoggerFactory.getLogger(getClass()));
+
+        hosts.add(host(1, S1));
+        hosts.add(host(2, S2));
+    }
+
+    @After
+    public void tearDown() {
+        proactive.stop();
+        tunnelEngine.stop();
+        pathCache.deactivate();
+        ruleBatcher.deactivate();
+        shadow.deactivate();
+    }
+
+    @Test
+    public void firstResyncInstallsEveryTunnel() throws InterruptedException {
+        proactive.start();
+        awaitResyncs(1);
+
+        // per destination: the untagging rule, one transit rule and the tagging rule of the other host
+        awaitInstalled(6);
+        assertEquals(0, proactive.removedRules());
+        awaitSent(6);
+    }
+
+    @Test
+    public void unchangedNetworkInstallsNothing() throws InterruptedException {
+        proactive.start();
+        awaitResyncs(1);
+
+        proactive.schedule();
+        awaitResyncs(2);
+
+        awaitInstalled(6);
+        assertEquals(0, proactive.removedRules());
+    }
+
+    @Test
+    public void departedHostTunnelsAreRemoved() throws InterruptedException {
+        proactive.start();
+        awaitResyncs(1);
+
+        hosts.remove(1);
+        proactive.schedule();
+        awaitResyncs(2);
+
+        // the remaining host has nobody to talk to
+        assertEquals(6, proactive.removedRules());
+        assertEquals(6, removed.size());
+    }
+
+    @Test
+    public void newHostOnlyAddsItsRules() throws InterruptedException {
+        proactive.start();
+        awaitResyncs(1);
+
+        hosts.add(host(3, S2));
+        proactive.schedule();
+        awaitResyncs(2);
+
+        // the tunnel towards the new host, and the tagging rules between it and the other hosts
+        awaitInstalled(12);
+        assertEquals(0, proactive.removedRules());
+        awaitSent(12);
+        assertEquals(12, ImmutableSet.copyOf(sent).size());
+    }
+
+    @Test
+    public void failedInstallIsRetried() throws InterruptedException {
+        failures.set(1);
+        proactive.start();
+        awaitResyncs(1);
+
+        // nothing is recorded as installed, the retry sends every rule again
+        assertEquals(0, proactive.installedRules());
+        awaitResyncs(2);
+        assertEquals(1, proactive.failedResyncs());
+        awaitInstalled(6);
+        awaitSent(12);
+    }
+
+    @Test
+    public void unconfirmedInstallIsRetried() throws InterruptedException {
+        silences.set(1);
+        proactive.installTimeoutMillis = 100;
+        proactive.start();
+        awaitResyncs(1);
+
+        // the batch never calls back, it is given up after the timeout and sent again
+        awaitResyncs(2);
+        assertEquals(1, proactive.failedResyncs());
+        awaitInstalled(6);
+        awaitSent(12);
+    }
+
+    @Test
+    public void scheduleAfterStopIsIgnored() {
+        proactive.start();
+        proactive.stop();
+
+        proactive.schedule();
+        assertEquals(0, proactive.resyncs());
+    }
+
+    private void awaitResyncs(long resyncs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (proactive.resyncs() < resyncs && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(resyncs, proactive.resyncs());
+    }
+
+    // the batch outcome reaches the installer after the resync is counted
+    private void awaitInstalled(long rules) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (proactive.installedRules() < rules && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(rules, proactive.installedRules());
+    }
+
+    private void awaitSent(int rules) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (sent.size() < rules && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(rules, sent.size());
+    }
+
+    private static Host host(int id, DeviceId deviceId) {
+        MacAddress mac = MacAddress.valueOf(id);
+        return new DefaultHost(PID, HostId.hostId(mac), mac, VlanId.NONE,
+                               new HostLocation(deviceId, PortNumber.portNumber(id), 0L),
+                               Collections.emptySet());
+    }
+
+    private static Link link(DeviceId src, DeviceId dst) {
+        return DefaultLink.builder()
+                .providerId(PID)
+                .src(new ConnectPoint(src, PortNumber.portNumber(10)))
+                .dst(new ConnectPoint(dst, PortNumber.portNumber(10)))
+                .type(Link.Type.DIRECT)
+                .state(Link.State.ACTIVE)
+                .build();
+    }
+
+    private class TestHostService extends HostServiceAdapter {
+        @Override
+        public Iterable<Host> getHosts() {
+            return new ArrayList<>(hosts);
+        }
+    }
+
+    private static class TestTopologyService extends TopologyServiceAdapter {
+        @Override
+        public Set<Path> getPaths(Topology topology, DeviceId src, DeviceId dst, LinkWeigher weigher) {
+            if (src.equals(dst)) {
+                return Collections.emptySet();
+            }
+            return Collections.singleton(new DefaultPath(PID, Collections.singletonList(link(src, dst)),
+                                                         ScalarWeight.toWeight(1)));
+        }
+    }
+
+    private class TestFlowRuleService extends FlowRuleServiceAdapter {
+        @Override
+        public void apply(FlowRuleOperations ops) {
+            for (Set<FlowRuleOperation> stage : ops.stages()) {
+                for (FlowRuleOperation op : stage) {
+                    sent.add(op.rule());
+                }
+            }
+            if (silences.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                return;
+            }
+            if (failures.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                ops.callback().onError(ops);
+            } else {
+                ops.callback().onSuccess(ops);
+            }
+        }
+
+        @Override
+        public void removeFlowRules(FlowRule... rules) {
+            Collections.addAll(removed, rules);
+        }
+    }
+}
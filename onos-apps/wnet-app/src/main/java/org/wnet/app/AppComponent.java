@@ -16,11 +16,12 @@
 package org.wnet.app;
 
 import org.onlab.packet.Ethernet;
-import org.onlab.packet.VlanId;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
 import org.onosproject.net.*;
 import org.onosproject.net.flow.*;
+import org.onosproject.net.host.HostEvent;
+import org.onosproject.net.host.HostListener;
 import org.onosproject.net.host.HostService;
 import org.onosproject.net.packet.InboundPacket;
 import org.onosproject.net.packet.PacketContext;
@@ -31,14 +32,14 @@ import org.osgi.service.component.annotations.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Set;
-
 /**
  * Skeletal ONOS application component.
  */
 @Component(immediate = true)
 public class AppComponent {
 
+    private static final int TUNNEL_IDLE_TIMEOUT = 60;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
@@ -56,15 +57,43 @@ public class AppComponent {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected FlowRuleService flowRuleService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected HostLocationCache hostCache;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PathCache pathCache;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PathSelector pathSelector;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected VlanPool vlanPool;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected FlowRuleBatcher ruleBatcher;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PendingFlowTable pendingFlows;
+
     private ApplicationId appId;
 
+    private VlanTunnelEngine tunnelEngine;
+
+    private final InternalFlowRuleListener flowRuleListener = new InternalFlowRuleListener();
+
+    private final InternalHostListener hostListener = new InternalHostListener();
+
     ReactivePacketProcessor processor = new ReactivePacketProcessor();
 
     @Activate
     protected void activate() {
         appId = coreService.registerApplication(("org.wnet.app"));
+        tunnelEngine = new VlanTunnelEngine(appId, flowRuleService, ruleBatcher, packetService,
+                                            pathCache, pathSelector, vlanPool, pendingFlows, TUNNEL_IDLE_TIMEOUT, log);
 
         packetService.addProcessor(processor, PacketProcessor.director(2));
+        flowRuleService.addListener(flowRuleListener);
+        hostService.addListener(hostListener);
 
         log.info("[WNET 2024] app has started with id {}", appId);
     }
@@ -74,9 +103,43 @@ public class AppComponent {
         packetService.removeProcessor(processor);
         processor = null;
 
+        flowRuleService.removeListener(flowRuleListener);
+        hostService.removeListener(hostListener);
+        tunnelEngine.stop();
+
         log.info("[WNET 2024] app has stopped");
     }
 
+    private class InternalFlowRuleListener implements FlowRuleListener {
+        @Override
+        public void event(FlowRuleEvent event) {
+            if (event.subject().appId() != appId.id()) {
+                return;
+            }
+            if (event.type() == FlowRuleEvent.Type.RULE_ADDED) {
+                tunnelEngine.added(event.subject());
+            } else if (event.type() == FlowRuleEvent.Type.RULE_REMOVED) {
+                tunnelEngine.reclaim(event.subject());
+            }
+        }
+    }
+
+    private class InternalHostListener implements HostListener {
+        @Override
+        public void event(HostEvent event) {
+            Host left = null;
+            if (event.type() == HostEvent.Type.HOST_REMOVED) {
+                left = event.subject();
+            } else if (event.type() == HostEvent.Type.HOST_MOVED) {
+                left = event.prevSubject();
+            }
+
+            if (left != null && hostService.getConnectedHosts(left.location()).isEmpty()) {
+                tunnelEngine.removeTunnel(left.location());
+            }
+        }
+    }
+
 
     private class ReactivePacketProcessor implements PacketProcessor {
 
@@ -102,13 +165,17 @@ public class AppComponent {
                 DeviceId currentDeviceId = pck.receivedFrom().deviceId();
 
                 //Finding out the SRC host
-                HostId srcHostId = HostId.hostId(ethPck.getSourceMAC());
-                Host srcHost = hostService.getHost(srcHostId);
-                DeviceId srcHostLocation = srcHost.location().deviceId();
+                Host srcHost = hostCache.getHost(ethPck.getSourceMAC());
 
                 //Finding out the DST host --- this may be unkown
-                HostId dstHostId = HostId.hostId(ethPck.getDestinationMAC());
-                Host dstHost = hostService.getHost(dstHostId);
+                Host dstHost = hostCache.getHost(ethPck.getDestinationMAC());
+
+                if ((srcHost == null) || (dstHost == null)) {
+                    log.error("[WNET 2024] hosts not known");
+                    return;
+                }
+
+                DeviceId srcHostLocation = srcHost.location().deviceId();
                 DeviceId dstHostLocation = dstHost.location().deviceId();
 
                 log.info("[WNET 2024] packet received IPV4 from {}", context.inPacket().receivedFrom());
@@ -116,64 +183,19 @@ public class AppComponent {
                 if (currentDeviceId.equals(srcHostLocation)) {
                     log.info("[WNET 2024] packet received IPV4 from {} FISRT HOP !!!", context.inPacket().receivedFrom());
 
-                    //Log warning the path from source to destination
-                    Set<Path> paths = topologyService.getPaths(topologyService.currentTopology(), srcHostLocation, dstHostLocation);
-                    log.warn("[WNET 2024] path is {}", paths.iterator().next());
-
-                    //Install a flow rule in the first switch pushing a VLAN tag
-                    TrafficSelector selector = DefaultTrafficSelector.builder()
-                            .matchInPort(pck.receivedFrom().port())
-                            .matchEthSrc(ethPck.getSourceMAC())
-                            .matchEthDst(ethPck.getDestinationMAC())
-                            .build();
-
-                    TrafficTreatment treatment = DefaultTrafficTreatment.builder()
-                            .pushVlan()
-                            .setVlanId(VlanId.vlanId("222"))
-                            .setOutput(PortNumber.portNumber("3"))
-                            .build();
-
-                    FlowRule firstRule = DefaultFlowRule.builder()
-                            .withSelector(selector)
-                            .withTreatment(treatment)
-                            .forDevice(currentDeviceId)
-                            .fromApp(appId)
-                            .withPriority(20)
-                            .forTable(0)
-                            .withIdleTimeout(60)
-                            .build();
-
-                    flowRuleService.applyFlowRules(firstRule);
+                    tunnelEngine.forward(context, srcHost, dstHost);
+                    return;
                 }
 
                 if (currentDeviceId.equals(dstHostLocation)) {
                     log.info("[WNET 2024] packet received IPV4 from {} LAST HOP !!!", context.inPacket().receivedFrom());
 
-                    TrafficSelector selector = DefaultTrafficSelector.builder()
-                            .matchVlanId(VlanId.vlanId("222"))
-                            .matchInPort(pck.receivedFrom().port())
-                            .matchEthSrc(ethPck.getSourceMAC())
-                            .matchEthDst(ethPck.getDestinationMAC())
-                            .build();
-
-                    TrafficTreatment treatment = DefaultTrafficTreatment.builder()
-                            .popVlan()
-                            .setOutput(PortNumber.portNumber("1"))
-                            .build();
-
-                    FlowRule lastRule = DefaultFlowRule.builder()
-                            .withSelector(selector)
-                            .withTreatment(treatment)
-                            .forDevice(currentDeviceId)
-                            .fromApp(appId)
-                            .withPriority(20)
-                            .forTable(0)
-                            .withIdleTimeout(60)
-                            .build();
-
-                    flowRuleService.applyFlowRules(lastRule);
+                    tunnelEngine.deliver(context, dstHost);
+                    return;
                 }
 
+                log.warn("[WNET 2024] packet received IPV4 from {} TRANSIT HOP, tunnel not ready",
+                         context.inPacket().receivedFrom());
                 return;
             }
 
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleEvent;
+import org.onosproject.net.flow.FlowRuleListener;
+import org.onosproject.net.flow.FlowRuleService;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shadow of the flow rules installed by the app on each device.
+ *
+ * Like the flow rule store, the shadow holds one rule per flow ID, that is
+ * per application, selector and priority on a device; the treatment is what
+ * the rule in that slot does. A rule enters the shadow as pending when it is
+ * sent to the switches and is confirmed by its RULE_ADDED event; its
+ * RULE_REMOVED event, such as an idle timeout, empties the slot again.
+ * Sending a rule that is installed or still pending with the same treatment
+ * is skipped, while a different treatment replaces the rule of the slot and
+ * is sent. Pending rules that are never confirmed stop suppressing after
+ * {@link #PENDING_TIMEOUT_MILLIS}.
+ *
+ * A pending rule remembers the batch it was sent with, so that a requester
+ * whose rule was skipped can wait for that batch rather than assume the rule
+ * is installed.
+ */
+@Component(immediate = true, service = FlowRuleShadow.class)
+public class FlowRuleShadow {
+
+    static final long PENDING_TIMEOUT_MILLIS = 5000;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected FlowRuleService flowRuleService;
+
+    private final InternalFlowRuleListener flowRuleListener = new InternalFlowRuleListener();
+
+    private final Map<DeviceId, Map<Long, Entry>> tables = new ConcurrentHashMap<>();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+
+    @Activate
+    protected void activate() {
+        flowRuleService.addListener(flowRuleListener);
+        log.info("Flow rule shadow started");
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        flowRuleService.removeListener(flowRuleListener);
+        tables.clear();
+        log.info("Flow rule shadow stopped, {} rules suppressed", suppressed());
+    }
+
+    /**
+     * Sorts out the rules that still have to be sent to the switches, marking
+     * them as pending with the given batch.
+     *
+     * @param rules rules about to be installed
+     * @param batch batch the admitted rules are sent with
+     * @return admitted rules, and the batches of the pending rules skipped
+     */
+    public Admission admit(Collection<FlowRule> rules, Object batch) {
+        Admission admission = new Admission(rules.size());
+        long now = System.currentTimeMillis();
+        for (FlowRule rule : rules) {
+            Map<Long, Entry> table = tables.computeIfAbsent(rule.deviceId(), d -> new ConcurrentHashMap<>());
+            Entry[] kept = new Entry[1];
+            table.compute(rule.id().value(), (k, entry) -> {
+                if (entry != null && entry.rule.exactMatch(rule)
+                        && (entry.batch == null || now - entry.since < PENDING_TIMEOUT_MILLIS)) {
+                    kept[0] = entry;
+                    return entry;
+                }
+                return new Entry(rule, batch, now);
+            });
+            if (kept[0] == null) {
+                admission.rules.add(rule);
+            } else if (kept[0].batch != null) {
+                admission.waitFor(kept[0].batch);
+            }
+        }
+        admitted.add(admission.rules.size());
+        suppressed.add(rules.size() - admission.rules.size());
+        return admission;
+    }
+
+    /**
+     * Takes rules out of the shadow, so that they are sent again next time,
+     * for instance after their installation failed. A slot already holding
+     * another treatment is left alone.
+     *
+     * @param rules rules to forget
+     */
+    public void forget(Collection<FlowRule> rules) {
+        for (FlowRule rule : rules) {
+            Map<Long, Entry> table = tables.get(rule.deviceId());
+            if (table != null) {
+                table.computeIfPresent(rule.id().value(), (k, entry) -> entry.rule.exactMatch(rule) ? null : entry);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of rules in the shadow, pending ones included.
+     *
+     * @return rule count
+     */
+    public int size() {
+        int size = 0;
+        for (Map<Long, Entry> table : tables.values()) {
+            size += table.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of rules let through to the switches.
+     *
+     * @return rule count
+     */
+    public long admitted() {
+        return admitted.sum();
+    }
+
+    /**
+     * Returns the number of redundant rules skipped.
+     *
+     * @return rule count
+     */
+    public long suppressed() {
+        return suppressed.sum();
+    }
+
+    // The rule of the slot is gone from the switch, whatever it did.
+    private void remove(FlowRule rule) {
+        Map<Long, Entry> table = tables.get(rule.deviceId());
+        if (table != null) {
+            table.remove(rule.id().value());
+        }
+    }
+
+    private void confirm(FlowRule rule) {
+        Map<Long, Entry> table = tables.get(rule.deviceId());
+        if (table != null) {
+            table.computeIfPresent(rule.id().value(), (k, entry) ->
+                    entry.batch != null && entry.rule.exactMatch(rule) ? new Entry(entry.rule, null, entry.since) : entry);
+        }
+    }
+
+    /**
+     * Rules to send, and the batches carrying the pending rules that were
+     * skipped in their favour.
+     */
+    public static final class Admission {
+        private final List<FlowRule> rules;
+        private Set<Object> inFlight = Collections.emptySet();
+
+        private Admission(int size) {
+            rules = new ArrayList<>(size);
+        }
+
+        private void waitFor(Object batch) {
+            if (inFlight.isEmpty()) {
+                inFlight = Collections.newSetFromMap(new IdentityHashMap<>());
+            }
+            inFlight.add(batch);
+        }
+
+        /**
+         * Returns the rules to send, in the order they were given.
+         *
+         * @return admitted rules
+         */
+        public List<FlowRule> rules() {
+            return rules;
+        }
+
+        /**
+         * Returns the batches of the skipped rules that are not confirmed yet.
+         *
+         * @return batches, compared by identity
+         */
+        public Set<Object> inFlight() {
+            return inFlight;
+        }
+    }
+
+    // A rule sent with a batch, pending until confirmed; confirmed rules have no batch.
+    private static final class Entry {
+        private final FlowRule rule;
+        private final Object batch;
+        private final long since;
+
+        private Entry(FlowRule rule, Object batch, long since) {
+            this.rule = rule;
+            this.batch = batch;
+            this.since = since;
+        }
+    }
+
+    // Only rules already in the shadow are tracked, the others are not ours
+    private class InternalFlowRuleListener implements FlowRuleListener {
+        @Override
+        public void event(FlowRuleEvent event) {
+            switch (event.type()) {
+                case RULE_ADDED:
+                case RULE_UPDATED:
+                    confirm(event.subject());
+                    break;
+                case RULE_REMOVED:
+                    remove(event.subject());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.Host;
+import org.onosproject.net.HostId;
+import org.onosproject.net.host.HostEvent;
+import org.onosproject.net.host.HostListener;
+import org.onosproject.net.host.HostService;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local MAC-to-host cache for the packet processor.
+ *
+ * Hosts are indexed by their 48-bit MAC address, stored as a primitive long
+ * in an open-addressing table, and the table is kept coherent with the host
+ * store by a {@link HostListener}. Lookups take no lock and allocate nothing.
+ * Only the listener thread writes the table; a reader racing with a write may
+ * see a slot being moved, so every hit is checked against the MAC of the host
+ * found and anything inconsistent is served by the host service instead.
+ * Lookups that miss are never written back, so a host removed from the store
+ * cannot be brought back by a late packet-in. Slots are published through
+ * atomic arrays, the host before its key, so a reader that sees a key also
+ * sees the host stored with it.
+ *
+ * The listener is registered before the store is read, so no event is
+ * missed; a host that an event changed while the store was being read is
+ * left as the event set it, since the store copy may predate the event.
+ */
+@Component(immediate = true, service = HostLocationCache.class)
+public class HostLocationCache {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long PRESENT = 1L << 48;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected HostService hostService;
+
+    private final InternalHostListener hostListener = new InternalHostListener();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+
+    // keys changed by an event while the store is being read, null once it is read
+    private Set<Long> changed;
+
+    @Activate
+    protected void activate() {
+        synchronized (this) {
+            changed = new HashSet<>();
+        }
+        hostService.addListener(hostListener);
+        for (Host host : hostService.getHosts()) {
+            load(host);
+        }
+        synchronized (this) {
+            changed = null;
+        }
+        log.info("Host location cache started with {} hosts", table.size);
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        hostService.removeListener(hostListener);
+        log.info("Host location cache stopped, {} hits {} misses", hits(), misses());
+    }
+
+    /**
+     * Returns the host with the given MAC address, if known.
+     *
+     * @param mac MAC address of the host
+     * @return host or null if the host is not known
+     */
+    public Host getHost(MacAddress mac) {
+        long key = mac.toLong() | PRESENT;
+        Table t = table;
+        AtomicLongArray keys = t.keys;
+        int mask = keys.length() - 1;
+        for (int i = index(key, mask); keys.get(i) != 0; i = (i + 1) & mask) {
+            if (keys.get(i) == key) {
+                Host host = t.hosts.get(i);
+                if (host != null && (host.mac().toLong() | PRESENT) == key) {
+                    hits.increment();
+                    return host;
+                }
+                break;
+            }
+        }
+
+        misses.increment();
+        return hostService.getHost(HostId.hostId(mac));
+    }
+
+    /**
+     * Returns the number of lookups served by the cache.
+     *
+     * @return hit count
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that went to the host service.
+     *
+     * @return miss count
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of cached hosts.
+     *
+     * @return cache size
+     */
+    public int size() {
+        return table.size;
+    }
+
+    // Caches a host read from the store, unless an event got there first.
+    private synchronized void load(Host host) {
+        if (!changed.contains(host.mac().toLong())) {
+            put(host);
+        }
+    }
+
+    // Applies a host event, noting its hosts while the store is being read.
+    private synchronized void apply(HostEvent event) {
+        Host prev = event.prevSubject();
+        if (changed != null) {
+            changed.add(event.subject().mac().toLong());
+            if (prev != null) {
+                changed.add(prev.mac().toLong());
+            }
+        }
+        switch (event.type()) {
+            case HOST_ADDED:
+            case HOST_MOVED:
+            case HOST_UPDATED:
+                if (prev != null && !prev.mac().equals(event.subject().mac())) {
+                    remove(prev);
+                }
+                put(event.subject());
+                break;
+            case HOST_REMOVED:
+                remove(event.subject());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private synchronized void put(Host host) {
+        if (!VlanId.NONE.equals(host.vlan())) {
+            return;
+        }
+        long key = host.mac().toLong() | PRESENT;
+        Table t = table;
+        AtomicLongArray keys = t.keys;
+        int mask = keys.length() - 1;
+        int i = index(key, mask);
+        while (keys.get(i) != 0 && keys.get(i) != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys.get(i) == 0) {
+            if ((t.size + 1) * 2 > keys.length()) {
+                table = t.resized();
+                put(host);
+                return;
+            }
+            t.hosts.set(i, host);
+            keys.set(i, key);
+            t.size++;
+        } else {
+            t.hosts.set(i, host);
+        }
+    }
+
+    private synchronized void remove(Host host) {
+        if (!VlanId.NONE.equals(host.vlan())) {
+            return;
+        }
+        long key = host.mac().toLong() | PRESENT;
+        Table t = table;
+        AtomicLongArray keys = t.keys;
+        int mask = keys.length() - 1;
+        int hole = index(key, mask);
+        while (keys.get(hole) != key) {
+            if (keys.get(hole) == 0) {
+                return;
+            }
+            hole = (hole + 1) & mask;
+        }
+
+        // backward-shift deletion keeps the probe sequences intact
+        for (int i = (hole + 1) & mask; keys.get(i) != 0; i = (i + 1) & mask) {
+            int home = index(keys.get(i), mask);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                t.hosts.set(hole, t.hosts.get(i));
+                keys.set(hole, keys.get(i));
+                hole = i;
+            }
+        }
+        keys.set(hole, 0);
+        t.hosts.set(hole, null);
+        t.size--;
+    }
+
+    private static int index(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static final class Table {
+        private final AtomicLongArray keys;
+        private final AtomicReferenceArray<Host> hosts;
+        private int size;
+
+        private Table(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            hosts = new AtomicReferenceArray<>(capacity);
+        }
+
+        private Table resized() {
+            Table t = new Table(keys.length() * 2);
+            int mask = t.keys.length() - 1;
+            for (int j = 0; j < keys.length(); j++) {
+                long key = keys.get(j);
+                if (key == 0) {
+                    continue;
+                }
+                int i = index(key, mask);
+                while (t.keys.get(i) != 0) {
+                    i = (i + 1) & mask;
+                }
+                t.hosts.set(i, hosts.get(j));
+                t.keys.set(i, key);
+            }
+            t.size = size;
+            return t;
+        }
+    }
+
+    private class InternalHostListener implements HostListener {
+        @Override
+        public void event(HostEvent event) {
+            apply(event);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import org.onlab.graph.Weight;
+import org.onosproject.event.Event;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.link.LinkEvent;
+import org.onosproject.net.topology.Topology;
+import org.onosproject.net.topology.TopologyEvent;
+import org.onosproject.net.topology.TopologyListener;
+import org.onosproject.net.topology.TopologyService;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Cache of the paths between pairs of devices.
+ *
+ * The paths of a pair are its equal-cost shortest paths, up to
+ * {@link #MAX_PATHS} of them, taken from a k-shortest-paths search that is
+ * stopped at the first longer path. Paths are weighed by the link load
+ * weigher, and the whole cache is flushed when its costs change.
+ *
+ * Entries are bounded in number and evicted in approximate LRU order by a
+ * segmented Guava cache, so concurrent lookups do not contend on a single
+ * lock. Topology events invalidate selectively: when a link or a device
+ * goes away or changes, only the entries whose paths traverse it are
+ * dropped. Additions may open shorter paths for any pair, so they flush the
+ * whole cache.
+ */
+@Component(immediate = true, service = PathCache.class)
+public class PathCache {
+
+    private static final int MAX_ENTRIES = 4096;
+    static final int MAX_PATHS = 8;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected TopologyService topologyService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected LinkLoadWeigher linkWeigher;
+
+    private final InternalTopologyListener topologyListener = new InternalTopologyListener();
+
+    private final Cache<PathKey, Set<Path>> cache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .build();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder computeNanos = new LongAdder();
+
+    // advanced before every invalidation, so that a lookup racing with it
+    // can tell that the paths it computed may be stale
+    private final AtomicLong epoch = new AtomicLong();
+    private volatile long weigherEpoch;
+
+    @Activate
+    protected void activate() {
+        topologyService.addListener(topologyListener);
+        log.info("Path cache started");
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        topologyService.removeListener(topologyListener);
+        clear();
+        log.info("Path cache stopped, hit ratio {}", hitRatio());
+    }
+
+    /**
+     * Returns the paths from the source to the destination device on the
+     * current topology, computing them only when they are not cached.
+     *
+     * @param src source device
+     * @param dst destination device
+     * @return set of paths, possibly empty
+     */
+    public Set<Path> getPaths(DeviceId src, DeviceId dst) {
+        long costEpoch = linkWeigher.epoch();
+        if (costEpoch != weigherEpoch) {
+            // paths cached with the previous link costs may no longer be the cheapest
+            weigherEpoch = costEpoch;
+            clear();
+        }
+
+        PathKey key = new PathKey(src, dst);
+        Set<Path> paths = cache.getIfPresent(key);
+        if (paths != null) {
+            hits.increment();
+            return paths;
+        }
+
+        misses.increment();
+        long startEpoch = epoch.get();
+        long start = System.nanoTime();
+        Topology topology = topologyService.currentTopology();
+        paths = equalCostPaths(topologyService.getKShortestPaths(topology, src, dst, linkWeigher));
+        computeNanos.add(System.nanoTime() - start);
+
+        cache.put(key, paths);
+        if (epoch.get() != startEpoch) {
+            // computed on a topology invalidated meanwhile, the invalidation
+            // may have run before the entry was added
+            cache.asMap().remove(key, paths);
+        }
+        return paths;
+    }
+
+    /**
+     * Drops every cached path.
+     */
+    public void clear() {
+        epoch.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the number of cached device pairs.
+     *
+     * @return cache size
+     */
+    public int size() {
+        return (int) cache.size();
+    }
+
+    /**
+     * Returns the number of lookups served by the cache.
+     *
+     * @return hit count
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that computed the paths.
+     *
+     * @return miss count
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups served by the cache.
+     *
+     * @return hit ratio between 0 and 1
+     */
+    public double hitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Returns an estimate of the path computation time saved by the cache,
+     * i.e. the hits times the mean computation time of the misses.
+     *
+     * @return saved time in nanoseconds
+     */
+    public long savedNanos() {
+        long m = misses.sum();
+        return m == 0 ? 0 : hits.sum() * (computeNanos.sum() / m);
+    }
+
+    // Leading paths of a shortest-first stream sharing the weight of the first one.
+    private static Set<Path> equalCostPaths(Stream<Path> candidates) {
+        ImmutableSet.Builder<Path> paths = ImmutableSet.builder();
+        Iterator<Path> it = candidates.iterator();
+        Weight shortest = null;
+        for (int n = 0; n < MAX_PATHS && it.hasNext(); n++) {
+            Path path = it.next();
+            if (shortest == null) {
+                shortest = path.weight();
+            } else if (path.weight().compareTo(shortest) > 0) {
+                break;
+            }
+            paths.add(path);
+        }
+        return paths.build();
+    }
+
+    private void invalidate(Link link) {
+        epoch.incrementAndGet();
+        cache.asMap().values().removeIf(paths -> traverses(paths, link));
+    }
+
+    private void invalidate(DeviceId deviceId) {
+        epoch.incrementAndGet();
+        cache.asMap().entrySet().removeIf(entry -> entry.getKey().src.equals(deviceId)
+                || entry.getKey().dst.equals(deviceId)
+                || traverses(entry.getValue(), deviceId));
+    }
+
+    private static boolean traverses(Set<Path> paths, Link link) {
+        for (Path path : paths) {
+            for (Link l : path.links()) {
+                if (l.src().equals(link.src()) && l.dst().equals(link.dst())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean traverses(Set<Path> paths, DeviceId deviceId) {
+        for (Path path : paths) {
+            for (Link l : path.links()) {
+                if (l.src().deviceId().equals(deviceId) || l.dst().deviceId().equals(deviceId)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private class InternalTopologyListener implements TopologyListener {
+        @Override
+        public void event(TopologyEvent event) {
+            if (event.reasons() == null || event.reasons().isEmpty()) {
+                clear();
+                return;
+            }
+
+            for (Event<?, ?> reason : event.reasons()) {
+                if (reason instanceof LinkEvent) {
+                    LinkEvent linkEvent = (LinkEvent) reason;
+                    if (linkEvent.type() == LinkEvent.Type.LINK_ADDED) {
+                        clear();
+                    } else {
+                        invalidate(linkEvent.subject());
+                    }
+                } else if (reason instanceof DeviceEvent) {
+                    DeviceEvent deviceEvent = (DeviceEvent) reason;
+                    Device device = deviceEvent.subject();
+                    if (deviceEvent.type() == DeviceEvent.Type.DEVICE_ADDED) {
+                        clear();
+                    } else {
+                        invalidate(device.id());
+                    }
+                } else {
+                    clear();
+                }
+            }
+        }
+    }
+
+    private static final class PathKey {
+        private final DeviceId src;
+        private final DeviceId dst;
+
+        private PathKey(DeviceId src, DeviceId dst) {
+            this.src = src;
+            this.dst = dst;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(src, dst);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof PathKey)) {
+                return false;
+            }
+            PathKey that = (PathKey) obj;
+            return src.equals(that.src) && dst.equals(that.dst);
+        }
+    }
+}
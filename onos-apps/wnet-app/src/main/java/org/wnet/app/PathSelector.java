@@ -0,0 +1,256 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import org.onlab.packet.VlanId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.PortNumber;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spreads the tunnels over the equal-cost paths, one destination at a time.
+ *
+ * Transit rules match the tunnel VLAN alone, so the paths towards a
+ * destination must agree on the next hop at every device they share: they
+ * form a tree rooted at the destination. The selector keeps that tree for
+ * each destination and grows it one source at a time. Among the equal-cost
+ * paths of a new source, those that agree with the tree wherever they cross
+ * it are kept, and the one whose busiest link is the least utilized, as
+ * last sampled by the link load weigher, wins. A path is only picked against the
+ * tree when none agrees with it, for instance after a topology change; its
+ * hops then replace those of the tree.
+ *
+ * A tree lives as long as the VLAN of its destination, so the load is taken
+ * into account whenever a destination gets a VLAN, and whenever a
+ * proactive resync plans the whole tree again. The tree of a resync moves
+ * off its previous paths only for a path at least two utilization bands
+ * lighter, so that the traffic it moves does not send it back at the next
+ * resync.
+ */
+@Component(immediate = true, service = PathSelector.class)
+public class PathSelector {
+
+    // utilization bands a path departing from the previous tree is charged with
+    private static final int STAY_BIAS_BANDS = 1;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected LinkLoadWeigher linkWeigher;
+
+    private final ConcurrentMap<ConnectPoint, Tree> trees = new ConcurrentHashMap<>();
+
+    private final LongAdder selections = new LongAdder();
+    private final LongAdder balanced = new LongAdder();
+    private final LongAdder rerouted = new LongAdder();
+
+    /**
+     * Selects the path of a source towards a destination and adds it to the
+     * tree of the destination. The tree is started afresh when the
+     * destination has a VLAN other than the one of its tree.
+     *
+     * @param destination destination edge port
+     * @param vlanId      VLAN of the destination
+     * @param paths       equal-cost paths from the source device, not empty
+     * @return selected path
+     */
+    public Path select(ConnectPoint destination, VlanId vlanId, Set<Path> paths) {
+        Tree tree = trees.compute(key(destination), (d, t) -> t != null && t.vlanId.equals(vlanId) ? t : new Tree(vlanId));
+        synchronized (tree) {
+            Path path = select(paths, tree.nextHops, Collections.emptyMap());
+            for (Link link : path.links()) {
+                tree.nextHops.put(link.src().deviceId(), link.src().port());
+            }
+            return path;
+        }
+    }
+
+    /**
+     * Selects the path of a source joining a tree being planned: the
+     * lightest path agreeing with the tree, or the lightest path if none
+     * does. Neither tree is modified.
+     *
+     * @param paths    equal-cost paths from the source device, not empty
+     * @param nextHops next hop of every device of the tree so far
+     * @param previous next hops of the tree the planned one replaces, which
+     *                 the selection leans towards
+     * @return selected path
+     */
+    public Path select(Set<Path> paths, Map<DeviceId, PortNumber> nextHops, Map<DeviceId, PortNumber> previous) {
+        selections.increment();
+        Path best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        int agreeing = 0;
+        for (Path path : paths) {
+            if (!agrees(path, nextHops)) {
+                continue;
+            }
+            agreeing++;
+            // in half bands, so that a tie goes to the previous tree
+            int load = 2 * bottleneck(path);
+            if (!agrees(path, previous)) {
+                load += 2 * STAY_BIAS_BANDS + 1;
+            }
+            if (load < bestLoad) {
+                bestLoad = load;
+                best = path;
+            }
+        }
+        if (agreeing > 1) {
+            balanced.increment();
+        }
+        if (best != null) {
+            return best;
+        }
+
+        rerouted.increment();
+        for (Path path : paths) {
+            int load = bottleneck(path);
+            if (load < bestLoad) {
+                bestLoad = load;
+                best = path;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the next hops of the tree of a destination.
+     *
+     * @param destination destination edge port
+     * @return copy of the next hop of every device, empty if there is no tree
+     */
+    public Map<DeviceId, PortNumber> tree(ConnectPoint destination) {
+        Tree tree = trees.get(key(destination));
+        if (tree == null) {
+            return Collections.emptyMap();
+        }
+        synchronized (tree) {
+            return new HashMap<>(tree.nextHops);
+        }
+    }
+
+    /**
+     * Makes a planned tree the tree of a destination, so that the tunnels
+     * set up on demand towards it join the planned paths.
+     *
+     * @param destination destination edge port
+     * @param vlanId      VLAN of the destination
+     * @param nextHops    next hop of every device of the tree
+     */
+    public void replace(ConnectPoint destination, VlanId vlanId, Map<DeviceId, PortNumber> nextHops) {
+        Tree tree = new Tree(vlanId);
+        tree.nextHops.putAll(nextHops);
+        trees.put(key(destination), tree);
+    }
+
+    /**
+     * Drops the tree of a destination whose VLAN was released.
+     *
+     * @param destination destination edge port
+     * @param vlanId      released VLAN
+     */
+    public void forget(ConnectPoint destination, VlanId vlanId) {
+        trees.computeIfPresent(key(destination), (d, t) -> t.vlanId.equals(vlanId) ? null : t);
+    }
+
+    /**
+     * Returns the number of destinations with a tree.
+     *
+     * @return tree count
+     */
+    public int trees() {
+        return trees.size();
+    }
+
+    /**
+     * Returns the number of paths selected.
+     *
+     * @return selection count
+     */
+    public long selections() {
+        return selections.sum();
+    }
+
+    /**
+     * Returns the number of selections made among several paths agreeing
+     * with their tree.
+     *
+     * @return selection count
+     */
+    public long balanced() {
+        return balanced.sum();
+    }
+
+    /**
+     * Returns the number of paths selected against their tree, because no
+     * path agreed with it.
+     *
+     * @return selection count
+     */
+    public long rerouted() {
+        return rerouted.sum();
+    }
+
+    // Whether the path leaves every device of the tree it crosses by the port of the tree.
+    private static boolean agrees(Path path, Map<DeviceId, PortNumber> nextHops) {
+        for (Link link : path.links()) {
+            PortNumber port = nextHops.get(link.src().deviceId());
+            if (port != null && !port.equals(link.src().port())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Utilization band of the busiest link of a path, 0 while it is not sampled.
+    private int bottleneck(Path path) {
+        int max = 0;
+        for (Link link : path.links()) {
+            max = Math.max(max, linkWeigher.utilization(link));
+        }
+        return max;
+    }
+
+    // host locations also compare their timestamp, keep the bare port
+    private static ConnectPoint key(ConnectPoint cp) {
+        return cp.getClass() == ConnectPoint.class ? cp : new ConnectPoint(cp.elementId(), cp.port());
+    }
+
+    /**
+     * Next hops towards a destination, for the VLAN it has.
+     */
+    private static final class Tree {
+        private final VlanId vlanId;
+        // guarded by the tree
+        private final Map<DeviceId, PortNumber> nextHops = new HashMap<>();
+
+        private Tree(VlanId vlanId) {
+            this.vlanId = vlanId;
+        }
+    }
+}
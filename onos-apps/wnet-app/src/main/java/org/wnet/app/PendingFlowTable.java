@@ -0,0 +1,262 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import org.onlab.packet.MacAddress;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.TrafficTreatment;
+import org.onosproject.net.packet.DefaultOutboundPacket;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketService;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flows whose rules are being installed, keyed by source and destination MAC.
+ *
+ * The first packet-in of a flow claims it and sets up its path. The packets
+ * of the same flow punted before the rules are in place are parked in a
+ * small per-flow buffer instead of setting up the path again, and are sent
+ * along the path together with the first packet once it is ready. Packets
+ * beyond the buffer are dropped, as a switch would without a rule. A flow
+ * not released within {@link #PENDING_TIMEOUT_MILLIS}, for instance because
+ * its rules failed to install, is claimed again by its next packet.
+ *
+ * The claim handed out by {@link #park} is what ends the set up, so a late
+ * release or abort can only end its own set up, never the one that took
+ * over the flow after a timeout. A packet that finds the set up ending while
+ * it parks claims the flow again rather than being left behind.
+ */
+@Component(immediate = true, service = PendingFlowTable.class)
+public class PendingFlowTable {
+
+    static final int MAX_PARKED = 16;
+    static final long PENDING_TIMEOUT_MILLIS = 2000;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected PacketService packetService;
+
+    private final Map<FlowKey, Pending> flows = new ConcurrentHashMap<>();
+
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder parked = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    @Deactivate
+    protected void deactivate() {
+        flows.clear();
+        log.info("Pending flow table stopped, {} packets parked, {} dropped", parked(), dropped());
+    }
+
+    /**
+     * Claims the set up of the flow of a packet-in, or parks the packet if
+     * the flow is already being set up.
+     *
+     * @param src     source MAC of the flow
+     * @param dst     destination MAC of the flow
+     * @param context packet context of the packet-in
+     * @return null if the packet was parked, otherwise the claim the caller
+     *         has to release or abort once it has set up the flow
+     */
+    public Pending park(MacAddress src, MacAddress dst, PacketContext context) {
+        FlowKey key = new FlowKey(src, dst);
+        while (true) {
+            long now = System.currentTimeMillis();
+            Pending[] claim = new Pending[1];
+            Pending[] expired = new Pending[1];
+            Pending pending = flows.compute(key, (k, current) -> {
+                if (current != null && now - current.since < PENDING_TIMEOUT_MILLIS) {
+                    return current;
+                }
+                expired[0] = current;
+                claim[0] = new Pending(key, now);
+                return claim[0];
+            });
+            if (expired[0] != null) {
+                close(expired[0]);
+            }
+            if (claim[0] != null) {
+                claimed.increment();
+                return claim[0];
+            }
+
+            synchronized (pending) {
+                if (pending.closed) {
+                    // released or aborted meanwhile, the flow is free again
+                    continue;
+                }
+                context.block();
+                if (pending.packets.size() < MAX_PARKED) {
+                    pending.packets.add(context.inPacket().unparsed());
+                    parked.increment();
+                } else {
+                    dropped.increment();
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Ends the set up of a flow, sending its parked packets out of the given
+     * device with the treatment of the first packet.
+     *
+     * @param pending   claim returned by {@link #park}
+     * @param deviceId  device the packets entered the network from
+     * @param treatment treatment sending the packets along the path
+     */
+    public void release(Pending pending, DeviceId deviceId, TrafficTreatment treatment) {
+        flows.remove(pending.key, pending);
+        List<ByteBuffer> packets;
+        synchronized (pending) {
+            if (pending.closed) {
+                return;
+            }
+            pending.closed = true;
+            packets = new ArrayList<>(pending.packets);
+            pending.packets.clear();
+        }
+        for (ByteBuffer packet : packets) {
+            packetService.emit(new DefaultOutboundPacket(deviceId, treatment, packet));
+        }
+        released.add(packets.size());
+    }
+
+    /**
+     * Ends the set up of a flow that could not be set up, dropping its
+     * parked packets.
+     *
+     * @param pending claim returned by {@link #park}
+     */
+    public void abort(Pending pending) {
+        flows.remove(pending.key, pending);
+        close(pending);
+    }
+
+    // Drops the parked packets of a set up that is over, unless it was released.
+    private void close(Pending pending) {
+        synchronized (pending) {
+            if (!pending.closed) {
+                pending.closed = true;
+                dropped.add(pending.packets.size());
+                pending.packets.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of flows being set up.
+     *
+     * @return flow count
+     */
+    public int size() {
+        return flows.size();
+    }
+
+    /**
+     * Returns the number of flow set ups claimed.
+     *
+     * @return claim count
+     */
+    public long claimed() {
+        return claimed.sum();
+    }
+
+    /**
+     * Returns the number of packets parked behind a flow being set up.
+     *
+     * @return packet count
+     */
+    public long parked() {
+        return parked.sum();
+    }
+
+    /**
+     * Returns the number of parked packets sent along their path.
+     *
+     * @return packet count
+     */
+    public long released() {
+        return released.sum();
+    }
+
+    /**
+     * Returns the number of packets dropped, beyond the buffer of their flow
+     * or parked behind a set up that failed.
+     *
+     * @return packet count
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Set up of a flow claimed by a packet-in.
+     */
+    public static final class Pending {
+        private final FlowKey key;
+        private final long since;
+        // guarded by the pending flow
+        private final List<ByteBuffer> packets = new ArrayList<>(2);
+        private boolean closed;
+
+        private Pending(FlowKey key, long since) {
+            this.key = key;
+            this.since = since;
+        }
+    }
+
+    private static final class FlowKey {
+        private final long src;
+        private final long dst;
+
+        private FlowKey(MacAddress src, MacAddress dst) {
+            this.src = src.toLong();
+            this.dst = dst.toLong();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(src) + Long.hashCode(dst);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FlowKey)) {
+                return false;
+            }
+            FlowKey that = (FlowKey) obj;
+            return src == that.src && dst == that.dst;
+        }
+    }
+}
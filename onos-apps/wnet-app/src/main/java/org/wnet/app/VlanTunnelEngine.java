@@ -0,0 +1,387 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.VlanId;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleService;
+import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.flow.TrafficTreatment;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.criteria.VlanIdCriterion;
+import org.onosproject.net.flow.instructions.Instruction;
+import org.onosproject.net.flow.instructions.L2ModificationInstruction;
+import org.onosproject.net.packet.DefaultOutboundPacket;
+import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketService;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Sets up VLAN tunnels along the shortest paths towards the destination
+ * hosts.
+ *
+ * Every destination edge port gets its own VLAN from a {@link VlanPool}. The
+ * first switch tags the packets of a flow with the VLAN of their destination,
+ * transit switches and the last switch match the VLAN alone, so the core
+ * holds one rule per destination rather than one per host pair. On the first
+ * packet of a flow every hop is programmed at once, with all ports taken from
+ * the computed path, so a flow costs a single packet-in. The rules go through
+ * a {@link FlowRuleBatcher} and the triggering packet is sent back into the
+ * network only once the whole path is installed. Packets of the same flow
+ * punted meanwhile wait in the {@link PendingFlowTable} and follow it.
+ *
+ * Tunnels towards the same destination share their transit rules. Paths are
+ * shortest paths, and any suffix of a shortest path is itself a shortest
+ * path, so a transit rule rewritten by another source keeps leading to the
+ * destination. Among the equal-cost paths, the {@link PathSelector} picks the
+ * ones that keep the tunnels of a destination on a single tree, where each
+ * device has one next hop, leaning towards the least loaded paths.
+ */
+public class VlanTunnelEngine {
+
+    private static final int PRIORITY = 20;
+    static final long RECLAIM_GRACE_MILLIS = 1000;
+
+    private final ApplicationId appId;
+    private final FlowRuleService flowRuleService;
+    private final FlowRuleBatcher ruleBatcher;
+    private final PacketService packetService;
+    private final PathCache pathCache;
+    private final PathSelector pathSelector;
+    private final VlanPool vlanPool;
+    private final PendingFlowTable pendingFlows;
+    private final int idleTimeout;
+    private final Logger log;
+
+    // tunnel VLAN of every rule on the switches, and how many such rules each VLAN has
+    private final ConcurrentMap<FlowId, VlanId> liveRules = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray liveCounts = new AtomicIntegerArray(VlanPool.MAX_VLAN + 1);
+    private final ScheduledExecutorService reclaimer;
+
+    /**
+     * Creates a new tunnel engine.
+     *
+     * @param appId           application installing the rules
+     * @param flowRuleService flow rule service
+     * @param ruleBatcher     batcher installing the rules
+     * @param packetService   packet service used to send the triggering packets
+     * @param pathCache       cache used to compute the paths
+     * @param pathSelector    selector of the tunnel trees among equal-cost paths
+     * @param vlanPool        pool of the tunnel VLANs
+     * @param pendingFlows    flows being set up
+     * @param idleTimeout     idle timeout of the rules in seconds, 0 for permanent rules
+     * @param log             logger
+     */
+    public VlanTunnelEngine(ApplicationId appId, FlowRuleService flowRuleService,
+                            FlowRuleBatcher ruleBatcher, PacketService packetService,
+                            PathCache pathCache, PathSelector pathSelector, VlanPool vlanPool,
+                            PendingFlowTable pendingFlows, int idleTimeout, Logger log) {
+        this.appId = appId;
+        this.flowRuleService = flowRuleService;
+        this.ruleBatcher = ruleBatcher;
+        this.packetService = packetService;
+        this.pathCache = pathCache;
+        this.pathSelector = pathSelector;
+        this.vlanPool = vlanPool;
+        this.pendingFlows = pendingFlows;
+        this.idleTimeout = idleTimeout;
+        this.log = log;
+        this.reclaimer = Executors.newSingleThreadScheduledExecutor(
+                groupedThreads("onos/wnet", "vlan-reclaim-%d", log));
+    }
+
+    /**
+     * Stops the pending reclaim checks.
+     */
+    public void stop() {
+        reclaimer.shutdownNow();
+    }
+
+    /**
+     * Installs the tunnel from the source to the destination host and sends
+     * the triggering packet into it. Must be called on the first hop.
+     *
+     * @param context packet context of the triggering packet-in
+     * @param srcHost source host
+     * @param dstHost destination host
+     */
+    public void forward(PacketContext context, Host srcHost, Host dstHost) {
+        DeviceId srcDevice = srcHost.location().deviceId();
+        DeviceId dstDevice = dstHost.location().deviceId();
+        PortNumber inPort = context.inPacket().receivedFrom().port();
+
+        PendingFlowTable.Pending pending = pendingFlows.park(srcHost.mac(), dstHost.mac(), context);
+        if (pending == null) {
+            return;
+        }
+
+        if (srcDevice.equals(dstDevice)) {
+            TrafficSelector selector = DefaultTrafficSelector.builder()
+                    .matchInPort(inPort)
+                    .matchEthSrc(srcHost.mac())
+                    .matchEthDst(dstHost.mac())
+                    .build();
+
+            TrafficTreatment treatment = DefaultTrafficTreatment.builder()
+                    .setOutput(dstHost.location().port())
+                    .build();
+
+            install(context, pending, Collections.emptyList(), rule(srcDevice, selector, treatment), treatment);
+            return;
+        }
+
+        Set<Path> paths = pathCache.getPaths(srcDevice, dstDevice);
+        if (paths.isEmpty()) {
+            log.error("[WNET 2024] no path between {} and {}", srcDevice, dstDevice);
+            pendingFlows.abort(pending);
+            return;
+        }
+
+        VlanId vlanId = vlanPool.allocate(dstHost.location());
+        if (vlanId == null) {
+            log.error("[WNET 2024] no VLAN left for destination {}", dstHost.location());
+            pendingFlows.abort(pending);
+            return;
+        }
+
+        Path path = pathSelector.select(dstHost.location(), vlanId, paths);
+        log.warn("[WNET 2024] path is {} on VLAN {}", path, vlanId);
+
+        List<Link> links = path.links();
+        List<FlowRule> rules = new ArrayList<>(links.size());
+
+        TrafficSelector tunnelSelector = DefaultTrafficSelector.builder()
+                .matchVlanId(vlanId)
+                .build();
+
+        TrafficTreatment lastTreatment = DefaultTrafficTreatment.builder()
+                .popVlan()
+                .setOutput(dstHost.location().port())
+                .build();
+        rules.add(rule(dstDevice, tunnelSelector, lastTreatment));
+
+        for (int i = links.size() - 1; i > 0; i--) {
+            TrafficTreatment treatment = DefaultTrafficTreatment.builder()
+                    .setOutput(links.get(i).src().port())
+                    .build();
+            rules.add(rule(links.get(i).src().deviceId(), tunnelSelector, treatment));
+        }
+
+        PortNumber firstPort = links.get(0).src().port();
+        TrafficSelector firstSelector = DefaultTrafficSelector.builder()
+                .matchInPort(inPort)
+                .matchEthDst(dstHost.mac())
+                .build();
+        TrafficTreatment firstTreatment = DefaultTrafficTreatment.builder()
+                .pushVlan()
+                .setVlanId(vlanId)
+                .setOutput(firstPort)
+                .build();
+        FlowRule firstRule = rule(srcDevice, firstSelector, firstTreatment);
+
+        // the packet skips the first-hop rule, so it is tagged here
+        TrafficTreatment packetTreatment = DefaultTrafficTreatment.builder()
+                .pushVlan()
+                .setVlanId(vlanId)
+                .setOutput(firstPort)
+                .build();
+
+        install(context, pending, rules, firstRule, packetTreatment);
+        log.info("[WNET 2024] tunnel {} -> {} queued for {} devices",
+                 srcHost.mac(), dstHost.mac(), rules.size() + 1);
+    }
+
+    // Queues the rules and holds the packet, and those parked behind it, until all of them are installed;
+    // if they fail, the packets are dropped and the next packet-in of the flow tries again.
+    private void install(PacketContext context, PendingFlowTable.Pending pending, List<FlowRule> rules,
+                         FlowRule firstRule, TrafficTreatment packetTreatment) {
+        context.block();
+        DeviceId deviceId = context.inPacket().receivedFrom().deviceId();
+        OutboundPacket packet = new DefaultOutboundPacket(deviceId, packetTreatment,
+                                                          context.inPacket().unparsed());
+        ruleBatcher.install(rules, Collections.singletonList(firstRule), () -> {
+            packetService.emit(packet);
+            pendingFlows.release(pending, deviceId, packetTreatment);
+        }, () -> pendingFlows.abort(pending));
+    }
+
+    /**
+     * Delivers a packet that reached the last hop before its tunnel was
+     * ready, removing the tunnel tag if present.
+     *
+     * @param context packet context of the packet-in
+     * @param dstHost destination host
+     */
+    public void deliver(PacketContext context, Host dstHost) {
+        Ethernet ethPck = context.inPacket().parsed();
+        if (ethPck.getVlanID() != Ethernet.VLAN_UNTAGGED) {
+            context.treatmentBuilder().popVlan();
+        }
+        context.treatmentBuilder().setOutput(dstHost.location().port());
+        context.send();
+    }
+
+    /**
+     * Tears down the tunnel towards a destination edge port that has no host
+     * left, and returns its VLAN to the pool. The rules are looked up in the
+     * flow rule store, which is only done on host departures.
+     *
+     * @param destination destination edge port
+     */
+    public void removeTunnel(ConnectPoint destination) {
+        VlanId vlanId = vlanPool.get(destination);
+        if (vlanId == null) {
+            return;
+        }
+
+        List<FlowRule> rules = tunnelRules(vlanId);
+        flowRuleService.removeFlowRules(rules.toArray(new FlowRule[0]));
+        vlanPool.release(vlanId);
+        pathSelector.forget(destination, vlanId);
+        log.info("[WNET 2024] tunnel towards {} removed, VLAN {} released with {} rules",
+                 destination, vlanId, rules.size());
+    }
+
+    /**
+     * Counts a rule reported on a switch against the VLAN of its tunnel.
+     * Reports of a rule already counted are ignored.
+     *
+     * @param added rule added to a switch
+     */
+    public void added(FlowRule added) {
+        VlanId vlanId = tunnelVlan(added);
+        if (vlanId == null) {
+            return;
+        }
+        VlanId previous = liveRules.put(added.id(), vlanId);
+        if (!vlanId.equals(previous)) {
+            liveCounts.incrementAndGet(vlanId.toShort());
+            // the rule was rewritten onto another tunnel
+            if (previous != null) {
+                uncount(previous);
+            }
+        }
+    }
+
+    /**
+     * Returns the VLAN of a removed rule to the pool once no rule of its
+     * tunnel is left on the switches.
+     *
+     * @param removed rule removed from a switch
+     */
+    public void reclaim(FlowRule removed) {
+        VlanId vlanId = liveRules.remove(removed.id());
+        if (vlanId != null) {
+            uncount(vlanId);
+        }
+    }
+
+    // Drops a rule from the count of its VLAN and releases the VLAN when it was the last one.
+    private void uncount(VlanId vlanId) {
+        if (liveCounts.decrementAndGet(vlanId.toShort()) == 0) {
+            releaseIfUnused(vlanId);
+        }
+    }
+
+    private void releaseIfUnused(VlanId vlanId) {
+        if (liveCounts.get(vlanId.toShort()) > 0 || vlanPool.owner(vlanId) == null) {
+            return;
+        }
+        // a tunnel being set up may not have reached the switches yet,
+        // look again once its grace period is over
+        long idle = System.currentTimeMillis() - vlanPool.lastUsed(vlanId);
+        if (idle < RECLAIM_GRACE_MILLIS) {
+            if (!reclaimer.isShutdown()) {
+                reclaimer.schedule(() -> releaseIfUnused(vlanId), RECLAIM_GRACE_MILLIS - idle,
+                                   TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+
+        ConnectPoint destination = vlanPool.release(vlanId);
+        if (destination != null) {
+            pathSelector.forget(destination, vlanId);
+        }
+        log.info("[WNET 2024] tunnel towards {} expired, VLAN {} released", destination, vlanId);
+    }
+
+    private List<FlowRule> tunnelRules(VlanId vlanId) {
+        List<FlowRule> rules = new ArrayList<>();
+        for (FlowEntry entry : flowRuleService.getFlowEntriesById(appId)) {
+            if (vlanId.equals(tunnelVlan(entry))) {
+                rules.add(entry);
+            }
+        }
+        return rules;
+    }
+
+    // VLAN a tunnel rule matches or pushes, null for other rules
+    private static VlanId tunnelVlan(FlowRule rule) {
+        Criterion criterion = rule.selector().getCriterion(Criterion.Type.VLAN_VID);
+        if (criterion != null) {
+            return ((VlanIdCriterion) criterion).vlanId();
+        }
+        for (Instruction instruction : rule.treatment().allInstructions()) {
+            if (instruction instanceof L2ModificationInstruction.ModVlanIdInstruction) {
+                return ((L2ModificationInstruction.ModVlanIdInstruction) instruction).vlanId();
+            }
+        }
+        return null;
+    }
+
+    private FlowRule rule(DeviceId deviceId, TrafficSelector selector, TrafficTreatment treatment) {
+        FlowRule.Builder builder = DefaultFlowRule.builder()
+                .withSelector(selector)
+                .withTreatment(treatment)
+                .forDevice(deviceId)
+                .fromApp(appId)
+                .withPriority(PRIORITY)
+                .forTable(0);
+        if (idleTimeout > 0) {
+            builder.withIdleTimeout(idleTimeout);
+        } else {
+            builder.makePermanent();
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleEvent;
+import org.onosproject.net.flow.FlowRuleListener;
+import org.onosproject.net.flow.FlowRuleOperation;
+import org.onosproject.net.flow.FlowRuleOperations;
+import org.onosproject.net.flow.FlowRuleServiceAdapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests of the flow rule batcher.
+ */
+public class FlowRuleBatcherTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.wnet.app");
+    private static final DeviceId S1 = DeviceId.deviceId("of:0000000000000001");
+    private static final DeviceId S2 = DeviceId.deviceId("of:0000000000000002");
+
+    private final BlockingQueue<FlowRuleOperations> applied = new LinkedBlockingQueue<>();
+
+    private final TestFlowRuleService flowRuleService = new TestFlowRuleService();
+
+    private FlowRuleShadow shadow;
+    private FlowRuleBatcher batcher;
+
+    @Before
+    public void setUp() {
+        shadow = new FlowRuleShadow();
+        shadow.flowRuleService = flowRuleService;
+        shadow.activate();
+
+        batcher = new FlowRuleBatcher();
+        batcher.flowRuleService = flowRuleService;
+        batcher.shadow = shadow;
+        batcher.activate();
+    }
+
+    @After
+    public void tearDown() {
+        batcher.deactivate();
+        shadow.deactivate();
+    }
+
+    @Test
+    public void sharedRulesAreSentOnce() throws InterruptedException {
+        FlowRule transit = rule(S2, 1);
+        AtomicInteger installed = new AtomicInteger();
+
+        // the flush timer waits on the batcher, so both requests land in one batch
+        synchronized (batcher) {
+            batcher.install(Collections.singletonList(transit), Collections.singletonList(rule(S1, 1)),
+                            installed::incrementAndGet, null);
+            batcher.install(Collections.singletonList(transit), Collections.singletonList(rule(S1, 2)),
+                            installed::incrementAndGet, null);
+        }
+
+        FlowRuleOperations ops = next();
+        assertEquals(2, ops.stages().size());
+        assertEquals(Collections.singletonList(transit), rules(ops.stages().get(0)));
+        assertEquals(Arrays.asList(rule(S1, 1), rule(S1, 2)), rules(ops.stages().get(1)));
+        assertEquals(2, batcher.requests());
+        assertEquals(3, batcher.appliedRules());
+
+        ops.callback().onSuccess(ops);
+        assertEquals(2, installed.get());
+    }
+
+    @Test
+    public void fullBatchIsAppliedAtOnce() {
+        List<FlowRule> rules = new ArrayList<>();
+        for (int i = 0; i < FlowRuleBatcher.MAX_BATCH_RULES; i++) {
+            rules.add(rule(S2, i));
+        }
+
+        batcher.install(rules, Collections.emptyList(), null, null);
+
+        // applied on the calling thread, not by the flush timer
+        FlowRuleOperations ops = applied.poll();
+        assertNotNull(ops);
+        assertEquals(rules, rules(ops.stages().get(0)));
+        assertEquals(rules.size(), count(ops));
+        assertEquals(1, batcher.batches());
+    }
+
+    @Test
+    public void failedBatchIsReported() throws InterruptedException {
+        AtomicInteger installed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        batcher.install(Collections.singletonList(rule(S2, 1)), Collections.emptyList(),
+                        installed::incrementAndGet, failed::incrementAndGet);
+        FlowRuleOperations ops = next();
+        ops.callback().onError(ops);
+
+        assertEquals(0, installed.get());
+        assertEquals(1, failed.get());
+        assertEquals(1, batcher.failedBatches());
+    }
+
+    @Test
+    public void failedRulesAreSentAgain() throws InterruptedException {
+        FlowRule transit = rule(S2, 1);
+
+        batcher.install(Collections.singletonList(transit), Collections.emptyList(), null, null);
+        FlowRuleOperations ops = next();
+        ops.callback().onError(ops);
+
+        // the shadow forgot the rule
+        batcher.install(Collections.singletonList(transit), Collections.emptyList(), null, null);
+        assertEquals(Collections.singletonList(transit), rules(next().stages().get(0)));
+    }
+
+    @Test
+    public void pendingRulesAreNotSentAgain() throws InterruptedException {
+        FlowRule transit = rule(S2, 1);
+        AtomicInteger installed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        batcher.install(Collections.singletonList(transit), Collections.emptyList(), null, null);
+        FlowRuleOperations first = next();
+        batcher.install(Collections.singletonList(transit), Collections.emptyList(),
+                        installed::incrementAndGet, failed::incrementAndGet);
+
+        // nothing new to send, the request waits for the first batch
+        assertNull(applied.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(0, installed.get());
+
+        first.callback().onSuccess(first);
+        assertEquals(1, installed.get());
+        assertEquals(0, failed.get());
+    }
+
+    @Test
+    public void failureOfThePendingBatchIsReported() throws InterruptedException {
+        FlowRule transit = rule(S2, 1);
+        AtomicInteger installed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        batcher.install(Collections.singletonList(transit), Collections.emptyList(), null, null);
+        FlowRuleOperations first = next();
+        batcher.install(Collections.singletonList(transit), Collections.emptyList(),
+                        installed::incrementAndGet, failed::incrementAndGet);
+
+        first.callback().onError(first);
+        assertEquals(0, installed.get());
+        assertEquals(1, failed.get());
+    }
+
+    @Test
+    public void ingressRulesWaitForThePendingPath() throws InterruptedException {
+        FlowRule transit = rule(S2, 1);
+        FlowRule ingress = rule(S1, 1);
+        AtomicInteger installed = new AtomicInteger();
+
+        batcher.install(Collections.singletonList(transit), Collections.emptyList(), null, null);
+        FlowRuleOperations first = next();
+        batcher.install(Collections.singletonList(transit), Collections.singletonList(ingress),
+                        installed::incrementAndGet, null);
+        assertNull(applied.poll(100, TimeUnit.MILLISECONDS));
+
+        // the ingress rule goes out once the path is in place
+        first.callback().onSuccess(first);
+        FlowRuleOperations second = next();
+        assertEquals(Collections.singletonList(ingress), rules(second.stages().get(0)));
+        assertEquals(0, installed.get());
+
+        second.callback().onSuccess(second);
+        assertEquals(1, installed.get());
+        assertEquals(2, batcher.requests());
+    }
+
+    @Test
+    public void installedRulesNeedNoBatch() throws InterruptedException {
+        FlowRule transit = rule(S2, 1);
+        AtomicInteger installed = new AtomicInteger();
+
+        batcher.install(Collections.singletonList(transit), Collections.emptyList(), null, null);
+        FlowRuleOperations first = next();
+        first.callback().onSuccess(first);
+        flowRuleService.listener.event(new FlowRuleEvent(FlowRuleEvent.Type.RULE_ADDED, transit));
+
+        batcher.install(Collections.singletonList(transit), Collections.emptyList(),
+                        installed::incrementAndGet, null);
+        assertEquals(1, installed.get());
+        assertNull(applied.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    private FlowRuleOperations next() throws InterruptedException {
+        FlowRuleOperations ops = applied.poll(5, TimeUnit.SECONDS);
+        assertNotNull(ops);
+        return ops;
+    }
+
+    private static int count(FlowRuleOperations ops) {
+        int count = 0;
+        for (Set<FlowRuleOperation> stage : ops.stages()) {
+            count += stage.size();
+        }
+        return count;
+    }
+
+    private static List<FlowRule> rules(Set<FlowRuleOperation> stage) {
+        List<FlowRule> rules = new ArrayList<>();
+        for (FlowRuleOperation op : stage) {
+            rules.add(op.rule());
+        }
+        return rules;
+    }
+
+    private static FlowRule rule(DeviceId deviceId, int port) {
+        return DefaultFlowRule.builder()
+                .forDevice(deviceId)
+                .withSelector(DefaultTrafficSelector.builder().matchInPort(PortNumber.portNumber(port)).build())
+                .withTreatment(DefaultTrafficTreatment.builder().setOutput(PortNumber.portNumber(1)).build())
+                .fromApp(APP_ID)
+                .withPriority(20)
+                .makePermanent()
+                .forTable(0)
+                .build();
+    }
+
+    private class TestFlowRuleService extends FlowRuleServiceAdapter {
+        private FlowRuleListener listener;
+
+        @Override
+        public void addListener(FlowRuleListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void removeListener(FlowRuleListener listener) {
+            this.listener = null;
+        }
+
+        @Override
+        public void apply(FlowRuleOperations ops) {
+            applied.add(ops);
+        }
+    }
+}
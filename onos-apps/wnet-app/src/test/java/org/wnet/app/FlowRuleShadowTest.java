@@ -0,0 +1,184 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleEvent;
+import org.onosproject.net.flow.FlowRuleListener;
+import org.onosproject.net.flow.FlowRuleServiceAdapter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the flow rule shadow.
+ */
+public class FlowRuleShadowTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.wnet.app");
+    private static final DeviceId S1 = DeviceId.deviceId("of:0000000000000001");
+    private static final DeviceId S2 = DeviceId.deviceId("of:0000000000000002");
+    private static final Object BATCH = new Object();
+
+    private final TestFlowRuleService flowRuleService = new TestFlowRuleService();
+
+    private FlowRuleShadow shadow;
+
+    @Before
+    public void setUp() {
+        shadow = new FlowRuleShadow();
+        shadow.flowRuleService = flowRuleService;
+        shadow.activate();
+    }
+
+    @After
+    public void tearDown() {
+        shadow.deactivate();
+    }
+
+    @Test
+    public void pendingRuleIsSentOnce() {
+        FlowRule rule = rule(S1, 1, 2);
+
+        assertEquals(Collections.singletonList(rule), admit(rule));
+        assertTrue(admit(rule).isEmpty());
+        assertEquals(1, shadow.admitted());
+        assertEquals(1, shadow.suppressed());
+    }
+
+    @Test
+    public void skippedRulesNameTheirBatchUntilConfirmed() {
+        FlowRule rule = rule(S1, 1, 2);
+        admit(rule);
+
+        FlowRuleShadow.Admission admission = shadow.admit(Collections.singletonList(rule), new Object());
+        assertTrue(admission.rules().isEmpty());
+        assertEquals(Collections.singleton(BATCH), admission.inFlight());
+
+        flowRuleService.post(FlowRuleEvent.Type.RULE_ADDED, rule);
+        assertTrue(shadow.admit(Collections.singletonList(rule), new Object()).inFlight().isEmpty());
+    }
+
+    @Test
+    public void admitConfirmRemoveCycle() {
+        FlowRule rule = rule(S1, 1, 2);
+        admit(rule);
+
+        flowRuleService.post(FlowRuleEvent.Type.RULE_ADDED, rule);
+        assertTrue(admit(rule).isEmpty());
+
+        flowRuleService.post(FlowRuleEvent.Type.RULE_REMOVED, rule);
+        assertEquals(0, shadow.size());
+        assertEquals(Collections.singletonList(rule), admit(rule));
+    }
+
+    @Test
+    public void rulesAreKeptPerDevice() {
+        FlowRule one = rule(S1, 1, 2);
+        FlowRule two = rule(S2, 1, 2);
+
+        assertEquals(Arrays.asList(one, two), shadow.admit(Arrays.asList(one, two), BATCH).rules());
+        assertEquals(2, shadow.size());
+    }
+
+    @Test
+    public void newTreatmentReplacesTheRule() {
+        FlowRule old = rule(S1, 1, 2);
+        FlowRule rewritten = rule(S1, 1, 3);
+        admit(old);
+        flowRuleService.post(FlowRuleEvent.Type.RULE_ADDED, old);
+
+        assertEquals(Collections.singletonList(rewritten), admit(rewritten));
+        assertEquals(1, shadow.size());
+        assertTrue(admit(rewritten).isEmpty());
+        assertEquals(Collections.singletonList(old), admit(old));
+    }
+
+    @Test
+    public void removalEmptiesTheSlotWhateverTheTreatment() {
+        FlowRule old = rule(S1, 1, 2);
+        FlowRule rewritten = rule(S1, 1, 3);
+        admit(rewritten);
+        flowRuleService.post(FlowRuleEvent.Type.RULE_ADDED, rewritten);
+
+        flowRuleService.post(FlowRuleEvent.Type.RULE_REMOVED, old);
+
+        assertEquals(0, shadow.size());
+        assertEquals(Collections.singletonList(rewritten), admit(rewritten));
+    }
+
+    @Test
+    public void forgetLeavesANewerTreatment() {
+        FlowRule old = rule(S1, 1, 2);
+        FlowRule rewritten = rule(S1, 1, 3);
+        admit(old);
+        admit(rewritten);
+
+        shadow.forget(Collections.singletonList(old));
+        assertTrue(admit(rewritten).isEmpty());
+
+        shadow.forget(Collections.singletonList(rewritten));
+        assertEquals(0, shadow.size());
+    }
+
+    private List<FlowRule> admit(FlowRule rule) {
+        return shadow.admit(Collections.singletonList(rule), BATCH).rules();
+    }
+
+    private static FlowRule rule(DeviceId deviceId, int inPort, int outPort) {
+        return DefaultFlowRule.builder()
+                .forDevice(deviceId)
+                .withSelector(DefaultTrafficSelector.builder().matchInPort(PortNumber.portNumber(inPort)).build())
+                .withTreatment(DefaultTrafficTreatment.builder().setOutput(PortNumber.portNumber(outPort)).build())
+                .fromApp(APP_ID)
+                .withPriority(20)
+                .makePermanent()
+                .forTable(0)
+                .build();
+    }
+
+    private static class TestFlowRuleService extends FlowRuleServiceAdapter {
+        private FlowRuleListener listener;
+
+        @Override
+        public void addListener(FlowRuleListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void removeListener(FlowRuleListener listener) {
+            this.listener = null;
+        }
+
+        private void post(FlowRuleEvent.Type type, FlowRule rule) {
+            listener.event(new FlowRuleEvent(type, rule));
+        }
+    }
+}
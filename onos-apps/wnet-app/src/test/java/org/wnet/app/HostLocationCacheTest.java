@@ -0,0 +1,160 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import org.junit.After;
+import org.junit.Test;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.DefaultHost;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.HostId;
+import org.onosproject.net.HostLocation;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.host.HostEvent;
+import org.onosproject.net.host.HostListener;
+import org.onosproject.net.host.HostServiceAdapter;
+import org.onosproject.net.provider.ProviderId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests of the host location cache.
+ */
+public class HostLocationCacheTest {
+
+    private static final ProviderId PID = new ProviderId("of", "foo");
+    private static final DeviceId S1 = DeviceId.deviceId("of:0000000000000001");
+
+    private final TestHostService hostService = new TestHostService();
+
+    private HostLocationCache cache;
+
+    @After
+    public void tearDown() {
+        cache.deactivate();
+    }
+
+    @Test
+    public void hostsAreServedFromTheTable() {
+        for (int i = 1; i <= 2000; i++) {
+            hostService.hosts.add(host(i));
+        }
+        activate();
+
+        assertEquals(2000, cache.size());
+        for (int i = 1; i <= 2000; i++) {
+            assertEquals(mac(i), cache.getHost(mac(i)).mac());
+        }
+        assertEquals(2000, cache.hits());
+        assertEquals(0, cache.misses());
+    }
+
+    @Test
+    public void removedHostIsNotServed() {
+        Host host = host(1);
+        hostService.hosts.add(host);
+        activate();
+
+        hostService.post(new HostEvent(HostEvent.Type.HOST_REMOVED, host));
+        hostService.hosts.clear();
+
+        assertNull(cache.getHost(host.mac()));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void eventsDuringActivationWinOverTheStore() {
+        Host removed = host(1);
+        Host stale = host(2);
+        Host moved = host(2, 7);
+        hostService.hosts.add(removed);
+        hostService.hosts.add(stale);
+        // the store is read after these events, so it still has the old copies
+        hostService.onRead = () -> {
+            hostService.post(new HostEvent(HostEvent.Type.HOST_REMOVED, removed));
+            hostService.post(new HostEvent(HostEvent.Type.HOST_MOVED, moved, stale));
+        };
+        activate();
+        hostService.hosts.clear();
+
+        assertEquals(1, cache.size());
+        assertNull(cache.getHost(removed.mac()));
+        assertSame(moved, cache.getHost(moved.mac()));
+    }
+
+    private void activate() {
+        cache = new HostLocationCache();
+        cache.hostService = hostService;
+        cache.activate();
+    }
+
+    private static MacAddress mac(int i) {
+        return MacAddress.valueOf((long) i);
+    }
+
+    private static Host host(int i) {
+        return host(i, 1);
+    }
+
+    private static Host host(int i, int port) {
+        HostLocation location = new HostLocation(S1, PortNumber.portNumber(port), 0);
+        return new DefaultHost(PID, HostId.hostId(mac(i)), mac(i), VlanId.NONE,
+                               location, Collections.emptySet());
+    }
+
+    private static class TestHostService extends HostServiceAdapter {
+        private final List<Host> hosts = new ArrayList<>();
+        private HostListener listener;
+        private Runnable onRead;
+
+        @Override
+        public void addListener(HostListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void removeListener(HostListener listener) {
+            this.listener = null;
+        }
+
+        @Override
+        public Iterable<Host> getHosts() {
+            List<Host> snapshot = new ArrayList<>(hosts);
+            if (onRead != null) {
+                onRead.run();
+            }
+            return snapshot;
+        }
+
+        @Override
+        public Host getHost(HostId hostId) {
+            return hosts.stream().filter(h -> h.id().equals(hostId)).findFirst().orElse(null);
+        }
+
+        private void post(HostEvent event) {
+            listener.event(event);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.graph.ScalarWeight;
+import org.onlab.graph.Weight;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.Port;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DeviceServiceAdapter;
+import org.onosproject.net.link.LinkServiceAdapter;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.net.statistic.DefaultLoad;
+import org.onosproject.net.statistic.Load;
+import org.onosproject.net.statistic.PortStatisticsService;
+import org.onosproject.net.topology.TopologyEdge;
+import org.onosproject.net.topology.TopologyVertex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the link load weigher.
+ */
+public class LinkLoadWeigherTest {
+
+    private static final ProviderId PID = new ProviderId("of", "foo");
+    private static final DeviceId S1 = DeviceId.deviceId("of:0000000000000001");
+    private static final DeviceId S2 = DeviceId.deviceId("of:0000000000000002");
+    private static final DeviceId S3 = DeviceId.deviceId("of:0000000000000003");
+    private static final DeviceId S4 = DeviceId.deviceId("of:0000000000000004");
+
+    // byte rate of one band of a port of the default speed, 10 Gb/s
+    private static final long BAND_RATE = 125_000_000L;
+
+    private final TestLinkService linkService = new TestLinkService();
+    private final TestPortStatisticsService portStatisticsService = new TestPortStatisticsService();
+
+    private LinkLoadWeigher weigher;
+
+    @Before
+    public void setUp() {
+        weigher = new LinkLoadWeigher();
+        weigher.linkService = linkService;
+        // ports of unknown speed, taken as 10 Gb/s
+        weigher.deviceService = new DeviceServiceAdapter() {
+            @Override
+            public Port getPort(DeviceId deviceId, PortNumber portNumber) {
+                return null;
+            }
+        };
+        weigher.portStatisticsService = portStatisticsService;
+    }
+
+    @Test
+    public void bandsOfTheUtilization() {
+        assertEquals(0, LinkLoadWeigher.band(0, 1000, -1));
+        assertEquals(2, LinkLoadWeigher.band(25_000_000, 1000, -1));
+        assertEquals(9, LinkLoadWeigher.band(124_000_000, 1000, -1));
+        assertEquals(10, LinkLoadWeigher.band(125_000_000, 1000, -1));
+        assertEquals(10, LinkLoadWeigher.band(500_000_000, 1000, -1));
+    }
+
+    @Test
+    public void bandIsKeptWithinTheHysteresis() {
+        // 2.2 bands of load stays in band 1, 2.8 stays in band 3
+        assertEquals(1, LinkLoadWeigher.band(27_500_000, 1000, 1));
+        assertEquals(3, LinkLoadWeigher.band(35_000_000, 1000, 3));
+
+        // further away the band follows the load
+        assertEquals(2, LinkLoadWeigher.band(27_500_000, 1000, 3));
+        assertEquals(2, LinkLoadWeigher.band(35_000_000, 1000, 1));
+        assertEquals(2, LinkLoadWeigher.band(27_500_000, 1000, 0));
+    }
+
+    @Test
+    public void idleLinksCostOneHop() {
+        Link link = link(S1, S2);
+        linkService.links.add(link);
+
+        weigher.sample();
+
+        assertEquals(1, weigher.links());
+        assertEquals(0, weigher.hotLinks());
+        assertEquals(0, weigher.epoch());
+        assertEquals(10.0, cost(link), 0);
+    }
+
+    @Test
+    public void busyLinksCostMore() {
+        Link busy = link(S1, S2);
+        Link idle = link(S2, S3);
+        linkService.links.add(busy);
+        linkService.links.add(idle);
+        portStatisticsService.rates.put(busy.src(), 6 * BAND_RATE);
+
+        weigher.sample();
+
+        assertEquals(1, weigher.hotLinks());
+        assertEquals(1, weigher.epoch());
+        assertEquals(10.0 + 4 * 6, cost(busy), 0);
+        assertEquals(10.0, cost(idle), 0);
+        assertEquals(6, weigher.utilization(busy));
+        assertEquals(0, weigher.utilization(idle));
+        assertEquals(0, weigher.utilization(link(S3, S4)));
+    }
+
+    @Test
+    public void equalCostPathsWeighTheSame() {
+        Link a = link(S1, S2);
+        Link b = link(S2, S3);
+        Link c = link(S1, S4);
+        Link d = link(S4, S3);
+        linkService.links.add(a);
+        linkService.links.add(b);
+        linkService.links.add(c);
+        linkService.links.add(d);
+        portStatisticsService.rates.put(a.src(), BAND_RATE);
+        portStatisticsService.rates.put(b.src(), 2 * BAND_RATE);
+        portStatisticsService.rates.put(d.src(), 3 * BAND_RATE);
+
+        weigher.sample();
+
+        Weight viaS2 = weigher.weight(edge(a)).merge(weigher.weight(edge(b)));
+        Weight viaS4 = weigher.weight(edge(c)).merge(weigher.weight(edge(d)));
+        assertEquals(0, viaS2.compareTo(viaS4));
+    }
+
+    @Test
+    public void epochMovesOnlyOnBandChanges() {
+        Link link = link(S1, S2);
+        linkService.links.add(link);
+        portStatisticsService.rates.put(link.src(), 3 * BAND_RATE);
+
+        weigher.sample();
+        assertEquals(1, weigher.epoch());
+
+        // within the band and within the hysteresis past its edge
+        portStatisticsService.rates.put(link.src(), 3 * BAND_RATE + BAND_RATE / 2);
+        weigher.sample();
+        portStatisticsService.rates.put(link.src(), 4 * BAND_RATE + BAND_RATE / 10);
+        weigher.sample();
+        assertEquals(1, weigher.epoch());
+        assertEquals(10.0 + 4 * 3, cost(link), 0);
+
+        portStatisticsService.rates.put(link.src(), 4 * BAND_RATE + BAND_RATE / 2);
+        weigher.sample();
+        assertEquals(2, weigher.epoch());
+        assertEquals(10.0 + 4 * 4, cost(link), 0);
+        assertEquals(4, weigher.samples());
+    }
+
+    @Test
+    public void inactiveLinksAreNotViable() {
+        Link link = DefaultLink.builder()
+                .providerId(PID)
+                .src(new ConnectPoint(S1, PortNumber.portNumber(10)))
+                .dst(new ConnectPoint(S2, PortNumber.portNumber(10)))
+                .type(Link.Type.DIRECT)
+                .state(Link.State.INACTIVE)
+                .build();
+
+        assertEquals(ScalarWeight.NON_VIABLE_WEIGHT, weigher.weight(edge(link)));
+    }
+
+    private double cost(Link link) {
+        return ((ScalarWeight) weigher.weight(edge(link))).value();
+    }
+
+    // Link between ports numbered after the device at the other end.
+    private static Link link(DeviceId src, DeviceId dst) {
+        return DefaultLink.builder()
+                .providerId(PID)
+                .src(new ConnectPoint(src, port(dst)))
+                .dst(new ConnectPoint(dst, port(src)))
+                .type(Link.Type.DIRECT)
+                .state(Link.State.ACTIVE)
+                .build();
+    }
+
+    private static PortNumber port(DeviceId to) {
+        return PortNumber.portNumber(to.toString().substring(to.toString().length() - 1));
+    }
+
+    private static TopologyEdge edge(Link link) {
+        return new TopologyEdge() {
+            @Override
+            public Link link() {
+                return link;
+            }
+
+            @Override
+            public TopologyVertex src() {
+                return link.src()::deviceId;
+            }
+
+            @Override
+            public TopologyVertex dst() {
+                return link.dst()::deviceId;
+            }
+        };
+    }
+
+    private static class TestLinkService extends LinkServiceAdapter {
+        private final List<Link> links = new ArrayList<>();
+
+        @Override
+        public Iterable<Link> getActiveLinks() {
+            return links;
+        }
+    }
+
+    private static class TestPortStatisticsService implements PortStatisticsService {
+        private final Map<ConnectPoint, Long> rates = new HashMap<>();
+
+        @Override
+        public Load load(ConnectPoint connectPoint) {
+            return new DefaultLoad(rates.getOrDefault(connectPoint, 0L), 0, 1);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.graph.ScalarWeight;
+import org.onlab.packet.ChassisId;
+import org.onosproject.event.Event;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.DefaultPath;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.link.LinkEvent;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.net.topology.LinkWeigher;
+import org.onosproject.net.topology.Topology;
+import org.onosproject.net.topology.TopologyEvent;
+import org.onosproject.net.topology.TopologyListener;
+import org.onosproject.net.topology.TopologyServiceAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests of the path cache, on the diamond s1 - s2|s3 - s4 with a longer
+ * detour s1 - s5 - s6 - s4, and the single link s7 - s8.
+ */
+public class PathCacheTest {
+
+    private static final ProviderId PID = new ProviderId("of", "test");
+    private static final DeviceId S1 = device(1);
+    private static final DeviceId S2 = device(2);
+    private static final DeviceId S3 = device(3);
+    private static final DeviceId S4 = device(4);
+    private static final DeviceId S5 = device(5);
+    private static final DeviceId S6 = device(6);
+    private static final DeviceId S7 = device(7);
+    private static final DeviceId S8 = device(8);
+
+    private final TestTopologyService topologyService = new TestTopologyService();
+    private final TestLinkWeigher linkWeigher = new TestLinkWeigher();
+
+    private PathCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new PathCache();
+        cache.topologyService = topologyService;
+        cache.linkWeigher = linkWeigher;
+        cache.activate();
+    }
+
+    @After
+    public void tearDown() {
+        cache.deactivate();
+    }
+
+    @Test
+    public void equalCostPathsAreKeptAndLongerOnesDropped() {
+        Set<Path> paths = cache.getPaths(S1, S4);
+
+        assertEquals(2, paths.size());
+        for (Path path : paths) {
+            assertEquals(2, path.links().size());
+        }
+    }
+
+    @Test
+    public void pathsAreComputedOnce() {
+        Set<Path> first = cache.getPaths(S1, S4);
+        Set<Path> second = cache.getPaths(S1, S4);
+
+        assertSame(first, second);
+        assertEquals(1, topologyService.computations);
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void removedLinkDropsOnlyThePathsThroughIt() {
+        cache.getPaths(S1, S4);
+        cache.getPaths(S7, S8);
+
+        topologyService.post(new LinkEvent(LinkEvent.Type.LINK_REMOVED, link(S2, S4)));
+
+        assertEquals(1, cache.size());
+        cache.getPaths(S7, S8);
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    public void removedDeviceDropsItsPairsAndThePathsThroughIt() {
+        cache.getPaths(S1, S4);
+        cache.getPaths(S7, S8);
+        cache.getPaths(S2, S4);
+
+        topologyService.post(new DeviceEvent(DeviceEvent.Type.DEVICE_REMOVED, deviceOf(S3)));
+        assertEquals(2, cache.size());
+
+        topologyService.post(new DeviceEvent(DeviceEvent.Type.DEVICE_REMOVED, deviceOf(S8)));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void additionsFlushTheCache() {
+        cache.getPaths(S1, S4);
+        cache.getPaths(S7, S8);
+
+        topologyService.post(new LinkEvent(LinkEvent.Type.LINK_ADDED, link(S1, S7)));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void pathsComputedDuringAnInvalidationAreNotCached() {
+        // the link goes away while the paths through it are computed
+        topologyService.onCompute = () -> topologyService.post(
+                new LinkEvent(LinkEvent.Type.LINK_REMOVED, link(S7, S8)));
+        cache.getPaths(S7, S8);
+        topologyService.onCompute = null;
+
+        assertEquals(0, cache.size());
+        cache.getPaths(S7, S8);
+        assertEquals(2, topologyService.computations);
+    }
+
+    @Test
+    public void newLinkCostsFlushTheCache() {
+        cache.getPaths(S1, S4);
+        linkWeigher.epoch++;
+
+        cache.getPaths(S7, S8);
+
+        assertEquals(1, cache.size());
+        cache.getPaths(S1, S4);
+        assertEquals(3, topologyService.computations);
+    }
+
+    private static DeviceId device(int i) {
+        return DeviceId.deviceId("of:000000000000000" + i);
+    }
+
+    private static Device deviceOf(DeviceId id) {
+        return new DefaultDevice(PID, id, Device.Type.SWITCH, "", "", "", "", new ChassisId());
+    }
+
+    // Link between ports numbered after the device at the other end.
+    private static Link link(DeviceId src, DeviceId dst) {
+        return DefaultLink.builder()
+                .providerId(PID)
+                .src(new ConnectPoint(src, port(dst)))
+                .dst(new ConnectPoint(dst, port(src)))
+                .type(Link.Type.DIRECT)
+                .state(Link.State.ACTIVE)
+                .build();
+    }
+
+    private static PortNumber port(DeviceId to) {
+        return PortNumber.portNumber(to.toString().substring(to.toString().length() - 1));
+    }
+
+    private static Path path(DeviceId... devices) {
+        List<Link> links = new ArrayList<>();
+        for (int i = 0; i < devices.length - 1; i++) {
+            links.add(link(devices[i], devices[i + 1]));
+        }
+        return new DefaultPath(PID, links, ScalarWeight.toWeight(links.size()));
+    }
+
+    private static class TestTopologyService extends TopologyServiceAdapter {
+        private TopologyListener listener;
+        private Runnable onCompute;
+        private int computations;
+
+        @Override
+        public void addListener(TopologyListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void removeListener(TopologyListener listener) {
+            this.listener = null;
+        }
+
+        @Override
+        public Stream<Path> getKShortestPaths(Topology topology, DeviceId src, DeviceId dst,
+                                              LinkWeigher weigher) {
+            computations++;
+            if (onCompute != null) {
+                onCompute.run();
+            }
+            if (src.equals(S1) && dst.equals(S4)) {
+                return Stream.of(path(S1, S2, S4), path(S1, S3, S4), path(S1, S5, S6, S4));
+            }
+            if (src.equals(S2) && dst.equals(S4)) {
+                return Stream.of(path(S2, S4));
+            }
+            if (src.equals(S7) && dst.equals(S8)) {
+                return Stream.of(path(S7, S8));
+            }
+            return Stream.empty();
+        }
+
+        private void post(Event<?, ?> reason) {
+            listener.event(new TopologyEvent(TopologyEvent.Type.TOPOLOGY_CHANGED, null,
+                                             ImmutableList.of(reason)));
+        }
+    }
+
+    private static class TestLinkWeigher extends LinkLoadWeigher {
+        private long epoch;
+
+        @Override
+        public long epoch() {
+            return epoch;
+        }
+    }
+}
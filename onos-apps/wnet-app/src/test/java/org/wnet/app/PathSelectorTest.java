@@ -0,0 +1,197 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.graph.ScalarWeight;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.DefaultPath;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.provider.ProviderId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the path selector, mostly on the diamond s1 - s2|s3 - s4.
+ */
+public class PathSelectorTest {
+
+    private static final ProviderId PID = new ProviderId("of", "test");
+    private static final DeviceId S1 = device(1);
+    private static final DeviceId S2 = device(2);
+    private static final DeviceId S3 = device(3);
+    private static final DeviceId S4 = device(4);
+    private static final DeviceId S5 = device(5);
+    private static final ConnectPoint DESTINATION = new ConnectPoint(S4, PortNumber.portNumber(1));
+    private static final VlanId VLAN = VlanId.vlanId((short) 2);
+
+    private final Map<ConnectPoint, Integer> bands = new HashMap<>();
+
+    private PathSelector selector;
+
+    @Before
+    public void setUp() {
+        selector = new PathSelector();
+        selector.linkWeigher = new LinkLoadWeigher() {
+            @Override
+            public int utilization(Link link) {
+                return bands.getOrDefault(link.src(), 0);
+            }
+        };
+    }
+
+    @Test
+    public void lightestPathStartsTheTree() {
+        bands.put(port(S1, 2), 5);
+
+        Path path = selector.select(DESTINATION, VLAN, ImmutableSet.of(path(S1, S2, S4), path(S1, S3, S4)));
+
+        assertEquals(S3, path.links().get(1).src().deviceId());
+        assertEquals(1, selector.trees());
+        assertEquals(1, selector.balanced());
+    }
+
+    @Test
+    public void laterSourcesFollowTheTree() {
+        selector.select(DESTINATION, VLAN, ImmutableSet.of(path(S1, S2, S4), path(S1, S3, S4)));
+        Map<DeviceId, PortNumber> tree = selector.tree(DESTINATION);
+
+        // s1 reaches s4 through s2 now, although s2 got busy
+        bands.put(port(S2, 4), 5);
+        Path second = selector.select(DESTINATION, VLAN, ImmutableSet.of(path(S1, S3, S4), path(S1, S2, S4)));
+
+        assertEquals(tree.get(S1), second.links().get(0).src().port());
+        assertEquals(0, selector.rerouted());
+    }
+
+    @Test
+    public void sourcesMergeIntoTheTree() {
+        bands.put(port(S1, 3), 5);
+        selector.select(DESTINATION, VLAN, ImmutableSet.of(path(S1, S2, S4), path(S1, S3, S4)));
+
+        // leaving s2 towards s3 would give s2 a second next hop, however busy s2 - s4 is
+        bands.put(port(S2, 4), 5);
+        Path path = selector.select(DESTINATION, VLAN, ImmutableSet.of(path(S5, S2, S3, S4), path(S5, S2, S4)));
+
+        assertEquals(S4, path.links().get(1).dst().deviceId());
+        assertEquals(0, selector.rerouted());
+    }
+
+    @Test
+    public void newVlanStartsANewTree() {
+        bands.put(port(S1, 3), 5);
+        selector.select(DESTINATION, VLAN, ImmutableSet.of(path(S1, S2, S4), path(S1, S3, S4)));
+
+        bands.clear();
+        bands.put(port(S1, 2), 5);
+        Path path = selector.select(DESTINATION, VlanId.vlanId((short) 3),
+                                    ImmutableSet.of(path(S1, S2, S4), path(S1, S3, S4)));
+        assertEquals(S3, path.links().get(1).src().deviceId());
+    }
+
+    @Test
+    public void pathAgainstTheTreeReplacesItsHops() {
+        selector.select(DESTINATION, VLAN, ImmutableSet.of(path(S1, S2, S4)));
+
+        // the link s1 - s2 went away
+        Path path = selector.select(DESTINATION, VLAN, ImmutableSet.of(path(S1, S3, S4)));
+
+        assertEquals(1, selector.rerouted());
+        assertEquals(path.links().get(0).src().port(), selector.tree(DESTINATION).get(S1));
+    }
+
+    @Test
+    public void plannedTreeKeepsToThePreviousOneUnlessClearlyLighter() {
+        selector.select(DESTINATION, VLAN, ImmutableSet.of(path(S1, S2, S4)));
+        Map<DeviceId, PortNumber> previous = selector.tree(DESTINATION);
+
+        bands.put(port(S1, 2), 1);
+        bands.put(port(S1, 3), 0);
+        Path kept = selector.select(ImmutableSet.of(path(S1, S3, S4), path(S1, S2, S4)),
+                                    Collections.emptyMap(), previous);
+        assertEquals(S2, kept.links().get(1).src().deviceId());
+
+        bands.put(port(S1, 2), 2);
+        Path moved = selector.select(ImmutableSet.of(path(S1, S3, S4), path(S1, S2, S4)),
+                                     Collections.emptyMap(), previous);
+        assertEquals(S3, moved.links().get(1).src().deviceId());
+    }
+
+    @Test
+    public void replacedTreeIsJoinedAndForgottenWithItsVlan() {
+        Map<DeviceId, PortNumber> planned = new HashMap<>();
+        planned.put(S1, port(S1, 3).port());
+        planned.put(S3, port(S3, 4).port());
+        selector.replace(DESTINATION, VLAN, planned);
+
+        Path path = selector.select(DESTINATION, VLAN, ImmutableSet.of(path(S1, S2, S4), path(S1, S3, S4)));
+        assertEquals(S3, path.links().get(1).src().deviceId());
+
+        selector.forget(DESTINATION, VlanId.vlanId((short) 3));
+        assertEquals(1, selector.trees());
+        selector.forget(DESTINATION, VLAN);
+        assertTrue(selector.tree(DESTINATION).isEmpty());
+    }
+
+    @Test
+    public void singlePathIsTakenAsIs() {
+        Path only = path(S1, S2, S4);
+        assertSame(only, selector.select(DESTINATION, VLAN, Collections.singleton(only)));
+        assertEquals(0, selector.balanced());
+    }
+
+    private static DeviceId device(int i) {
+        return DeviceId.deviceId("of:000000000000000" + i);
+    }
+
+    // Port of a device towards another one, numbered after the other device.
+    private static ConnectPoint port(DeviceId from, DeviceId to) {
+        return new ConnectPoint(from, PortNumber.portNumber(to.toString().substring(to.toString().length() - 1)));
+    }
+
+    private static ConnectPoint port(DeviceId from, int to) {
+        return port(from, device(to));
+    }
+
+    private static Path path(DeviceId... devices) {
+        List<Link> links = new ArrayList<>();
+        for (int i = 0; i < devices.length - 1; i++) {
+            links.add(DefaultLink.builder()
+                              .providerId(PID)
+                              .src(port(devices[i], devices[i + 1]))
+                              .dst(port(devices[i + 1], devices[i]))
+                              .type(Link.Type.DIRECT)
+                              .state(Link.State.ACTIVE)
+                              .build());
+        }
+        return new DefaultPath(PID, links, ScalarWeight.toWeight(links.size()));
+    }
+}
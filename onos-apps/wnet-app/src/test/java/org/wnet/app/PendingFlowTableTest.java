@@ -0,0 +1,198 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.MacAddress;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.TrafficTreatment;
+import org.onosproject.net.packet.DefaultInboundPacket;
+import org.onosproject.net.packet.DefaultPacketContext;
+import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketServiceAdapter;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the pending flow table.
+ */
+public class PendingFlowTableTest {
+
+    private static final MacAddress SRC = MacAddress.valueOf("00:00:00:00:00:01");
+    private static final MacAddress DST = MacAddress.valueOf("00:00:00:00:00:02");
+    private static final DeviceId S1 = DeviceId.deviceId("of:0000000000000001");
+    private static final TrafficTreatment TREATMENT =
+            DefaultTrafficTreatment.builder().setOutput(PortNumber.portNumber(2)).build();
+
+    private final TestPacketService packetService = new TestPacketService();
+
+    private PendingFlowTable table;
+
+    @Before
+    public void setUp() {
+        table = new PendingFlowTable();
+        table.packetService = packetService;
+    }
+
+    @Test
+    public void firstPacketClaimsTheFlow() {
+        assertNotNull(table.park(SRC, DST, packet(0)));
+        assertEquals(1, table.size());
+        assertEquals(1, table.claimed());
+
+        PacketContext second = packet(1);
+        assertNull(table.park(SRC, DST, second));
+        assertTrue(second.isHandled());
+        assertEquals(1, table.parked());
+
+        assertNotNull(table.park(DST, SRC, packet(2)));
+        assertEquals(2, table.claimed());
+    }
+
+    @Test
+    public void releaseSendsTheParkedPackets() {
+        PendingFlowTable.Pending pending = table.park(SRC, DST, packet(0));
+        table.park(SRC, DST, packet(1));
+        table.park(SRC, DST, packet(2));
+
+        table.release(pending, S1, TREATMENT);
+
+        assertEquals(0, table.size());
+        assertEquals(2, table.released());
+        assertEquals(2, packetService.emitted.size());
+        OutboundPacket first = packetService.emitted.get(0);
+        assertEquals(S1, first.sendThrough());
+        assertEquals(TREATMENT, first.treatment());
+        assertEquals(1, first.data().get(0));
+        assertEquals(2, packetService.emitted.get(1).data().get(0));
+
+        assertNotNull(table.park(SRC, DST, packet(3)));
+    }
+
+    @Test
+    public void abortDropsTheParkedPackets() {
+        PendingFlowTable.Pending pending = table.park(SRC, DST, packet(0));
+        table.park(SRC, DST, packet(1));
+
+        table.abort(pending);
+        table.release(pending, S1, TREATMENT);
+
+        assertEquals(0, table.size());
+        assertEquals(1, table.dropped());
+        assertTrue(packetService.emitted.isEmpty());
+    }
+
+    @Test
+    public void packetsBeyondTheBufferAreDropped() {
+        PendingFlowTable.Pending pending = table.park(SRC, DST, packet(0));
+        for (int i = 0; i < PendingFlowTable.MAX_PARKED + 3; i++) {
+            assertNull(table.park(SRC, DST, packet(1)));
+        }
+
+        assertEquals(PendingFlowTable.MAX_PARKED, table.parked());
+        assertEquals(3, table.dropped());
+
+        table.release(pending, S1, TREATMENT);
+        assertEquals(PendingFlowTable.MAX_PARKED, packetService.emitted.size());
+    }
+
+    @Test
+    public void staleFlowIsClaimedAgain() throws InterruptedException {
+        table.park(SRC, DST, packet(0));
+        table.park(SRC, DST, packet(1));
+
+        Thread.sleep(PendingFlowTable.PENDING_TIMEOUT_MILLIS + 100);
+
+        assertNotNull(table.park(SRC, DST, packet(2)));
+        assertEquals(2, table.claimed());
+        assertEquals(1, table.dropped());
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void lateReleaseLeavesTheNewClaimAlone() throws InterruptedException {
+        PendingFlowTable.Pending stale = table.park(SRC, DST, packet(0));
+        table.park(SRC, DST, packet(1));
+        Thread.sleep(PendingFlowTable.PENDING_TIMEOUT_MILLIS + 100);
+        PendingFlowTable.Pending fresh = table.park(SRC, DST, packet(2));
+        table.park(SRC, DST, packet(3));
+
+        // the packet parked behind the stale claim was dropped when it was taken over
+        table.release(stale, S1, TREATMENT);
+        assertEquals(1, table.size());
+        assertTrue(packetService.emitted.isEmpty());
+
+        table.release(fresh, S1, TREATMENT);
+        assertEquals(1, packetService.emitted.size());
+        assertEquals(3, packetService.emitted.get(0).data().get(0));
+    }
+
+    @Test
+    public void packetFindingAClosedFlowClaimsItAgain() {
+        PendingFlowTable.Pending pending = table.park(SRC, DST, packet(0));
+
+        // the release closes the flow just before a packet parks behind it
+        packetService.onEmit = () -> assertNotNull(table.park(SRC, DST, packet(2)));
+        table.park(SRC, DST, packet(1));
+        table.release(pending, S1, TREATMENT);
+
+        assertEquals(2, table.claimed());
+        assertEquals(1, table.size());
+        assertEquals(1, table.released());
+    }
+
+    private static PacketContext packet(int tag) {
+        ByteBuffer data = ByteBuffer.wrap(new byte[] {(byte) tag});
+        DefaultInboundPacket in = new DefaultInboundPacket(
+                new ConnectPoint(S1, PortNumber.portNumber(1)), null, data);
+        return new TestPacketContext(in);
+    }
+
+    private static class TestPacketContext extends DefaultPacketContext {
+        TestPacketContext(DefaultInboundPacket in) {
+            super(0, in, null, false);
+        }
+
+        @Override
+        public void send() {
+        }
+    }
+
+    private static class TestPacketService extends PacketServiceAdapter {
+        private final List<OutboundPacket> emitted = new ArrayList<>();
+        private Runnable onEmit;
+
+        @Override
+        public void emit(OutboundPacket packet) {
+            emitted.add(packet);
+            if (onEmit != null) {
+                onEmit.run();
+            }
+        }
+    }
+}
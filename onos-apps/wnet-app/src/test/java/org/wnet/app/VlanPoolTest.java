@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.HostLocation;
+import org.onosproject.net.PortNumber;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the tunnel VLAN pool.
+ */
+public class VlanPoolTest {
+
+    private static final DeviceId DEVICE = DeviceId.deviceId("of:0000000000000001");
+
+    private VlanPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new VlanPool();
+    }
+
+    @Test
+    public void oneVlanPerDestination() {
+        VlanId one = pool.allocate(port(1));
+        VlanId two = pool.allocate(port(2));
+
+        assertNotEquals(one, two);
+        assertEquals(one, pool.allocate(port(1)));
+        assertEquals(one, pool.get(port(1)));
+        assertEquals(port(1), pool.owner(one));
+        assertEquals(2, pool.allocated());
+    }
+
+    @Test
+    public void hostLocationSharesThePortVlan() {
+        VlanId vlanId = pool.allocate(port(1));
+
+        assertEquals(vlanId, pool.allocate(new HostLocation(DEVICE, PortNumber.portNumber(1), 42L)));
+        assertEquals(1, pool.allocated());
+    }
+
+    @Test
+    public void releaseFreesTheVlan() {
+        VlanId vlanId = pool.allocate(port(1));
+
+        assertEquals(port(1), pool.release(vlanId));
+        assertNull(pool.get(port(1)));
+        assertNull(pool.owner(vlanId));
+        assertEquals(0, pool.lastUsed(vlanId));
+        assertNull(pool.release(vlanId));
+        assertEquals(0, pool.allocated());
+    }
+
+    @Test
+    public void releasedVlanIsNotReusedStraightAway() {
+        VlanId vlanId = pool.allocate(port(1));
+        pool.release(vlanId);
+
+        assertNotEquals(vlanId, pool.allocate(port(2)));
+    }
+
+    @Test
+    public void exhaustion() {
+        Set<VlanId> vlans = new HashSet<>();
+        for (int i = 1; i <= pool.capacity(); i++) {
+            VlanId vlanId = pool.allocate(port(i));
+            assertNotNull(vlanId);
+            short id = vlanId.toShort();
+            assertTrue(id >= VlanPool.MIN_VLAN && id <= VlanPool.MAX_VLAN);
+            vlans.add(vlanId);
+        }
+        assertEquals(pool.capacity(), vlans.size());
+        assertNull(pool.allocate(port(pool.capacity() + 1)));
+
+        VlanId freed = pool.allocate(port(7));
+        pool.release(freed);
+        assertEquals(freed, pool.allocate(port(pool.capacity() + 1)));
+    }
+
+    private static ConnectPoint port(int port) {
+        return new ConnectPoint(DEVICE, PortNumber.portNumber(port));
+    }
+}
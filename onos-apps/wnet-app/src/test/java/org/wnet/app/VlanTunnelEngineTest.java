@@ -0,0 +1,175 @@
+/*
+ * Copyright 2025-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wnet.app;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.flow.TrafficTreatment;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests of the VLAN reclaim of the tunnel engine.
+ */
+public class VlanTunnelEngineTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.wnet.app");
+    private static final DeviceId S1 = DeviceId.deviceId("of:0000000000000001");
+    private static final DeviceId S2 = DeviceId.deviceId("of:0000000000000002");
+    private static final ConnectPoint DESTINATION = new ConnectPoint(S2, PortNumber.portNumber(1));
+
+    private VlanPool vlanPool;
+    private VlanTunnelEngine engine;
+    private VlanId vlanId;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        vlanPool = new VlanPool();
+        engine = new VlanTunnelEngine(APP_ID, null, null, null, null, new PathSelector(), vlanPool, null, 0,
+                                      LoggerFactory.getLogger(getClass()));
+        vlanId = vlanPool.allocate(DESTINATION);
+        // let the set up grace period pass
+        Thread.sleep(VlanTunnelEngine.RECLAIM_GRACE_MILLIS + 100);
+    }
+
+    @After
+    public void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    public void releasedWithTheLastRule() {
+        FlowRule first = ingress(S1, vlanId);
+        FlowRule last = transit(S2, vlanId);
+        engine.added(first);
+        engine.added(last);
+
+        engine.reclaim(first);
+        assertEquals(DESTINATION, vlanPool.owner(vlanId));
+
+        engine.reclaim(last);
+        assertNull(vlanPool.owner(vlanId));
+    }
+
+    @Test
+    public void repeatedReportsCountOnce() {
+        FlowRule first = ingress(S1, vlanId);
+        FlowRule last = transit(S2, vlanId);
+        engine.added(first);
+        engine.added(first);
+        engine.added(last);
+
+        engine.reclaim(first);
+        engine.reclaim(first);
+        assertEquals(DESTINATION, vlanPool.owner(vlanId));
+
+        engine.reclaim(last);
+        assertNull(vlanPool.owner(vlanId));
+    }
+
+    @Test
+    public void rewrittenRuleMovesToItsNewVlan() {
+        ConnectPoint other = new ConnectPoint(S2, PortNumber.portNumber(2));
+        VlanId otherVlan = vlanPool.allocate(other);
+        FlowRule last = transit(S2, vlanId);
+        engine.added(ingress(S1, otherVlan));
+        engine.added(last);
+
+        // same slot, now pushing the VLAN of the tunnel under test
+        FlowRule rewritten = ingress(S1, vlanId);
+        engine.added(rewritten);
+        engine.reclaim(last);
+        assertEquals(DESTINATION, vlanPool.owner(vlanId));
+
+        engine.reclaim(rewritten);
+        assertNull(vlanPool.owner(vlanId));
+    }
+
+    @Test
+    public void releaseWithinGracePeriodIsRetriedAfterIt() throws InterruptedException {
+        FlowRule last = transit(S2, vlanId);
+        engine.added(last);
+        // the tunnel is being set up again
+        assertEquals(vlanId, vlanPool.allocate(DESTINATION));
+
+        engine.reclaim(last);
+        assertEquals(DESTINATION, vlanPool.owner(vlanId));
+
+        Thread.sleep(VlanTunnelEngine.RECLAIM_GRACE_MILLIS + 200);
+        assertNull(vlanPool.owner(vlanId));
+    }
+
+    @Test
+    public void otherRulesAreIgnored() {
+        FlowRule plain = rule(S1, DefaultTrafficSelector.builder().matchInPort(PortNumber.portNumber(1)).build(),
+                              DefaultTrafficTreatment.builder().setOutput(PortNumber.portNumber(2)).build());
+        engine.added(plain);
+        engine.reclaim(plain);
+
+        assertEquals(DESTINATION, vlanPool.owner(vlanId));
+    }
+
+    private static FlowRule ingress(DeviceId deviceId, VlanId vlanId) {
+        TrafficSelector selector = DefaultTrafficSelector.builder()
+                .matchInPort(PortNumber.portNumber(1))
+                .matchEthDst(MacAddress.valueOf("00:00:00:00:00:02"))
+                .build();
+        TrafficTreatment treatment = DefaultTrafficTreatment.builder()
+                .pushVlan()
+                .setVlanId(vlanId)
+                .setOutput(PortNumber.portNumber(2))
+                .build();
+        return rule(deviceId, selector, treatment);
+    }
+
+    private static FlowRule transit(DeviceId deviceId, VlanId vlanId) {
+        TrafficSelector selector = DefaultTrafficSelector.builder()
+                .matchVlanId(vlanId)
+                .build();
+        TrafficTreatment treatment = DefaultTrafficTreatment.builder()
+                .popVlan()
+                .setOutput(PortNumber.portNumber(1))
+                .build();
+        return rule(deviceId, selector, treatment);
+    }
+
+    private static FlowRule rule(DeviceId deviceId, TrafficSelector selector, TrafficTreatment treatment) {
+        return DefaultFlowRule.builder()
+                .forDevice(deviceId)
+                .withSelector(selector)
+                .withTreatment(treatment)
+                .fromApp(APP_ID)
+                .withPriority(20)
+                .makePermanent()
+                .forTable(0)
+                .build();
+    }
+}